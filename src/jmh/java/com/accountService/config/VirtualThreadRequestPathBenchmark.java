@@ -0,0 +1,176 @@
+package com.accountService.config;
+
+import com.accountService.client.Downstream;
+import com.accountService.client.DownstreamClients;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.embedded.EmbeddedWebServerFactoryCustomizerAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load comparison of the blocking request path on platform threads and on virtual threads
+ * ({@code spring.threads.virtual.enabled}). Each request is served by Tomcat and makes one call through the
+ * pooled payment client to a local stub that answers after {@code downstreamLatencyMs}, the shape of the
+ * request path whose threads mostly wait on JDBC and downstream I/O. 400 callers keep requests in flight,
+ * twice Tomcat's default 200 request threads; the downstream pool and bulkhead are sized so that only the
+ * request threads can limit concurrency. The default latency is long enough that 200 platform threads cap
+ * throughput (at 200 requests per second) well before a single CPU does, so the comparison isolates the
+ * thread-per-request limit rather than CPU; shorter latencies need more cores for the load to reach it.
+ * <p>
+ * Run with a JDK 21 build ({@code JAVA_HOME=<jdk21> mvn -P benchmark -DskipTests verify
+ * -Djmh.includes=VirtualThreadRequestPathBenchmark}); on an older JDK virtual threads are unavailable and
+ * both parameters measure platform threads. Throughput is in requests per second; the sample-time run
+ * reports the latency percentiles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(400)
+// The JDK stub server otherwise keeps only 200 idle connections and closes pooled ones beyond that
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.maxIdleConnections=1000")
+public class VirtualThreadRequestPathBenchmark {
+
+    @Configuration
+    @ImportAutoConfiguration({ServletWebServerFactoryAutoConfiguration.class,
+            EmbeddedWebServerFactoryCustomizerAutoConfiguration.class, DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class})
+    static class RequestPath {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        DownstreamClients downstreamClients(Environment environment, MeterRegistry meterRegistry) {
+            return new DownstreamClients(environment, new RestTemplateBuilder(), meterRegistry);
+        }
+
+        @Bean
+        Endpoint endpoint(DownstreamClients downstreamClients, Environment environment) {
+            return new Endpoint(downstreamClients, environment.getRequiredProperty("api.payment.history.url"));
+        }
+    }
+
+    @RestController
+    static class Endpoint {
+        private final DownstreamClients downstreamClients;
+        private final String downstreamUrl;
+
+        Endpoint(DownstreamClients downstreamClients, String downstreamUrl) {
+            this.downstreamClients = downstreamClients;
+            this.downstreamUrl = downstreamUrl;
+        }
+
+        @GetMapping("/request-path")
+        String requestPath() {
+            return downstreamClients.restTemplate(Downstream.PAYMENT).getForObject(downstreamUrl, String.class);
+        }
+    }
+
+    @Param({"platform", "virtual"})
+    public String threading;
+
+    @Param({"1000"})
+    public int downstreamLatencyMs;
+
+    private ExecutorService stubExecutor;
+    private HttpServer stub;
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        stubExecutor = Executors.newCachedThreadPool();
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1000);
+        stub.setExecutor(stubExecutor);
+        byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+        stub.createContext("/", exchange -> {
+            try {
+                Thread.sleep(downstreamLatencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            try (OutputStream out = exchange.getResponseBody()) {
+                exchange.sendResponseHeaders(200, body.length);
+                out.write(body);
+            }
+        });
+        stub.start();
+
+        context = new SpringApplicationBuilder(RequestPath.class)
+                .web(WebApplicationType.SERVLET)
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + "virtual".equals(threading),
+                        "--api.payment.history.url=http://127.0.0.1:" + stub.getAddress().getPort() + "/history",
+                        "--api.payment.client.max-total=1000",
+                        "--api.payment.client.max-per-route=1000",
+                        "--api.payment.client.connection-request-timeout=30000",
+                        "--api.payment.bulkhead.max-concurrent=1000",
+                        "--api.payment.circuit-breaker.slow-call-duration=60000",
+                        "--logging.level.root=WARN");
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/request-path")).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        stub.stop(0);
+        stubExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public int request() throws IOException, InterruptedException {
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200) {
+            throw new IllegalStateException("Request failed with status " + status);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,102 @@
+package com.accountService.dto;
+
+import com.accountService.dto.request.BankTransferRequest;
+import com.accountService.dto.response.CustomerDashBoardResponse;
+import com.accountService.dto.response.MakePaymentResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON (de)serialization cost of the DTOs on the transfer and dashboard endpoints,
+ * using the same Jackson configuration Spring MVC and the downstream RestTemplates use.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoJsonBenchmark {
+
+    @Param({"10", "1000"})
+    public int transactionCount;
+
+    private ObjectMapper objectMapper;
+    private BankTransferRequest transferRequest;
+    private byte[] transferRequestJson;
+    private CustomerDashBoardResponse dashboard;
+    private byte[] dashboardJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        transferRequest = BankTransferRequest.builder()
+                .customerId(UUID.randomUUID())
+                .sourceAccountNumber("0123456789")
+                .destinationAccountNumber("9876543210")
+                .destinationBankCode("058")
+                .amount(new BigDecimal("15000.50"))
+                .narration("Rent for March")
+                .destinationAccountName("Ada Obi")
+                .transactionPin("1234")
+                .sessionId(UUID.randomUUID().toString())
+                .build();
+        transferRequestJson = objectMapper.writeValueAsBytes(transferRequest);
+
+        List<MakePaymentResponse> transactions = new ArrayList<>(transactionCount);
+        for (int i = 0; i < transactionCount; i++) {
+            MakePaymentResponse transaction = new MakePaymentResponse();
+            transaction.setTransactionId(UUID.randomUUID());
+            transaction.setAmount(BigDecimal.valueOf(1000 + i, 2));
+            transaction.setStatus("SUCCESS");
+            transaction.setCreatedAt(LocalDateTime.now().minusMinutes(i));
+            transactions.add(transaction);
+        }
+        dashboard = CustomerDashBoardResponse.builder()
+                .customerName("Ada Obi")
+                .accountNumber("0123456789")
+                .balance(new BigDecimal("250000.00"))
+                .transactions(transactions)
+                .build();
+        dashboardJson = objectMapper.writeValueAsBytes(dashboard);
+    }
+
+    @Benchmark
+    public byte[] serializeTransferRequest() throws Exception {
+        return objectMapper.writeValueAsBytes(transferRequest);
+    }
+
+    @Benchmark
+    public BankTransferRequest deserializeTransferRequest() throws Exception {
+        return objectMapper.readValue(transferRequestJson, BankTransferRequest.class);
+    }
+
+    @Benchmark
+    public byte[] serializeDashboard() throws Exception {
+        return objectMapper.writeValueAsBytes(dashboard);
+    }
+
+    @Benchmark
+    public CustomerDashBoardResponse deserializeDashboard() throws Exception {
+        return objectMapper.readValue(dashboardJson, CustomerDashBoardResponse.class);
+    }
+}
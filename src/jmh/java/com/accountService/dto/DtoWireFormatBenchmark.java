@@ -0,0 +1,91 @@
+package com.accountService.dto;
+
+import com.accountService.config.WireFormatConfig;
+import com.accountService.dto.response.CustomerDashBoardResponse;
+import com.accountService.dto.response.MakePaymentResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode cost of the dashboard in each negotiable wire format, with the mappers
+ * {@link WireFormatConfig} gives the message converters. The encoded size is printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoWireFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"1000"})
+    public int transactionCount;
+
+    private ObjectMapper objectMapper;
+    private CustomerDashBoardResponse dashboard;
+    private byte[] encodedDashboard;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = switch (format) {
+            case "cbor" -> WireFormatConfig.binaryMapper(Jackson2ObjectMapperBuilder.json(), new CBORFactory());
+            case "smile" -> WireFormatConfig.binaryMapper(Jackson2ObjectMapperBuilder.json(), SmileFactory.builder()
+                    .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                    .build());
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+
+        List<MakePaymentResponse> transactions = new ArrayList<>(transactionCount);
+        for (int i = 0; i < transactionCount; i++) {
+            MakePaymentResponse transaction = new MakePaymentResponse();
+            transaction.setTransactionId(UUID.randomUUID());
+            transaction.setAmount(BigDecimal.valueOf(1000 + i, 2));
+            transaction.setStatus("SUCCESS");
+            transaction.setCreatedAt(LocalDateTime.now().minusMinutes(i));
+            transactions.add(transaction);
+        }
+        dashboard = CustomerDashBoardResponse.builder()
+                .customerName("Ada Obi")
+                .accountNumber("0123456789")
+                .balance(new BigDecimal("250000.00"))
+                .transactions(transactions)
+                .build();
+        encodedDashboard = objectMapper.writeValueAsBytes(dashboard);
+        System.out.printf("%n%s dashboard with %d transactions: %d bytes%n",
+                format, transactionCount, encodedDashboard.length);
+    }
+
+    @Benchmark
+    public byte[] encodeDashboard() throws Exception {
+        return objectMapper.writeValueAsBytes(dashboard);
+    }
+
+    @Benchmark
+    public CustomerDashBoardResponse decodeDashboard() throws Exception {
+        return objectMapper.readValue(encodedDashboard, CustomerDashBoardResponse.class);
+    }
+}
@@ -0,0 +1,173 @@
+package com.accountService.model.repository;
+
+import com.accountService.model.Account;
+import com.accountService.model.Customer;
+import com.accountService.model.projection.AccountBalanceView;
+import com.accountService.model.projection.AccountIdentityView;
+import com.accountService.model.projection.CustomerIdentityView;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database reads behind each endpoint on a lookup-cache miss, before and after the switch to
+ * projections and a lazy account-to-customer association. The legacy variants reproduce what the
+ * eager one-to-one did: load the whole account, then a second select for its customer.
+ * Runs against in-memory H2, so the latency gap understates a networked Postgres, where every
+ * saved statement is also a saved round trip. The {@code statements} counter is the number of
+ * JDBC statements prepared during the measurement; divide by the op count for statements per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadPathBenchmark {
+
+    private static final int ACCOUNTS = 10_000;
+
+    @Configuration
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+            TransactionAutoConfiguration.class})
+    @EntityScan(basePackageClasses = Account.class)
+    @EnableJpaRepositories(basePackageClasses = AccountRepository.class)
+    static class JpaOnly {
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Statements {
+        public long statements;
+    }
+
+    private ConfigurableApplicationContext context;
+    private AccountRepository accountRepository;
+    private CustomerRepository customerRepository;
+    private TransactionTemplate transactionTemplate;
+    private Statistics statistics;
+    private final List<UUID> customerIds = new ArrayList<>(ACCOUNTS);
+    private final List<String> accountNumbers = new ArrayList<>(ACCOUNTS);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(JpaOnly.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:readpath;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.properties.hibernate.generate_statistics=true",
+                        "--logging.level.root=WARN");
+        accountRepository = context.getBean(AccountRepository.class);
+        customerRepository = context.getBean(CustomerRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+        List<Account> accounts = new ArrayList<>(ACCOUNTS);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts.add(Account.builder()
+                    .accountNumber(String.format("%010d", i))
+                    .customer(Customer.builder()
+                            .firstName("First" + i)
+                            .lastName("Last" + i)
+                            .email("customer" + i + "@example.com")
+                            .phoneNumber(String.format("080%08d", i))
+                            .build())
+                    .balance(new BigDecimal("1000.00"))
+                    .build());
+        }
+        for (Account account : accountRepository.saveAll(accounts)) {
+            customerIds.add(account.getCustomer().getId());
+            accountNumbers.add(account.getAccountNumber());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /** Customer lookup plus the eager account load the dashboard used to make */
+    @Benchmark
+    public Object dashboardReadsLegacy(Statements counter) {
+        long before = statistics.getPrepareStatementCount();
+        UUID customerId = customerIds.get(ThreadLocalRandom.current().nextInt(ACCOUNTS));
+        Customer customer = customerRepository.findById(customerId).orElseThrow();
+        Account account = transactionTemplate.execute(status -> {
+            Account loaded = accountRepository.findByCustomerId(customerId).orElseThrow();
+            Hibernate.initialize(loaded.getCustomer());
+            return loaded;
+        });
+        counter.statements += statistics.getPrepareStatementCount() - before;
+        return customer.getFirstName() + account.getBalance();
+    }
+
+    @Benchmark
+    public Object dashboardReadsLean(Statements counter) {
+        long before = statistics.getPrepareStatementCount();
+        UUID customerId = customerIds.get(ThreadLocalRandom.current().nextInt(ACCOUNTS));
+        CustomerIdentityView customer = customerRepository.findIdentityById(customerId).orElseThrow();
+        AccountBalanceView account = accountRepository.findBalanceByCustomerId(customerId).orElseThrow();
+        counter.statements += statistics.getPrepareStatementCount() - before;
+        return customer.getFirstName() + account.getBalance();
+    }
+
+    /** Customer and source-account existence checks of bank-transfer and make-payment, as they were */
+    @Benchmark
+    public Object transferLookupsLegacy(Statements counter) {
+        long before = statistics.getPrepareStatementCount();
+        int index = ThreadLocalRandom.current().nextInt(ACCOUNTS);
+        Customer customer = customerRepository.findById(customerIds.get(index)).orElseThrow();
+        Account account = transactionTemplate.execute(status -> {
+            Account loaded = accountRepository.findByAccountNumber(accountNumbers.get(index)).orElseThrow();
+            Hibernate.initialize(loaded.getCustomer());
+            return loaded;
+        });
+        counter.statements += statistics.getPrepareStatementCount() - before;
+        return customer.getId().equals(account.getCustomer().getId());
+    }
+
+    @Benchmark
+    public Object transferLookupsLean(Statements counter) {
+        long before = statistics.getPrepareStatementCount();
+        int index = ThreadLocalRandom.current().nextInt(ACCOUNTS);
+        CustomerIdentityView customer = customerRepository.findIdentityById(customerIds.get(index)).orElseThrow();
+        AccountIdentityView account = accountRepository.findIdentityByAccountNumber(accountNumbers.get(index))
+                .orElseThrow();
+        counter.statements += statistics.getPrepareStatementCount() - before;
+        return customer.getId().equals(account.getCustomerId());
+    }
+}
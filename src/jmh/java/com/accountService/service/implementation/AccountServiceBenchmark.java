@@ -0,0 +1,269 @@
+package com.accountService.service.implementation;
+
+import com.accountService.cache.AccountLookupCache;
+import com.accountService.cache.CustomerLookupCache;
+import com.accountService.client.DownstreamClients;
+import com.accountService.client.PaymentHistoryCoalescer;
+import com.accountService.datasource.ReplicaRouting;
+import com.accountService.dto.request.BankTransferRequest;
+import com.accountService.dto.response.BankTransferResponse;
+import com.accountService.dto.response.MakePaymentResponse;
+import com.accountService.dto.response.PaymentHistoryPageResponse;
+import com.accountService.model.Account;
+import com.accountService.model.Customer;
+import com.accountService.model.projection.AccountIdentityView;
+import com.accountService.model.projection.CustomerIdentityView;
+import com.accountService.model.repository.AccountRepository;
+import com.accountService.model.repository.CustomerRepository;
+import com.accountService.service.interfaces.FundsReservationService;
+import com.accountService.service.interfaces.LedgerService;
+import com.accountService.service.interfaces.TransferIdempotencyService;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Hot paths of {@link AccountServiceImpl} and {@link AccountNumberAllocatorImpl} with every dependency stubbed in-process:
+ * repositories are in-memory proxies behind the real lookup caches and the bank service is a local HTTP server,
+ * so {@code bankTransferSuccess} exercises the real pooled downstream client end to end.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountServiceBenchmark {
+
+    private static final String BANK_RESPONSE = "{\"transactionReference\":\"TRF-1\",\"status\":\"SUCCESS\","
+            + "\"message\":\"Approved\",\"amount\":2500.00,\"responseCode\":\"00\"}";
+
+    private HttpServer bankStub;
+    private ExecutorService bankStubExecutor;
+    private DownstreamClients downstreamClients;
+    private AccountNumberAllocatorImpl accountNumberAllocator;
+    private AccountServiceImpl accountService;
+    private BankTransferRequest validTransfer;
+    private BankTransferRequest invalidTransfer;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Without TCP_NODELAY the stub's separate header/body writes stall on delayed ACKs (~40ms per call)
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        bankStubExecutor = Executors.newFixedThreadPool(8);
+        bankStub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        bankStub.setExecutor(bankStubExecutor);
+        bankStub.createContext("/bank-transfer", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            byte[] body = BANK_RESPONSE.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        bankStub.start();
+
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("api.bank.transfer.url",
+                        "http://127.0.0.1:" + bankStub.getAddress().getPort() + "/bank-transfer");
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        downstreamClients = new DownstreamClients(environment, new RestTemplateBuilder(), meterRegistry);
+
+        AtomicLong blocks = new AtomicLong();
+        accountNumberAllocator = new AccountNumberAllocatorImpl(blocks::incrementAndGet, "058");
+
+        UUID customerId = UUID.randomUUID();
+        Customer customer = Customer.builder().id(customerId).firstName("Ada").lastName("Obi").build();
+        Account account = Account.builder()
+                .id(UUID.randomUUID())
+                .accountNumber("0123456789")
+                .customer(customer)
+                .balance(new BigDecimal("1000000000.00"))
+                .build();
+
+        CustomerIdentityView customerIdentity = stub(CustomerIdentityView.class, Map.of(
+                "getId", args -> customer.getId(),
+                "getFirstName", args -> customer.getFirstName(),
+                "getLastName", args -> customer.getLastName()));
+        AccountIdentityView accountIdentity = stub(AccountIdentityView.class, Map.of(
+                "getId", args -> account.getId(),
+                "getAccountNumber", args -> account.getAccountNumber(),
+                "getCustomerId", args -> customer.getId()));
+        CustomerRepository customerRepository = stub(CustomerRepository.class, Map.of(
+                "findIdentityById", args -> Optional.of(customerIdentity),
+                "existsById", args -> true));
+        AccountRepository accountRepository = stub(AccountRepository.class, Map.of(
+                "findIdentityByAccountNumber", args -> Optional.of(accountIdentity),
+                "existsByAccountNumber", args -> true));
+
+        accountService = new AccountServiceImpl(accountRepository, environment,
+                downstreamClients, new PaymentHistoryCoalescer(environment, meterRegistry),
+                new StubFundsReservationService(), accountNumberAllocator,
+                new CustomerLookupCache(customerRepository, environment, meterRegistry),
+                new AccountLookupCache(accountRepository, environment, meterRegistry), null, new StubLedgerService(),
+                new StubTransferIdempotencyService(), null, new ReplicaRouting(environment), Runnable::run);
+
+        validTransfer = BankTransferRequest.builder()
+                .customerId(customerId)
+                .sourceAccountNumber("0123456789")
+                .destinationAccountNumber("9876543210")
+                .destinationBankCode("058")
+                .amount(new BigDecimal("2500.00"))
+                .narration("Invoice 42")
+                .transactionPin("1234")
+                .sessionId("session-1")
+                .build();
+        invalidTransfer = BankTransferRequest.builder()
+                .customerId(customerId)
+                .sourceAccountNumber("0123456789")
+                .destinationAccountNumber("9876543210")
+                .destinationBankCode("058")
+                .amount(new BigDecimal("2500.00"))
+                .transactionPin(" ")
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        downstreamClients.destroy();
+        bankStub.stop(0);
+        bankStubExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String allocateAccountNumber() {
+        return accountNumberAllocator.allocate();
+    }
+
+    @Benchmark
+    public Object bankTransferRejectedByValidation() {
+        try {
+            return accountService.bankTransfer(invalidTransfer);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object bankTransferSuccess() {
+        return accountService.bankTransfer(validTransfer);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + "Stub";
+                };
+            }
+            throw new UnsupportedOperationException(method.getName() + " is not stubbed");
+        });
+    }
+
+    private static final class StubFundsReservationService implements FundsReservationService {
+        @Override
+        public UUID reserve(String accountNumber, BigDecimal amount) {
+            return UUID.randomUUID();
+        }
+
+        @Override
+        public boolean commit(UUID holdId) {
+            return true;
+        }
+
+        @Override
+        public boolean release(UUID holdId) {
+            return true;
+        }
+
+        @Override
+        public boolean markUnknown(UUID holdId) {
+            return true;
+        }
+
+        @Override
+        public boolean resolve(UUID holdId, boolean transferred) {
+            return true;
+        }
+
+        @Override
+        public int reapExpired() {
+            return 0;
+        }
+    }
+
+    private static final class StubLedgerService implements LedgerService {
+        @Override
+        public void recordPayment(UUID customerId, MakePaymentResponse response) {
+        }
+
+        @Override
+        public void recordTransfer(BankTransferRequest request, BankTransferResponse response) {
+        }
+
+        @Override
+        public PaymentHistoryPageResponse getHistory(UUID customerId, String cursor, int size) {
+            return new PaymentHistoryPageResponse();
+        }
+    }
+
+    private static final class StubTransferIdempotencyService implements TransferIdempotencyService {
+        @Override
+        public Optional<BankTransferResponse> claim(BankTransferRequest request) {
+            return Optional.empty();
+        }
+
+        @Override
+        public void attachHold(UUID customerId, String sessionId, UUID holdId) {
+        }
+
+        @Override
+        public void complete(UUID customerId, String sessionId, BankTransferResponse response) {
+        }
+
+        @Override
+        public void markUnknown(UUID customerId, String sessionId) {
+        }
+
+        @Override
+        public void abandon(UUID customerId, String sessionId) {
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.accountService.service.implementation;
+
+import com.accountService.model.Account;
+import com.accountService.model.Customer;
+import com.accountService.model.repository.AccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reservations against a single hot account from 64 threads, as its balance is spread over 1 (an ordinary
+ * account, every debit on the account row), 8 and 64 balance slots. Each operation is a reserve followed by
+ * a commit, the database work of a successful bank transfer. The balance is large enough never to run out,
+ * so the slow all-slots path is not taken and the numbers isolate row-lock contention.
+ * <p>
+ * Set {@code BENCHMARK_DATASOURCE_URL} (and {@code BENCHMARK_DATASOURCE_USERNAME}/{@code _PASSWORD}) to run it
+ * against a scratch Postgres database, whose schema it creates and drops; that is the database the slots are for.
+ * The in-memory H2 default only checks that the benchmark runs: H2 serialises concurrent writers to a table
+ * on its B-tree rather than on rows, so spreading a balance over more rows of one table cannot help there,
+ * and the slot bookkeeping shows up as a small loss.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class BalanceSlotContentionBenchmark {
+
+    private static final String ACCOUNT_NUMBER = "0123456789";
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    @Configuration
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+            TransactionAutoConfiguration.class})
+    @EntityScan(basePackageClasses = Account.class)
+    @EnableJpaRepositories(basePackageClasses = AccountRepository.class)
+    @Import({FundsReservationServiceImpl.class, AccountBalanceServiceImpl.class, SimpleMeterRegistry.class})
+    static class Reservations {
+    }
+
+    @Param({"1", "8", "64"})
+    public int slots;
+
+    private ConfigurableApplicationContext context;
+    private FundsReservationServiceImpl fundsReservationService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.hikari.maximum-pool-size=64",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--logging.level.root=WARN"));
+        String url = System.getenv("BENCHMARK_DATASOURCE_URL");
+        if (url != null) {
+            args.add("--spring.datasource.url=" + url);
+            args.add("--spring.datasource.username=" + System.getenv().getOrDefault("BENCHMARK_DATASOURCE_USERNAME", ""));
+            args.add("--spring.datasource.password=" + System.getenv().getOrDefault("BENCHMARK_DATASOURCE_PASSWORD", ""));
+        } else {
+            args.add("--spring.datasource.url=jdbc:h2:mem:slots" + slots + ";DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=60000");
+            args.add("--spring.datasource.driver-class-name=org.h2.Driver");
+            args.add("--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect");
+        }
+        context = new SpringApplicationBuilder(Reservations.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new));
+        fundsReservationService = context.getBean(FundsReservationServiceImpl.class);
+        context.getBean(AccountRepository.class).save(Account.builder()
+                .accountNumber(ACCOUNT_NUMBER)
+                .customer(Customer.builder()
+                        .firstName("Hot")
+                        .lastName("Merchant")
+                        .email("merchant@example.com")
+                        .phoneNumber("08000000000")
+                        .build())
+                .balance(new BigDecimal("1000000000000.00"))
+                .build());
+        if (slots > 1) {
+            context.getBean(AccountBalanceServiceImpl.class).enableBalanceSlots(ACCOUNT_NUMBER, slots);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean reserveAndCommit() {
+        UUID holdId = fundsReservationService.reserve(ACCOUNT_NUMBER, AMOUNT);
+        return fundsReservationService.commit(holdId);
+    }
+}
@@ -1,13 +1,17 @@
 package com.accountService;
 
+import com.accountService.config.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 /**
  * Main Spring Boot Application class for the Account Service.
  * This class serves as the entry point for the Spring Boot application and enables auto-configuration.
+ * {@link NativeRuntimeHints} supplies the hints the AOT engine cannot infer, for the native image.
  */
 @SpringBootApplication
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class AccountServiceApplication {
 
 	/**
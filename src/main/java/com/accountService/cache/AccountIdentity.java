@@ -0,0 +1,16 @@
+package com.accountService.cache;
+
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * The immutable part of an account that lookups need. Deliberately has no balance:
+ * balances are always read from the database.
+ */
+@Value
+public class AccountIdentity {
+    UUID id;
+    String accountNumber;
+    UUID customerId;
+}
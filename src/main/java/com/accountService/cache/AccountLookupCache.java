@@ -0,0 +1,61 @@
+package com.accountService.cache;
+
+import com.accountService.model.repository.AccountRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Read-through cache in front of {@link AccountRepository} for account-number existence and identity.
+ * It never holds balances, so it cannot serve a stale balance to a debit decision; entries are still
+ * evicted whenever a transfer touches the account so no lookup outlives a change to its row.
+ * Statistics are published as {@code cache.*{cache="account.lookup"}}.
+ */
+@Component
+public class AccountLookupCache {
+
+    private final LoadingCache<String, Optional<AccountIdentity>> cache;
+
+    /**
+     * Constructs the cache and registers its metrics.
+     *
+     * @param accountRepository Repository queried on a miss
+     * @param environment Source of the {@code cache.lookup.*} settings
+     * @param meterRegistry Registry the cache statistics are published to
+     */
+    public AccountLookupCache(AccountRepository accountRepository, Environment environment,
+                              MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(environment.getProperty("cache.lookup.account.max-size", Long.class, 100000L))
+                .expireAfter(new PresenceExpiry<String, AccountIdentity>(
+                        environment.getProperty("cache.lookup.ttl", Long.class, 600000L),
+                        environment.getProperty("cache.lookup.negative-ttl", Long.class, 30000L)))
+                .recordStats()
+                .build(accountNumber -> accountRepository.findIdentityByAccountNumber(accountNumber)
+                        .map(account -> new AccountIdentity(account.getId(), account.getAccountNumber(),
+                                account.getCustomerId())));
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "account.lookup");
+    }
+
+    /**
+     * @param accountNumber The account number
+     * @return The account's identity, or empty if no such account exists
+     */
+    public Optional<AccountIdentity> find(String accountNumber) {
+        return cache.get(accountNumber);
+    }
+
+    /**
+     * Drops any cached result for an account number, after it was created or its row changed.
+     *
+     * @param accountNumber The account number
+     */
+    public void invalidate(String accountNumber) {
+        cache.invalidate(accountNumber);
+    }
+}
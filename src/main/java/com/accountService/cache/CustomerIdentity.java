@@ -0,0 +1,15 @@
+package com.accountService.cache;
+
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * The immutable part of a customer that lookups need: who they are, not what they hold.
+ */
+@Value
+public class CustomerIdentity {
+    UUID id;
+    String firstName;
+    String lastName;
+}
@@ -0,0 +1,42 @@
+package com.accountService.cache;
+
+import com.accountService.model.Customer;
+import com.accountService.model.projection.CustomerKeysView;
+
+import java.util.function.Function;
+
+/**
+ * The customer columns that carry a unique constraint.
+ */
+public enum CustomerKey {
+    EMAIL("email", Customer::getEmail, CustomerKeysView::getEmail),
+    BVN("BVN", Customer::getBvn, CustomerKeysView::getBvn),
+    NIN("NIN", Customer::getNin, CustomerKeysView::getNin),
+    PHONE_NUMBER("phone number", Customer::getPhoneNumber, CustomerKeysView::getPhoneNumber);
+
+    private final String label;
+    private final Function<Customer, String> customerValue;
+    private final Function<CustomerKeysView, String> viewValue;
+
+    CustomerKey(String label, Function<Customer, String> customerValue,
+                Function<CustomerKeysView, String> viewValue) {
+        this.label = label;
+        this.customerValue = customerValue;
+        this.viewValue = viewValue;
+    }
+
+    /**
+     * @return Name of the column as shown in error messages
+     */
+    public String label() {
+        return label;
+    }
+
+    String valueOf(Customer customer) {
+        return customerValue.apply(customer);
+    }
+
+    String valueOf(CustomerKeysView view) {
+        return viewValue.apply(view);
+    }
+}
@@ -0,0 +1,61 @@
+package com.accountService.cache;
+
+import com.accountService.model.repository.CustomerRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Read-through cache in front of {@link CustomerRepository} for existence and identity checks.
+ * Size-bounded with Caffeine's W-TinyLFU eviction; "not found" results are cached too, for a shorter TTL.
+ * Statistics are published as {@code cache.*{cache="customer.lookup"}}.
+ */
+@Component
+public class CustomerLookupCache {
+
+    private final LoadingCache<UUID, Optional<CustomerIdentity>> cache;
+
+    /**
+     * Constructs the cache and registers its metrics.
+     *
+     * @param customerRepository Repository queried on a miss
+     * @param environment Source of the {@code cache.lookup.*} settings
+     * @param meterRegistry Registry the cache statistics are published to
+     */
+    public CustomerLookupCache(CustomerRepository customerRepository, Environment environment,
+                               MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(environment.getProperty("cache.lookup.customer.max-size", Long.class, 100000L))
+                .expireAfter(new PresenceExpiry<UUID, CustomerIdentity>(
+                        environment.getProperty("cache.lookup.ttl", Long.class, 600000L),
+                        environment.getProperty("cache.lookup.negative-ttl", Long.class, 30000L)))
+                .recordStats()
+                .build(id -> customerRepository.findIdentityById(id)
+                        .map(customer -> new CustomerIdentity(customer.getId(), customer.getFirstName(),
+                                customer.getLastName())));
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "customer.lookup");
+    }
+
+    /**
+     * @param customerId Identifier of the customer
+     * @return The customer's identity, or empty if no such customer exists
+     */
+    public Optional<CustomerIdentity> find(UUID customerId) {
+        return cache.get(customerId);
+    }
+
+    /**
+     * Drops any cached result for a customer, for example after it was created or removed.
+     *
+     * @param customerId Identifier of the customer
+     */
+    public void invalidate(UUID customerId) {
+        cache.invalidate(customerId);
+    }
+}
@@ -0,0 +1,215 @@
+package com.accountService.cache;
+
+import com.accountService.model.Customer;
+import com.accountService.model.projection.CustomerKeysView;
+import com.accountService.model.repository.CustomerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * In-memory membership index over the unique customer columns, one Bloom filter per {@link CustomerKey}.
+ * A value the filter has never seen is definitely not registered, so onboarding only queries the
+ * database for values the filter reports as possibly present. The filters are rebuilt from a stream of
+ * every customer's keys at startup and every {@code onboarding.uniqueness.rebuild-interval} milliseconds,
+ * which also picks up customers onboarded by other instances; in between, customers onboarded here are
+ * added as they are saved. Until the first build completes every value counts as possibly present.
+ * The unique constraints stay authoritative: a customer onboarded elsewhere since the last rebuild is
+ * still rejected by the insert.
+ * <p>
+ * Publishes {@code onboarding.uniqueness.filter.bytes} and the estimated
+ * {@code onboarding.uniqueness.filter.fpp} per key, and counts {@code onboarding.uniqueness.checks} by
+ * outcome: {@code new} (answered by the filter), {@code duplicate} or {@code false_positive}.
+ */
+@Slf4j
+@Component
+public class CustomerUniquenessIndex {
+
+    private final CustomerRepository customerRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final long expectedCustomers;
+    private final double fpp;
+    private final Map<CustomerKey, Predicate<String>> lookups = new EnumMap<>(CustomerKey.class);
+    private final Map<CustomerKey, Counter> newValues = new EnumMap<>(CustomerKey.class);
+    private final Map<CustomerKey, Counter> duplicates = new EnumMap<>(CustomerKey.class);
+    private final Map<CustomerKey, Counter> falsePositives = new EnumMap<>(CustomerKey.class);
+    private volatile Map<CustomerKey, BloomFilter> filters;
+    private volatile Map<CustomerKey, BloomFilter> building;
+
+    /**
+     * Constructs the index and registers its metrics. The filters are built by the first {@link #rebuild()}.
+     *
+     * @param customerRepository Repository the keys are streamed from and possible hits are checked against
+     * @param transactionManager Manager of the read-only transaction the keys are streamed in
+     * @param environment Source of the {@code onboarding.uniqueness.*} settings
+     * @param meterRegistry Registry the filter metrics are published to
+     */
+    public CustomerUniquenessIndex(CustomerRepository customerRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   Environment environment, MeterRegistry meterRegistry) {
+        this.customerRepository = customerRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = environment.getProperty("onboarding.uniqueness.enabled", Boolean.class, true);
+        this.expectedCustomers = environment.getProperty("onboarding.uniqueness.expected-customers", Long.class, 1000000L);
+        this.fpp = environment.getProperty("onboarding.uniqueness.fpp", Double.class, 0.01);
+        lookups.put(CustomerKey.EMAIL, customerRepository::existsByEmail);
+        lookups.put(CustomerKey.BVN, customerRepository::existsByBvn);
+        lookups.put(CustomerKey.NIN, customerRepository::existsByNin);
+        lookups.put(CustomerKey.PHONE_NUMBER, customerRepository::existsByPhoneNumber);
+        for (CustomerKey key : CustomerKey.values()) {
+            String tag = key.name().toLowerCase();
+            newValues.put(key, checks(meterRegistry, tag, "new"));
+            duplicates.put(key, checks(meterRegistry, tag, "duplicate"));
+            falsePositives.put(key, checks(meterRegistry, tag, "false_positive"));
+            Gauge.builder("onboarding.uniqueness.filter.bytes", this, index -> index.sizeInBytes(key))
+                    .description("Memory held by the Bloom filter over a unique customer column")
+                    .baseUnit("bytes")
+                    .tag("key", tag)
+                    .register(meterRegistry);
+            Gauge.builder("onboarding.uniqueness.filter.fpp", this, index -> index.expectedFpp(key))
+                    .description("Estimated false-positive probability of the Bloom filter over a unique customer column")
+                    .tag("key", tag)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * @param key Column the value belongs to
+     * @param value Value to look for
+     * @return False if no customer has this value; true if one may have it
+     */
+    public boolean mightExist(CustomerKey key, String value) {
+        Map<CustomerKey, BloomFilter> current = filters;
+        if (current == null || current.get(key).mightContain(value)) {
+            return true;
+        }
+        newValues.get(key).increment();
+        return false;
+    }
+
+    /**
+     * Records the outcome of the database lookup made for a value the filter reported as possibly present.
+     * Lookups made before the first build are not counted, as the filter was not consulted.
+     *
+     * @param key Column the value belongs to
+     * @param found Whether the value was already registered
+     */
+    public void recordLookup(CustomerKey key, boolean found) {
+        if (filters == null) {
+            return;
+        }
+        (found ? duplicates : falsePositives).get(key).increment();
+    }
+
+    /**
+     * Finds the first unique column in which the customer clashes with a registered one. Only values
+     * the filters report as possibly present are looked up in the database.
+     *
+     * @param customer Customer about to be onboarded
+     * @return The clashing column, or empty if all of the customer's values are free
+     */
+    public Optional<CustomerKey> findTaken(Customer customer) {
+        for (CustomerKey key : CustomerKey.values()) {
+            String value = key.valueOf(customer);
+            if (value != null && mightExist(key, value)) {
+                boolean found = lookups.get(key).test(value);
+                recordLookup(key, found);
+                if (found) {
+                    return Optional.of(key);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Adds a saved customer's values, so later checks for them fall through to the database.
+     *
+     * @param customer Customer that was just persisted
+     */
+    public void add(Customer customer) {
+        addTo(filters, customer);
+        addTo(building, customer);
+    }
+
+    /**
+     * Builds fresh filters from every customer's keys and swaps them in. Customers added while the keys
+     * are streamed go into both the old and the new filters. If the build fails the old filters are kept.
+     */
+    @Scheduled(fixedDelayString = "${onboarding.uniqueness.rebuild-interval:3600000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long capacity = Math.max(expectedCustomers, customerRepository.count() * 2);
+            Map<CustomerKey, BloomFilter> next = new EnumMap<>(CustomerKey.class);
+            for (CustomerKey key : CustomerKey.values()) {
+                next.put(key, BloomFilter.create(capacity, fpp));
+            }
+            building = next;
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<CustomerKeysView> keys = customerRepository.streamKeys()) {
+                    keys.forEach(view -> {
+                        for (CustomerKey key : CustomerKey.values()) {
+                            String value = key.valueOf(view);
+                            if (value != null) {
+                                next.get(key).put(value);
+                            }
+                        }
+                    });
+                }
+            });
+            filters = next;
+        } catch (DataAccessException e) {
+            log.warn("Could not rebuild the customer uniqueness index; keeping the previous one", e);
+        } finally {
+            building = null;
+        }
+    }
+
+    private static void addTo(Map<CustomerKey, BloomFilter> target, Customer customer) {
+        if (target == null) {
+            return;
+        }
+        for (CustomerKey key : CustomerKey.values()) {
+            String value = key.valueOf(customer);
+            if (value != null) {
+                target.get(key).put(value);
+            }
+        }
+    }
+
+    private double sizeInBytes(CustomerKey key) {
+        Map<CustomerKey, BloomFilter> current = filters;
+        return current == null ? 0 : current.get(key).sizeInBytes();
+    }
+
+    private double expectedFpp(CustomerKey key) {
+        Map<CustomerKey, BloomFilter> current = filters;
+        return current == null ? 1 : current.get(key).expectedFpp();
+    }
+
+    private static Counter checks(MeterRegistry meterRegistry, String key, String outcome) {
+        return Counter.builder("onboarding.uniqueness.checks")
+                .description("Uniqueness checks of onboarding customer values, by how they were answered")
+                .tag("key", key)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
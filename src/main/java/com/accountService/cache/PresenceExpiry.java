@@ -0,0 +1,36 @@
+package com.accountService.cache;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expires cached lookups after one TTL when the row was found and a shorter one when it was not,
+ * so a row created after a negative lookup becomes visible quickly even without invalidation.
+ */
+class PresenceExpiry<K, V> implements Expiry<K, Optional<V>> {
+
+    private final long presentNanos;
+    private final long absentNanos;
+
+    PresenceExpiry(long presentTtlMs, long absentTtlMs) {
+        this.presentNanos = TimeUnit.MILLISECONDS.toNanos(presentTtlMs);
+        this.absentNanos = TimeUnit.MILLISECONDS.toNanos(absentTtlMs);
+    }
+
+    @Override
+    public long expireAfterCreate(K key, Optional<V> value, long currentTime) {
+        return value.isPresent() ? presentNanos : absentNanos;
+    }
+
+    @Override
+    public long expireAfterUpdate(K key, Optional<V> value, long currentTime, long currentDuration) {
+        return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(K key, Optional<V> value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+}
@@ -0,0 +1,24 @@
+package com.accountService.client;
+
+/**
+ * Remote services the account service calls out to.
+ * Each downstream gets its own pooled HTTP client, configured under {@code api.<key>.client.*}.
+ */
+public enum Downstream {
+    AUTH("auth"),
+    PAYMENT("payment"),
+    BANK("bank");
+
+    private final String key;
+
+    Downstream(String key) {
+        this.key = key;
+    }
+
+    /**
+     * @return The short name used in property keys and metric tags
+     */
+    public String key() {
+        return key;
+    }
+}
@@ -0,0 +1,45 @@
+package com.accountService.client;
+
+import lombok.Builder;
+import lombok.Value;
+import org.springframework.core.env.Environment;
+
+/**
+ * Connection pool, timeout and wire format settings for a single downstream HTTP client.
+ * All durations are in milliseconds, matching the other time-based properties of this service.
+ */
+@Value
+@Builder
+public class DownstreamClientSettings {
+    int maxTotal;
+    int maxPerRoute;
+    long connectTimeoutMs;
+    long readTimeoutMs;
+    long connectionRequestTimeoutMs;
+    long keepAliveMs;
+    long idleEvictMs;
+    long timeToLiveMs;
+    WireFormat wireFormat;
+
+    /**
+     * Reads the settings for a downstream from {@code api.<key>.client.*}, falling back to defaults.
+     *
+     * @param environment The Spring environment to read properties from
+     * @param downstream The downstream whose settings are required
+     * @return The resolved settings
+     */
+    public static DownstreamClientSettings from(Environment environment, Downstream downstream) {
+        String prefix = "api." + downstream.key() + ".client.";
+        return DownstreamClientSettings.builder()
+                .maxTotal(environment.getProperty(prefix + "max-total", Integer.class, 100))
+                .maxPerRoute(environment.getProperty(prefix + "max-per-route", Integer.class, 50))
+                .connectTimeoutMs(environment.getProperty(prefix + "connect-timeout", Long.class, 2000L))
+                .readTimeoutMs(environment.getProperty(prefix + "read-timeout", Long.class, 5000L))
+                .connectionRequestTimeoutMs(environment.getProperty(prefix + "connection-request-timeout", Long.class, 1000L))
+                .keepAliveMs(environment.getProperty(prefix + "keep-alive", Long.class, 30000L))
+                .idleEvictMs(environment.getProperty(prefix + "idle-evict", Long.class, 60000L))
+                .timeToLiveMs(environment.getProperty(prefix + "time-to-live", Long.class, 300000L))
+                .wireFormat(WireFormat.of(environment.getProperty(prefix + "wire-format", "json")))
+                .build();
+    }
+}
@@ -0,0 +1,263 @@
+package com.accountService.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds one pooled, keep-alive {@link RestTemplate} per {@link Downstream}.
+ * Clients are built once at startup and shared across requests, so calls to the auth, payment
+ * and bank services reuse open connections instead of paying a new TCP/TLS handshake each time.
+ * Pool usage is published as {@code downstream.pool.*} gauges tagged with the downstream name.
+ * Every client is also guarded by its own circuit breaker and bulkhead (see {@link DownstreamResilienceInterceptor}),
+ * whose state, call counts and transitions are published under {@code resilience4j.*} and {@code downstream.circuit.*}.
+ * Call latency and outcomes are timed in {@code downstream.requests} (see {@link DownstreamMetricsInterceptor}).
+ * Bodies are exchanged in each downstream's {@code api.<key>.client.wire-format}, JSON unless configured.
+ * A caller with a tighter time budget than the configured read timeout can ask for a client capped at it,
+ * which shares the downstream's pool, circuit breaker and bulkhead.
+ */
+@Component
+public class DownstreamClients implements DisposableBean {
+
+    private final Map<Downstream, RestTemplate> restTemplates = new EnumMap<>(Downstream.class);
+    private final Map<Downstream, RestTemplateBuilder> restTemplateBuilders = new EnumMap<>(Downstream.class);
+    private final ConcurrentMap<BudgetedClient, RestTemplate> budgetedRestTemplates = new ConcurrentHashMap<>();
+    private final Map<Downstream, CloseableHttpClient> httpClients = new EnumMap<>(Downstream.class);
+    private final Map<Downstream, WireFormat> wireFormats = new EnumMap<>(Downstream.class);
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+    private final BulkheadRegistry bulkheadRegistry = BulkheadRegistry.ofDefaults();
+
+    /**
+     * Builds the pooled clients for every downstream.
+     *
+     * @param environment Source of the {@code api.<key>.client.*} settings
+     * @param restTemplateBuilder Spring Boot builder carrying the application's message converters
+     * @param meterRegistry Registry the pool gauges, call timers and resilience metrics are published to
+     */
+    public DownstreamClients(Environment environment, RestTemplateBuilder restTemplateBuilder,
+                             MeterRegistry meterRegistry) {
+        for (Downstream downstream : Downstream.values()) {
+            DownstreamClientSettings settings = DownstreamClientSettings.from(environment, downstream);
+            PoolingHttpClientConnectionManager connectionManager = connectionManager(settings);
+            CloseableHttpClient httpClient = httpClient(connectionManager, settings);
+            registerPoolGauges(meterRegistry, downstream, connectionManager);
+
+            DownstreamResilienceSettings resilience = DownstreamResilienceSettings.from(environment, downstream);
+            CircuitBreaker circuitBreaker = circuitBreaker(downstream, resilience, meterRegistry);
+            Bulkhead bulkhead = bulkhead(downstream, resilience);
+
+            httpClients.put(downstream, httpClient);
+            wireFormats.put(downstream, settings.getWireFormat());
+            RestTemplateBuilder builder = restTemplateBuilder.additionalInterceptors(
+                    new DownstreamMetricsInterceptor(downstream, meterRegistry),
+                    new DownstreamResilienceInterceptor(downstream, circuitBreaker, bulkhead, meterRegistry));
+            restTemplateBuilders.put(downstream, builder);
+            restTemplates.put(downstream, builder
+                    .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient))
+                    .build());
+        }
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+    }
+
+    /**
+     * Returns the shared client for a downstream.
+     *
+     * @param downstream The remote service to call
+     * @return The pooled RestTemplate for that service
+     */
+    public RestTemplate restTemplate(Downstream downstream) {
+        return restTemplates.get(downstream);
+    }
+
+    /**
+     * Returns a client for a downstream that gives up waiting for a response after {@code readTimeout}
+     * rather than the configured read timeout, so a caller with a time budget does not keep its thread
+     * busy past it. The client is built on first use and reused for the same timeout.
+     *
+     * @param downstream The remote service to call
+     * @param readTimeout Longest wait for the response
+     * @return A RestTemplate sharing the downstream's pooled connections
+     */
+    public RestTemplate restTemplate(Downstream downstream, Duration readTimeout) {
+        return budgetedRestTemplates.computeIfAbsent(new BudgetedClient(downstream, readTimeout), key ->
+                restTemplateBuilders.get(downstream)
+                        .requestFactory(() -> {
+                            HttpComponentsClientHttpRequestFactory requestFactory =
+                                    new HttpComponentsClientHttpRequestFactory(httpClients.get(downstream));
+                            requestFactory.setReadTimeout(readTimeout);
+                            return requestFactory;
+                        })
+                        .build());
+    }
+
+    /**
+     * Returns headers for a call to a downstream: the body is sent in the downstream's wire format, and
+     * the answer is accepted in that format or in JSON, which every downstream can fall back to.
+     *
+     * @param downstream The remote service to call
+     * @return New, mutable headers for the request
+     */
+    public HttpHeaders headers(Downstream downstream) {
+        MediaType format = wireFormats.get(downstream).mediaType();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(format);
+        headers.setAccept(MediaType.APPLICATION_JSON.equals(format)
+                ? List.of(format) : List.of(format, MediaType.APPLICATION_JSON));
+        return headers;
+    }
+
+    /**
+     * @param downstream The remote service
+     * @return Current state of the downstream's circuit breaker
+     */
+    CircuitBreaker.State circuitState(Downstream downstream) {
+        return circuitBreakerRegistry.circuitBreaker(downstream.key()).getState();
+    }
+
+    /**
+     * @param downstream The remote service
+     * @return The downstream's circuit breaker, shared with its reactive client
+     */
+    CircuitBreaker circuitBreaker(Downstream downstream) {
+        return circuitBreakerRegistry.circuitBreaker(downstream.key());
+    }
+
+    /**
+     * @param downstream The remote service
+     * @return The downstream's bulkhead, shared with its reactive client
+     */
+    Bulkhead bulkhead(Downstream downstream) {
+        return bulkheadRegistry.bulkhead(downstream.key());
+    }
+
+    private CircuitBreaker circuitBreaker(Downstream downstream, DownstreamResilienceSettings settings,
+                                          MeterRegistry meterRegistry) {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(downstream.key(),
+                CircuitBreakerConfig.custom()
+                        .failureRateThreshold(settings.getFailureRateThreshold())
+                        .slowCallRateThreshold(settings.getSlowCallRateThreshold())
+                        .slowCallDurationThreshold(Duration.ofMillis(settings.getSlowCallDurationMs()))
+                        .slidingWindowSize(settings.getSlidingWindowSize())
+                        .minimumNumberOfCalls(settings.getMinimumNumberOfCalls())
+                        .waitDurationInOpenState(Duration.ofMillis(settings.getWaitInOpenStateMs()))
+                        .permittedNumberOfCallsInHalfOpenState(settings.getPermittedCallsInHalfOpenState())
+                        .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                        .build());
+        circuitBreaker.getEventPublisher().onStateTransition(event -> meterRegistry.counter(
+                "downstream.circuit.transitions",
+                "downstream", downstream.key(),
+                "from", event.getStateTransition().getFromState().name(),
+                "to", event.getStateTransition().getToState().name()).increment());
+        return circuitBreaker;
+    }
+
+    private Bulkhead bulkhead(Downstream downstream, DownstreamResilienceSettings settings) {
+        return bulkheadRegistry.bulkhead(downstream.key(), BulkheadConfig.custom()
+                .maxConcurrentCalls(settings.getMaxConcurrentCalls())
+                .maxWaitDuration(Duration.ofMillis(settings.getMaxWaitMs()))
+                .build());
+    }
+
+    private PoolingHttpClientConnectionManager connectionManager(DownstreamClientSettings settings) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(settings.getMaxTotal())
+                .setMaxConnPerRoute(settings.getMaxPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(settings.getConnectTimeoutMs()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(settings.getReadTimeoutMs()))
+                        .setTimeToLive(TimeValue.ofMilliseconds(settings.getTimeToLiveMs()))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+    }
+
+    private CloseableHttpClient httpClient(PoolingHttpClientConnectionManager connectionManager,
+                                           DownstreamClientSettings settings) {
+        TimeValue keepAlive = TimeValue.ofMilliseconds(settings.getKeepAliveMs());
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(settings.getConnectionRequestTimeoutMs()))
+                        .setResponseTimeout(Timeout.ofMilliseconds(settings.getReadTimeoutMs()))
+                        .build())
+                // Honour the server's Keep-Alive header but never hold a connection longer than configured
+                .setKeepAliveStrategy((response, context) -> {
+                    TimeValue advertised = DefaultConnectionKeepAliveStrategy.INSTANCE
+                            .getKeepAliveDuration(response, context);
+                    return TimeValue.isPositive(advertised) && advertised.compareTo(keepAlive) < 0
+                            ? advertised : keepAlive;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(settings.getIdleEvictMs()))
+                // The default strategy re-sends requests, POSTs included, after a 503 or an I/O error;
+                // a payment or transfer must only be resent by callers that know it is safe
+                .disableAutomaticRetries()
+                .build();
+    }
+
+    private void registerPoolGauges(MeterRegistry meterRegistry, Downstream downstream,
+                                    PoolingHttpClientConnectionManager connectionManager) {
+        Gauge.builder("downstream.pool.leased", connectionManager, cm -> cm.getTotalStats().getLeased())
+                .tag("downstream", downstream.key())
+                .description("Connections currently checked out of the pool")
+                .register(meterRegistry);
+        Gauge.builder("downstream.pool.available", connectionManager, cm -> cm.getTotalStats().getAvailable())
+                .tag("downstream", downstream.key())
+                .description("Idle connections ready for reuse")
+                .register(meterRegistry);
+        Gauge.builder("downstream.pool.pending", connectionManager, cm -> cm.getTotalStats().getPending())
+                .tag("downstream", downstream.key())
+                .description("Requests waiting for a connection; non-zero means the pool is saturated")
+                .register(meterRegistry);
+        Gauge.builder("downstream.pool.max", connectionManager, cm -> cm.getTotalStats().getMax())
+                .tag("downstream", downstream.key())
+                .description("Maximum number of connections the pool may open")
+                .register(meterRegistry);
+    }
+
+    private record BudgetedClient(Downstream downstream, Duration readTimeout) {
+    }
+
+    /**
+     * Closes every pooled client and its connections on shutdown.
+     */
+    @Override
+    public void destroy() throws IOException {
+        for (CloseableHttpClient httpClient : httpClients.values()) {
+            httpClient.close();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.accountService.client;
+
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.util.Set;
+
+/**
+ * Classifies failed downstream calls by what the downstream may have done with the request. Only a
+ * call that provably never reached the downstream, or that it refused outright, may be treated as
+ * not having happened; anything else (a read timeout, a dropped connection, a 5xx) may have been acted on.
+ */
+public final class DownstreamFailures {
+
+    /** Client errors that do not refuse the request itself: it may have been, or may still be, processed */
+    private static final Set<Integer> RETRYABLE_CLIENT_ERRORS = Set.of(408, 409, 425, 429);
+
+    private DownstreamFailures() {
+    }
+
+    /**
+     * @param failure Exception from a downstream call, possibly wrapped
+     * @return true if the request was never sent: its circuit breaker or bulkhead refused it, no pooled
+     *         connection was free, or no connection to the downstream could be opened
+     */
+    public static boolean neverSent(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DownstreamUnavailableException
+                    || cause instanceof ConnectException
+                    || cause instanceof ConnectTimeoutException
+                    || cause instanceof ConnectionRequestTimeoutException
+                    || cause instanceof UnknownHostException) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param failure Exception from a downstream call, possibly wrapped
+     * @return true if the downstream answered with a client error refusing the request, so it was not
+     *         acted on and resending it unchanged cannot succeed
+     */
+    public static boolean rejected(Throwable failure) {
+        HttpStatusCode status = clientErrorStatus(failure);
+        return status != null && !RETRYABLE_CLIENT_ERRORS.contains(status.value());
+    }
+
+    private static HttpStatusCode clientErrorStatus(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            HttpStatusCode status = null;
+            if (cause instanceof RestClientResponseException response) {
+                status = response.getStatusCode();
+            } else if (cause instanceof WebClientResponseException response) {
+                status = response.getStatusCode();
+            }
+            if (status != null) {
+                return status.is4xxClientError() ? status : null;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,67 @@
+package com.accountService.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.lang.NonNull;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reactive counterpart of {@link DownstreamMetricsInterceptor}: times every WebClient call in the same
+ * {@code downstream.requests} timer, so blocking and reactive calls to a downstream share one set of
+ * series. A call abandoned by its subscriber is recorded with outcome {@code CANCELLED}.
+ */
+class DownstreamMetricsFilter implements ExchangeFilterFunction {
+
+    private final Downstream downstream;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    DownstreamMetricsFilter(Downstream downstream, MeterRegistry meterRegistry) {
+        this.downstream = downstream;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    @NonNull
+    public Mono<ClientResponse> filter(@NonNull ClientRequest request, @NonNull ExchangeFunction next) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            AtomicReference<String> outcome = new AtomicReference<>("IO_ERROR");
+            return next.exchange(request)
+                    .doOnNext(response -> outcome.set(outcome(response.statusCode())))
+                    .doOnError(DownstreamUnavailableException.class, e -> outcome.set("REJECTED"))
+                    .doFinally(signal -> sample.stop(timer(request.method().name(),
+                            signal == SignalType.CANCEL ? "CANCELLED" : outcome.get())));
+        });
+    }
+
+    private Timer timer(String method, String outcome) {
+        return timers.computeIfAbsent(method + ' ' + outcome, key -> Timer.builder("downstream.requests")
+                .tag("downstream", downstream.key())
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .description("Calls to a downstream service")
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private static String outcome(HttpStatusCode status) {
+        if (status.is5xxServerError()) {
+            return "SERVER_ERROR";
+        }
+        if (status.is4xxClientError()) {
+            return "CLIENT_ERROR";
+        }
+        return "SUCCESS";
+    }
+}
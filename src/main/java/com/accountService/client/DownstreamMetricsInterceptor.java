@@ -0,0 +1,72 @@
+package com.accountService.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.lang.NonNull;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every call to one downstream in {@code downstream.requests}, tagged with the downstream,
+ * HTTP method and outcome. It runs ahead of the resilience interceptor, so calls rejected by the
+ * bulkhead or circuit breaker are recorded too, with outcome {@code REJECTED}. The per-outcome
+ * counts double as the error counters; the timer publishes a percentile histogram for Prometheus.
+ * Timers are registered once per method and outcome and reused, so a call does not build and look up
+ * its meter again.
+ */
+class DownstreamMetricsInterceptor implements ClientHttpRequestInterceptor {
+
+    private final Downstream downstream;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    DownstreamMetricsInterceptor(Downstream downstream, MeterRegistry meterRegistry) {
+        this.downstream = downstream;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    @NonNull
+    public ClientHttpResponse intercept(@NonNull HttpRequest request, @NonNull byte[] body,
+                                        @NonNull ClientHttpRequestExecution execution) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "IO_ERROR";
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            outcome = outcome(response.getStatusCode());
+            return response;
+        } catch (DownstreamUnavailableException e) {
+            outcome = "REJECTED";
+            throw e;
+        } finally {
+            sample.stop(timer(request.getMethod().name(), outcome));
+        }
+    }
+
+    private Timer timer(String method, String outcome) {
+        return timers.computeIfAbsent(method + ' ' + outcome, key -> Timer.builder("downstream.requests")
+                .tag("downstream", downstream.key())
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .description("Calls to a downstream service")
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private static String outcome(HttpStatusCode status) {
+        if (status.is5xxServerError()) {
+            return "SERVER_ERROR";
+        }
+        if (status.is4xxClientError()) {
+            return "CLIENT_ERROR";
+        }
+        return "SUCCESS";
+    }
+}
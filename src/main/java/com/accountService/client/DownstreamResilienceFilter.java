@@ -0,0 +1,76 @@
+package com.accountService.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.lang.NonNull;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reactive counterpart of {@link DownstreamResilienceInterceptor}. It guards WebClient calls with the
+ * same bulkhead and circuit breaker instances as the blocking client, so both count against one limit
+ * and trip one breaker. The bulkhead permit is held until the response arrives or the call is cancelled.
+ */
+class DownstreamResilienceFilter implements ExchangeFilterFunction {
+
+    private final Downstream downstream;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Counter circuitOpenRejections;
+    private final Counter bulkheadFullRejections;
+
+    DownstreamResilienceFilter(Downstream downstream, CircuitBreaker circuitBreaker, Bulkhead bulkhead,
+                               MeterRegistry meterRegistry) {
+        this.downstream = downstream;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.circuitOpenRejections = rejectionCounter(meterRegistry, "circuit_open");
+        this.bulkheadFullRejections = rejectionCounter(meterRegistry, "bulkhead_full");
+    }
+
+    private Counter rejectionCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("downstream.rejected")
+                .tag("downstream", downstream.key())
+                .tag("reason", reason)
+                .description("Calls rejected without reaching the downstream")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @NonNull
+    public Mono<ClientResponse> filter(@NonNull ClientRequest request, @NonNull ExchangeFunction next) {
+        return Mono.defer(() -> {
+            if (!bulkhead.tryAcquirePermission()) {
+                bulkheadFullRejections.increment();
+                return Mono.error(new DownstreamUnavailableException(downstream, "too many concurrent calls"));
+            }
+            if (!circuitBreaker.tryAcquirePermission()) {
+                bulkhead.onComplete();
+                circuitOpenRejections.increment();
+                return Mono.error(new DownstreamUnavailableException(downstream, "circuit open"));
+            }
+            long start = System.nanoTime();
+            return next.exchange(request)
+                    .doOnNext(response -> {
+                        long elapsed = System.nanoTime() - start;
+                        if (response.statusCode().is5xxServerError()) {
+                            circuitBreaker.onError(elapsed, TimeUnit.NANOSECONDS,
+                                    new HttpServerErrorException(response.statusCode()));
+                        } else {
+                            circuitBreaker.onSuccess(elapsed, TimeUnit.NANOSECONDS);
+                        }
+                    })
+                    .doOnError(e -> circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e))
+                    .doOnCancel(circuitBreaker::releasePermission)
+                    .doFinally(signal -> bulkhead.onComplete());
+        });
+    }
+}
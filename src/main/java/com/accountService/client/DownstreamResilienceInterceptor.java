@@ -0,0 +1,81 @@
+package com.accountService.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Guards every call to one downstream with a bulkhead and a circuit breaker.
+ * The bulkhead caps concurrent calls so a slow downstream cannot hold every request thread;
+ * the breaker opens when too many calls fail or are slow and then rejects calls immediately.
+ * I/O errors and 5xx responses count as failures; 4xx responses are the caller's problem and do not.
+ * Rejections are counted in {@code downstream.rejected} tagged with the downstream and reason.
+ */
+class DownstreamResilienceInterceptor implements ClientHttpRequestInterceptor {
+
+    private final Downstream downstream;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Counter circuitOpenRejections;
+    private final Counter bulkheadFullRejections;
+
+    DownstreamResilienceInterceptor(Downstream downstream, CircuitBreaker circuitBreaker, Bulkhead bulkhead,
+                                    MeterRegistry meterRegistry) {
+        this.downstream = downstream;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.circuitOpenRejections = rejectionCounter(meterRegistry, "circuit_open");
+        this.bulkheadFullRejections = rejectionCounter(meterRegistry, "bulkhead_full");
+    }
+
+    private Counter rejectionCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("downstream.rejected")
+                .tag("downstream", downstream.key())
+                .tag("reason", reason)
+                .description("Calls rejected without reaching the downstream")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @NonNull
+    public ClientHttpResponse intercept(@NonNull HttpRequest request, @NonNull byte[] body,
+                                        @NonNull ClientHttpRequestExecution execution) throws IOException {
+        if (!bulkhead.tryAcquirePermission()) {
+            bulkheadFullRejections.increment();
+            throw new DownstreamUnavailableException(downstream, "too many concurrent calls");
+        }
+        try {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                circuitOpenRejections.increment();
+                throw new DownstreamUnavailableException(downstream, "circuit open");
+            }
+            long start = System.nanoTime();
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                long elapsed = System.nanoTime() - start;
+                if (response.getStatusCode().is5xxServerError()) {
+                    circuitBreaker.onError(elapsed, TimeUnit.NANOSECONDS,
+                            new HttpServerErrorException(response.getStatusCode()));
+                } else {
+                    circuitBreaker.onSuccess(elapsed, TimeUnit.NANOSECONDS);
+                }
+                return response;
+            } catch (IOException | RuntimeException e) {
+                circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+                throw e;
+            }
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+}
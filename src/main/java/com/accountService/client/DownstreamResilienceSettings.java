@@ -0,0 +1,47 @@
+package com.accountService.client;
+
+import lombok.Builder;
+import lombok.Value;
+import org.springframework.core.env.Environment;
+
+/**
+ * Circuit breaker and bulkhead settings for a single downstream.
+ * All durations are in milliseconds.
+ */
+@Value
+@Builder
+public class DownstreamResilienceSettings {
+    float failureRateThreshold;
+    float slowCallRateThreshold;
+    long slowCallDurationMs;
+    int slidingWindowSize;
+    int minimumNumberOfCalls;
+    long waitInOpenStateMs;
+    int permittedCallsInHalfOpenState;
+    int maxConcurrentCalls;
+    long maxWaitMs;
+
+    /**
+     * Reads the settings for a downstream from {@code api.<key>.circuit-breaker.*} and
+     * {@code api.<key>.bulkhead.*}, falling back to defaults.
+     *
+     * @param environment The Spring environment to read properties from
+     * @param downstream The downstream whose settings are required
+     * @return The resolved settings
+     */
+    public static DownstreamResilienceSettings from(Environment environment, Downstream downstream) {
+        String breaker = "api." + downstream.key() + ".circuit-breaker.";
+        String bulkhead = "api." + downstream.key() + ".bulkhead.";
+        return DownstreamResilienceSettings.builder()
+                .failureRateThreshold(environment.getProperty(breaker + "failure-rate-threshold", Float.class, 50f))
+                .slowCallRateThreshold(environment.getProperty(breaker + "slow-call-rate-threshold", Float.class, 80f))
+                .slowCallDurationMs(environment.getProperty(breaker + "slow-call-duration", Long.class, 3000L))
+                .slidingWindowSize(environment.getProperty(breaker + "sliding-window-size", Integer.class, 50))
+                .minimumNumberOfCalls(environment.getProperty(breaker + "minimum-calls", Integer.class, 20))
+                .waitInOpenStateMs(environment.getProperty(breaker + "wait-in-open", Long.class, 30000L))
+                .permittedCallsInHalfOpenState(environment.getProperty(breaker + "half-open-calls", Integer.class, 5))
+                .maxConcurrentCalls(environment.getProperty(bulkhead + "max-concurrent", Integer.class, 50))
+                .maxWaitMs(environment.getProperty(bulkhead + "max-wait", Long.class, 0L))
+                .build();
+    }
+}
@@ -0,0 +1,23 @@
+package com.accountService.client;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown instead of calling a downstream whose circuit is open or whose bulkhead is full.
+ * Surfaces to clients as 503 so they can back off, rather than waiting on a call that is likely to fail.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class DownstreamUnavailableException extends RuntimeException {
+
+    private final Downstream downstream;
+
+    public DownstreamUnavailableException(Downstream downstream, String reason) {
+        super(downstream.key() + " service unavailable: " + reason);
+        this.downstream = downstream;
+    }
+
+    public Downstream getDownstream() {
+        return downstream;
+    }
+}
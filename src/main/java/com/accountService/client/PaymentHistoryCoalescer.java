@@ -0,0 +1,143 @@
+package com.accountService.client;
+
+import com.accountService.dto.response.MakePaymentResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight coalescing of payment-history calls. The first caller for a customer makes the downstream
+ * call on its own thread; callers for the same customer that arrive while it is in flight wait for it and
+ * share its result or failure, so concurrent dashboard and history requests cost one call per customer.
+ * A successful result is also kept for {@code api.payment.history.coalesce.window} milliseconds (0 turns
+ * this off), to absorb requests that arrive just after the call completes; a payment made through this
+ * instance drops the customer's kept result. Callers share the same list and must not modify it.
+ * <p>
+ * Counts {@code payment.history.fetches} by source: {@code downstream}, {@code in_flight} (joined a call)
+ * or {@code recent} (kept result), and publishes {@code payment.history.coalesce.ratio}, the share of
+ * fetches that did not reach the payment service.
+ */
+@Component
+public class PaymentHistoryCoalescer {
+
+    private final ConcurrentMap<UUID, CompletableFuture<List<MakePaymentResponse>>> inFlight = new ConcurrentHashMap<>();
+    private final Cache<UUID, List<MakePaymentResponse>> recent;
+    private final Counter downstream;
+    private final Counter joined;
+    private final Counter reused;
+
+    /**
+     * Constructs the coalescer and registers its metrics.
+     *
+     * @param environment Source of the {@code api.payment.history.coalesce.*} settings
+     * @param meterRegistry Registry the fetch counts are published to
+     */
+    public PaymentHistoryCoalescer(Environment environment, MeterRegistry meterRegistry) {
+        long window = environment.getProperty("api.payment.history.coalesce.window", Long.class, 1000L);
+        this.recent = window > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(environment.getProperty("api.payment.history.coalesce.max-size", Long.class, 100000L))
+                        .expireAfterWrite(Duration.ofMillis(window))
+                        .build()
+                : null;
+        this.downstream = fetches(meterRegistry, "downstream");
+        this.joined = fetches(meterRegistry, "in_flight");
+        this.reused = fetches(meterRegistry, "recent");
+        Gauge.builder("payment.history.coalesce.ratio", this, PaymentHistoryCoalescer::coalesceRatio)
+                .description("Share of payment-history fetches answered without a call to the payment service")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the customer's payment history, joining a call already in flight for the customer or
+     * reusing a recent result where possible, and otherwise calling {@code loader} on this thread.
+     *
+     * @param customerId The customer
+     * @param loader Makes the downstream call
+     * @return The payment history
+     * @throws RuntimeException the loader's exception, also thrown to every caller that joined the call
+     */
+    public List<MakePaymentResponse> fetch(UUID customerId, Supplier<List<MakePaymentResponse>> loader) {
+        if (recent != null) {
+            List<MakePaymentResponse> cached = recent.getIfPresent(customerId);
+            if (cached != null) {
+                reused.increment();
+                return cached;
+            }
+        }
+
+        CompletableFuture<List<MakePaymentResponse>> call = new CompletableFuture<>();
+        CompletableFuture<List<MakePaymentResponse>> existing = inFlight.putIfAbsent(customerId, call);
+        if (existing != null) {
+            joined.increment();
+            return await(existing);
+        }
+
+        downstream.increment();
+        try {
+            List<MakePaymentResponse> history = loader.get();
+            // Kept before the call leaves the in-flight map, so a caller arriving in between finds one or the other
+            if (recent != null && history != null) {
+                recent.put(customerId, history);
+            }
+            call.complete(history);
+            return history;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(customerId, call);
+        }
+    }
+
+    /**
+     * Drops the customer's kept result, after a payment changed their history.
+     *
+     * @param customerId The customer
+     */
+    public void invalidate(UUID customerId) {
+        if (recent != null) {
+            recent.invalidate(customerId);
+        }
+    }
+
+    private static List<MakePaymentResponse> await(CompletableFuture<List<MakePaymentResponse>> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private double coalesceRatio() {
+        double coalesced = joined.count() + reused.count();
+        double total = coalesced + downstream.count();
+        return total == 0 ? 0 : coalesced / total;
+    }
+
+    private static Counter fetches(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("payment.history.fetches")
+                .description("Payment-history fetches, by whether they called the payment service or were coalesced")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+}
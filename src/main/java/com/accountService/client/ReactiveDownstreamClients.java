@@ -0,0 +1,88 @@
+package com.accountService.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Holds one non-blocking {@link WebClient} per {@link Downstream}, for the reactive API.
+ * All clients share a small Netty event loop of {@code api.reactive.event-loop-threads} threads, which
+ * multiplexes every in-flight call: waiting on a slow downstream costs a pooled connection, not a thread.
+ * Each downstream has its own connection pool sized and timed out from the same {@code api.<key>.client.*}
+ * settings as its blocking client, and shares that client's circuit breaker, bulkhead and
+ * {@code downstream.requests} timer. Pool usage is published as {@code reactor.netty.connection.provider.*}.
+ */
+@Component
+public class ReactiveDownstreamClients implements DisposableBean {
+
+    private final Map<Downstream, WebClient> webClients = new EnumMap<>(Downstream.class);
+    private final Map<Downstream, ConnectionProvider> connectionProviders = new EnumMap<>(Downstream.class);
+    private final LoopResources loopResources;
+
+    /**
+     * Builds the clients for every downstream.
+     *
+     * @param environment Source of the {@code api.<key>.client.*} and {@code api.reactive.*} settings
+     * @param webClientBuilder Spring Boot builder carrying the application's codecs
+     * @param downstreamClients Blocking clients whose circuit breakers and bulkheads are shared
+     * @param meterRegistry Registry the call timers and rejection counters are published to
+     */
+    public ReactiveDownstreamClients(Environment environment, WebClient.Builder webClientBuilder,
+                                     DownstreamClients downstreamClients, MeterRegistry meterRegistry) {
+        this.loopResources = LoopResources.create("downstream-io",
+                environment.getProperty("api.reactive.event-loop-threads", Integer.class, 2), true);
+        for (Downstream downstream : Downstream.values()) {
+            DownstreamClientSettings settings = DownstreamClientSettings.from(environment, downstream);
+            ConnectionProvider connectionProvider = ConnectionProvider.builder("downstream-" + downstream.key())
+                    .maxConnections(settings.getMaxPerRoute())
+                    .pendingAcquireTimeout(Duration.ofMillis(settings.getConnectionRequestTimeoutMs()))
+                    .maxIdleTime(Duration.ofMillis(Math.min(settings.getKeepAliveMs(), settings.getIdleEvictMs())))
+                    .maxLifeTime(Duration.ofMillis(settings.getTimeToLiveMs()))
+                    .evictInBackground(Duration.ofMillis(settings.getIdleEvictMs()))
+                    .metrics(true)
+                    .build();
+            HttpClient httpClient = HttpClient.create(connectionProvider)
+                    .runOn(loopResources)
+                    .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) settings.getConnectTimeoutMs())
+                    .responseTimeout(Duration.ofMillis(settings.getReadTimeoutMs()));
+
+            connectionProviders.put(downstream, connectionProvider);
+            webClients.put(downstream, webClientBuilder.clone()
+                    .clientConnector(new ReactorClientHttpConnector(httpClient))
+                    .filter(new DownstreamMetricsFilter(downstream, meterRegistry))
+                    .filter(new DownstreamResilienceFilter(downstream, downstreamClients.circuitBreaker(downstream),
+                            downstreamClients.bulkhead(downstream), meterRegistry))
+                    .build());
+        }
+    }
+
+    /**
+     * Returns the shared client for a downstream.
+     *
+     * @param downstream The remote service to call
+     * @return The WebClient for that service
+     */
+    public WebClient webClient(Downstream downstream) {
+        return webClients.get(downstream);
+    }
+
+    /**
+     * Closes every connection pool and the event loop on shutdown.
+     */
+    @Override
+    public void destroy() {
+        connectionProviders.values().forEach(ConnectionProvider::dispose);
+        loopResources.disposeLater().block(Duration.ofSeconds(10));
+    }
+}
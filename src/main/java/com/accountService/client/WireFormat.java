@@ -0,0 +1,40 @@
+package com.accountService.client;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Encodings the DTOs can be exchanged in. JSON is the default; the binary formats carry the same
+ * fields without repeating names as text, for internal callers that ask for them.
+ */
+public enum WireFormat {
+    JSON(MediaType.APPLICATION_JSON),
+    CBOR(MediaType.APPLICATION_CBOR),
+    SMILE(new MediaType("application", "x-jackson-smile"));
+
+    private final MediaType mediaType;
+
+    WireFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * @return The media type the format is negotiated under
+     */
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    /**
+     * @param name Case-insensitive format name, such as {@code json} or {@code cbor}
+     * @return The format
+     * @throws IllegalArgumentException if the name is not a known format
+     */
+    public static WireFormat of(String name) {
+        for (WireFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown wire format " + name + "; expected json, cbor or smile");
+    }
+}
@@ -0,0 +1,132 @@
+package com.accountService.config;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Configuration of the bounded executors used to run independent lookups concurrently.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    private final Environment environment;
+
+    /**
+     * Constructor for ExecutorConfig.
+     * @param environment Source of the executor and threading settings
+     */
+    public ExecutorConfig(Environment environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * Executor the customer dashboard runs its payment-history call on; the customer and account lookups
+     * stay on the request thread, so they never wait behind slow history calls. On platform threads the
+     * queue is bounded and saturation is rejected rather than run on the caller, so a slow payment service
+     * cannot grow the backlog without limit. When virtual threads are enabled each lookup gets its own
+     * virtual thread, capped by a concurrency limit instead of a pool size.
+     *
+     * @return The dashboard executor
+     */
+    @Bean
+    public AsyncTaskExecutor dashboardExecutor() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("dashboard-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(
+                environment.getProperty("dashboard.executor.virtual-concurrency-limit", Integer.class, 1000));
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("dashboard-");
+        executor.setCorePoolSize(environment.getProperty("dashboard.executor.core-size", Integer.class, 16));
+        executor.setMaxPoolSize(environment.getProperty("dashboard.executor.max-size", Integer.class, 64));
+        executor.setQueueCapacity(environment.getProperty("dashboard.executor.queue-capacity", Integer.class, 500));
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Executor bulk onboarding jobs run on. Each job streams its whole file, so only a few run at
+     * once; further submissions queue up to a small limit and are then rejected.
+     *
+     * @return The bulk onboarding executor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor bulkOnboardingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("bulk-onboarding-");
+        executor.setCorePoolSize(environment.getProperty("onboarding.bulk.concurrency", Integer.class, 2));
+        executor.setMaxPoolSize(environment.getProperty("onboarding.bulk.concurrency", Integer.class, 2));
+        executor.setQueueCapacity(environment.getProperty("onboarding.bulk.queue-capacity", Integer.class, 10));
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    /**
+     * Executor the transfer outbox dispatcher delivers each batch on. A batch never exceeds
+     * {@code transfer.async.batch-size}, so the queue is sized to hold one; if a batch still
+     * overflows, the dispatcher thread delivers the remainder itself.
+     *
+     * @return The transfer dispatch executor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor transferDispatchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("transfer-dispatch-");
+        executor.setCorePoolSize(environment.getProperty("transfer.async.dispatcher.threads", Integer.class, 8));
+        executor.setMaxPoolSize(environment.getProperty("transfer.async.dispatcher.threads", Integer.class, 8));
+        executor.setQueueCapacity(environment.getProperty("transfer.async.batch-size", Integer.class, 50));
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Executor batch payments send their payment service calls on. It is shared by all batches, each of
+     * which keeps at most {@code payment.batch.max-in-flight} calls queued or running; if the queue is
+     * still full, the request thread sends the payment itself, which slows that batch down instead of failing it.
+     *
+     * @return The payment batch executor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor paymentBatchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("payment-batch-");
+        executor.setCorePoolSize(environment.getProperty("payment.batch.concurrency", Integer.class, 32));
+        executor.setMaxPoolSize(environment.getProperty("payment.batch.concurrency", Integer.class, 32));
+        executor.setQueueCapacity(environment.getProperty("payment.batch.queue-capacity", Integer.class, 256));
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Scheduler the reactive API runs its repository calls on. JDBC blocks, so it must stay off the
+     * event loop; the scheduler is sized to the connection pool rather than to the number of requests,
+     * and queues up to {@code reactive.jdbc.queue-capacity} calls before rejecting further ones.
+     *
+     * @return The JDBC scheduler
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler jdbcScheduler() {
+        return Schedulers.newBoundedElastic(
+                environment.getProperty("reactive.jdbc.threads", Integer.class, 10),
+                environment.getProperty("reactive.jdbc.queue-capacity", Integer.class, 10000),
+                "jdbc");
+    }
+}
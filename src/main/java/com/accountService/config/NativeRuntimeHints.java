@@ -0,0 +1,125 @@
+package com.accountService.config;
+
+import com.accountService.dto.request.AuthLoginRequest;
+import com.accountService.dto.request.BankTransferRequest;
+import com.accountService.dto.request.MakePaymentRequest;
+import com.accountService.dto.request.OnBoardCustomerRequest;
+import com.accountService.dto.request.RegisterAuthRequest;
+import com.accountService.dto.response.AuthLoginResponse;
+import com.accountService.dto.response.BankTransferResponse;
+import com.accountService.dto.response.BatchPaymentResult;
+import com.accountService.dto.response.BulkOnboardingJobResponse;
+import com.accountService.dto.response.BulkOnboardingRowFailure;
+import com.accountService.dto.response.CustomerDashBoardResponse;
+import com.accountService.dto.response.MakePaymentResponse;
+import com.accountService.dto.response.OnBoardCustomerResponse;
+import com.accountService.dto.response.PaymentHistoryPageResponse;
+import com.accountService.dto.response.StatementLine;
+import com.accountService.dto.response.TransferStatusResponse;
+import com.accountService.model.Account;
+import com.accountService.model.AccountBalanceSlot;
+import com.accountService.model.BankTransfer;
+import com.accountService.model.Customer;
+import com.accountService.model.FundsHold;
+import com.accountService.model.HoldStatus;
+import com.accountService.model.IdempotencyStatus;
+import com.accountService.model.LedgerEntry;
+import com.accountService.model.LedgerEntryType;
+import com.accountService.model.RateLimitBucket;
+import com.accountService.model.TransferIdempotencyRecord;
+import com.accountService.model.TransferOutboxMessage;
+import com.accountService.model.TransferStatus;
+import com.accountService.model.projection.AccountBalanceView;
+import com.accountService.model.projection.AccountIdentityView;
+import com.accountService.model.projection.CustomerIdentityView;
+import com.accountService.model.projection.CustomerKeysView;
+import com.accountService.model.projection.StatementLineView;
+import com.accountService.ratelimit.SharedTokenBucketStore;
+import org.springframework.aop.SpringProxy;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.core.DecoratingProxy;
+import org.springframework.data.projection.TargetAware;
+
+import java.util.List;
+
+/**
+ * Reflection, proxy and resource hints for the native image, covering what the AOT engine cannot
+ * see from the bean definitions alone:
+ * <ul>
+ *     <li>DTOs that Jackson binds outside controller signatures: downstream request and response bodies,
+ *     stored idempotency responses, NDJSON and CSV exports and bulk-onboarding records</li>
+ *     <li>JPA entities and the enums they persist by name</li>
+ *     <li>Repository projections, which Spring Data implements as JDK proxies</li>
+ *     <li>jjwt, which instantiates its implementation classes by name and finds its JSON and
+ *     compression codecs through service files</li>
+ *     <li>{@link SharedTokenBucketStore}, whose {@code @Scheduled} method sits behind a bean declared
+ *     by its interface</li>
+ * </ul>
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final List<Class<?>> DTOS = List.of(
+            AuthLoginRequest.class, BankTransferRequest.class, MakePaymentRequest.class,
+            OnBoardCustomerRequest.class, RegisterAuthRequest.class,
+            AuthLoginResponse.class, BankTransferResponse.class, BatchPaymentResult.class,
+            BulkOnboardingJobResponse.class, BulkOnboardingRowFailure.class, CustomerDashBoardResponse.class,
+            MakePaymentResponse.class, OnBoardCustomerResponse.class, PaymentHistoryPageResponse.class,
+            StatementLine.class, TransferStatusResponse.class);
+
+    private static final List<Class<?>> ENTITIES = List.of(
+            Account.class, AccountBalanceSlot.class, BankTransfer.class, Customer.class, FundsHold.class,
+            LedgerEntry.class, RateLimitBucket.class, TransferIdempotencyRecord.class, TransferOutboxMessage.class);
+
+    private static final List<Class<?>> PERSISTED_ENUMS = List.of(
+            HoldStatus.class, IdempotencyStatus.class, LedgerEntryType.class, TransferStatus.class);
+
+    private static final List<Class<?>> PROJECTIONS = List.of(
+            AccountBalanceView.class, AccountIdentityView.class, CustomerIdentityView.class,
+            CustomerKeysView.class, StatementLineView.class);
+
+    private static final List<String> JJWT_IMPLEMENTATIONS = List.of(
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.DefaultHeader",
+            "io.jsonwebtoken.impl.DefaultJwsHeader",
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+            "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer");
+
+    private static final List<String> JJWT_SERVICES = List.of(
+            "META-INF/services/io.jsonwebtoken.CompressionCodec",
+            "META-INF/services/io.jsonwebtoken.io.Deserializer",
+            "META-INF/services/io.jsonwebtoken.io.Serializer");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+        bindings.registerReflectionHints(hints.reflection(), DTOS.toArray(Class<?>[]::new));
+
+        ENTITIES.forEach(entity -> hints.reflection().registerType(entity,
+                MemberCategory.DECLARED_FIELDS,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_DECLARED_METHODS));
+        PERSISTED_ENUMS.forEach(type -> hints.reflection().registerType(type,
+                MemberCategory.INVOKE_PUBLIC_METHODS));
+
+        PROJECTIONS.forEach(projection -> {
+            hints.reflection().registerType(projection, MemberCategory.INVOKE_PUBLIC_METHODS);
+            hints.proxies().registerJdkProxy(projection, TargetAware.class, SpringProxy.class, DecoratingProxy.class);
+        });
+
+        JJWT_IMPLEMENTATIONS.forEach(type -> hints.reflection().registerType(TypeReference.of(type),
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS));
+        JJWT_SERVICES.forEach(hints.resources()::registerPattern);
+
+        hints.reflection().registerType(SharedTokenBucketStore.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+    }
+}
@@ -0,0 +1,47 @@
+package com.accountService.config;
+
+import com.accountService.model.repository.RateLimitBucketRepository;
+import com.accountService.ratelimit.LocalTokenBucketStore;
+import com.accountService.ratelimit.SharedTokenBucketStore;
+import com.accountService.ratelimit.TokenBucketStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Chooses where admission control keeps its token buckets.
+ */
+@Configuration
+public class RateLimitConfig {
+
+    private final Environment environment;
+
+    /**
+     * Constructor for RateLimitConfig.
+     * @param environment Source of the {@code ratelimit.*} settings
+     */
+    public RateLimitConfig(Environment environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * Token bucket store for {@code ratelimit.mode}: {@code local} keeps each instance's buckets in memory,
+     * so limits are per instance; {@code cluster} shares them through the database, with in-memory buckets
+     * standing in while the database is unreachable.
+     *
+     * @param repository Repository of the shared buckets, used in cluster mode
+     * @param meterRegistry Registry the store's metrics are published to
+     * @return The token bucket store
+     */
+    @Bean
+    public TokenBucketStore tokenBucketStore(RateLimitBucketRepository repository, MeterRegistry meterRegistry) {
+        String mode = environment.getProperty("ratelimit.mode", "local");
+        LocalTokenBucketStore local = new LocalTokenBucketStore(environment);
+        return switch (mode) {
+            case "local" -> local;
+            case "cluster" -> new SharedTokenBucketStore(repository, local, environment, meterRegistry);
+            default -> throw new IllegalStateException("Unknown ratelimit.mode " + mode + "; expected local or cluster");
+        };
+    }
+}
@@ -0,0 +1,96 @@
+package com.accountService.config;
+
+import com.accountService.datasource.ReadOnlyRoutingDataSource;
+import com.accountService.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Splits database work between the primary and a read replica when {@code datasource.replica.enabled}
+ * is set. Each role has its own Hikari pool, sized through {@code spring.datasource.hikari.*} and
+ * {@code spring.datasource.replica.hikari.*}. Transactions marked read-only (such as the
+ * {@code @Transactional(readOnly = true)} lookups on the account and customer repositories) are
+ * served by the replica while it is fresh enough; everything else goes to the primary.
+ * <p>
+ * The application's data source is a {@link LazyConnectionDataSourceProxy}: a transaction only
+ * takes a physical connection at its first statement, by which point it is known to be read-only.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    private final Environment environment;
+
+    /**
+     * Constructor for ReplicaDataSourceConfig.
+     * @param environment Source of the replica connection settings
+     */
+    public ReplicaDataSourceConfig(Environment environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * @param properties The {@code spring.datasource.*} connection settings
+     * @return Pool of connections to the primary
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    /**
+     * @return Pool of read-only connections to the replica
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(environment.getRequiredProperty("spring.datasource.replica.url"))
+                .username(environment.getProperty("spring.datasource.replica.username",
+                        environment.getProperty("spring.datasource.username")))
+                .password(environment.getProperty("spring.datasource.replica.password",
+                        environment.getProperty("spring.datasource.password")))
+                .driverClassName(environment.getProperty("spring.datasource.replica.driver-class-name",
+                        environment.getProperty("spring.datasource.driver-class-name")))
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(replicaDataSource, environment, meterRegistry);
+    }
+
+    /**
+     * @return The data source JPA and JDBC use, routing read-only transactions to the replica
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReplicaLagMonitor replicaLagMonitor) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(
+                new ReadOnlyRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagMonitor));
+        return dataSource;
+    }
+}
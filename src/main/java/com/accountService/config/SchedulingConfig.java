@@ -0,0 +1,12 @@
+package com.accountService.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the periodic housekeeping jobs, such as expiring transfer idempotency records.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,61 @@
+package com.accountService.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary encodings of the DTOs for internal callers: CBOR ({@code application/cbor}) and Smile
+ * ({@code application/x-jackson-smile}). Spring Boot puts these converters in place of its defaults for
+ * the same formats, after the JSON converter, so every endpoint and the downstream RestTemplates negotiate
+ * them by Accept and Content-Type while a request without a preference still gets JSON.
+ * <p>
+ * The binary mappers share the application's Jackson settings, except that dates are written as numeric
+ * timestamps; both forms are read back. Smile also back-references repeated short string values, such as
+ * the status of every transaction; it is only read by Jackson, so CBOR keeps to the plain encoding that
+ * other CBOR libraries understand.
+ */
+@Configuration
+public class WireFormatConfig {
+
+    /**
+     * @param builder Spring Boot's Jackson builder, carrying the application's modules and features
+     * @return The CBOR converter
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(binaryMapper(builder, new CBORFactory()));
+    }
+
+    /**
+     * @param builder Spring Boot's Jackson builder, carrying the application's modules and features
+     * @return The Smile converter
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(binaryMapper(builder, SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build()));
+    }
+
+    /**
+     * Builds a mapper for a binary format from the application's Jackson settings.
+     *
+     * @param builder A Jackson builder; it is modified, so pass one that is not shared
+     * @param factory Factory of the binary format
+     * @return The mapper
+     */
+    public static ObjectMapper binaryMapper(Jackson2ObjectMapperBuilder builder, JsonFactory factory) {
+        return builder.factory(factory)
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+}
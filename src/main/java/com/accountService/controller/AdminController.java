@@ -0,0 +1,58 @@
+package com.accountService.controller;
+
+import com.accountService.service.interfaces.AccountBalanceService;
+import com.accountService.service.interfaces.AsyncTransferService;
+import com.accountService.service.interfaces.FundsReservationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+/**
+ * Operations for back-office staff, restricted to the ADMIN role.
+ */
+@RestController
+@RequestMapping("/api/v1/admin")
+@RequiredArgsConstructor
+public class AdminController {
+    private final FundsReservationService fundsReservationService;
+    private final AsyncTransferService asyncTransferService;
+    private final AccountBalanceService accountBalanceService;
+
+    /**
+     * Reconciles a funds hold whose transfer outcome was unknown, once the bank's records show it
+     * @param holdId Identifier of the hold, as logged when its outcome was lost
+     * @param transferred Whether the bank carried out the transfer: keeps the debit if so, credits it back otherwise
+     * @return ResponseEntity with status 204, or 409 if the hold is not awaiting reconciliation
+     */
+    @PostMapping("/holds/{holdId}/resolve")
+    public ResponseEntity<Void> resolveHold(@PathVariable UUID holdId, @RequestParam boolean transferred) {
+        if (!fundsReservationService.resolve(holdId, transferred)) {
+            return ResponseEntity.status(409).build();
+        }
+        asyncTransferService.holdResolved(holdId, transferred);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Spreads a hot account's balance over several balance slots, so its debits and credits stop queueing
+     * on one row. Slots can be added later but never removed
+     * @param accountNumber Account to spread
+     * @param slots Number of slots, at least 2 and more than the account already has
+     * @return ResponseEntity with status 204, or 400 if the account does not exist or the slot count is invalid
+     */
+    @PostMapping("/accounts/{accountNumber}/balance-slots")
+    public ResponseEntity<Void> enableBalanceSlots(@PathVariable String accountNumber, @RequestParam int slots) {
+        try {
+            accountBalanceService.enableBalanceSlots(accountNumber, slots);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -14,13 +14,30 @@ import com.accountService.dto.request.MakePaymentRequest;
 import com.accountService.dto.response.MakePaymentResponse;
 import com.accountService.dto.request.AuthLoginRequest;
 import com.accountService.dto.response.AuthLoginResponse;
-import java.util.List;
 import java.util.UUID;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import com.accountService.dto.response.CustomerDashBoardResponse;
 import com.accountService.dto.request.BankTransferRequest;
 import com.accountService.dto.response.BankTransferResponse;
+import com.accountService.dto.response.BulkOnboardingJobResponse;
+import com.accountService.service.interfaces.BulkOnboardingService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.RequestHeader;
+import java.io.InputStream;
+import com.accountService.dto.response.PaymentHistoryPageResponse;
+import org.springframework.web.bind.annotation.RequestParam;
+import com.accountService.dto.response.TransferStatusResponse;
+import com.accountService.service.interfaces.BatchPaymentService;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.util.List;
+import com.accountService.service.interfaces.StatementService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import java.time.LocalDate;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
 
 
 @RestController
@@ -28,6 +45,9 @@ import com.accountService.dto.response.BankTransferResponse;
 @RequiredArgsConstructor
 public class CustomerController {
     private final AccountService accountService;
+    private final BulkOnboardingService bulkOnboardingService;
+    private final BatchPaymentService batchPaymentService;
+    private final StatementService statementService;
 
     /**
      * Handles new customer onboarding process
@@ -40,13 +60,75 @@ public class CustomerController {
     }
 
     /**
-     * Retrieves payment history for a specific customer
+     * Starts onboarding a file of customers in the background
+     * @param contentType application/x-ndjson or text/csv
+     * @param records Stream of OnBoardCustomerRequest records, one per line or CSV row
+     * @return ResponseEntity with status 202 and the queued job, whose id can be polled for progress
+     */
+    @PostMapping(value = "/onboard/bulk", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<BulkOnboardingJobResponse> bulkOnboardCustomers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream records) {
+        return ResponseEntity.accepted()
+                .body(bulkOnboardingService.submit(records, MediaType.parseMediaType(contentType)));
+    }
+
+    /**
+     * Reports progress of a bulk onboarding job
+     * @param jobId Identifier returned when the file was submitted
+     * @return ResponseEntity containing row counts, status and per-row failures
+     */
+    @GetMapping("/onboard/bulk/{jobId}")
+    public ResponseEntity<BulkOnboardingJobResponse> getBulkOnboardingJob(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(bulkOnboardingService.getJob(jobId));
+    }
+
+    /**
+     * Retrieves payment history for a specific customer, one page at a time
      * @param customerId Unique identifier of the customer
-     * @return ResponseEntity containing list of payment transactions made by the customer
+     * @param cursor nextCursor from the previous page; omit for the most recent transactions
+     * @param size Maximum number of transactions per page, capped at 100
+     * @return ResponseEntity containing a page of payment transactions and the cursor for the next page
      */
     @GetMapping("/payment-history/{customerId}")
-    public ResponseEntity<List<MakePaymentResponse>> getPaymentHistory(@PathVariable UUID customerId) {
-        return ResponseEntity.ok(accountService.getPaymentHistory(customerId));
+    public ResponseEntity<PaymentHistoryPageResponse> getPaymentHistory(@PathVariable UUID customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(accountService.getPaymentHistoryPage(customerId, cursor, size));
+    }
+
+    /**
+     * Downloads a customer's statement, streamed as it is read
+     * @param customerId Unique identifier of the customer
+     * @param from First day of the statement (yyyy-MM-dd), inclusive
+     * @param to Last day of the statement (yyyy-MM-dd), inclusive
+     * @param format text/csv (default) or application/x-ndjson
+     * @param after Transaction id of the last row received, to resume an interrupted download; byte ranges are not supported
+     * @return ResponseEntity streaming the statement, oldest transaction first; a statement that takes longer than
+     * statement.export.max-duration is aborted part-way and must be resumed with after
+     * @throws ResponseStatusException with status 400 if the range or format is invalid
+     */
+    @GetMapping("/statement/{customerId}")
+    public ResponseEntity<StreamingResponseBody> exportStatement(@PathVariable UUID customerId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "text/csv") String format,
+            @RequestParam(required = false) UUID after) {
+        MediaType mediaType;
+        try {
+            mediaType = MediaType.parseMediaType(format);
+            statementService.validate(from, to, mediaType);
+        } catch (IllegalArgumentException e) {
+            // Also thrown for a malformed format, as InvalidMediaTypeException
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        String extension = "x-ndjson".equals(mediaType.getSubtype()) ? ".ndjson" : ".csv";
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.ACCEPT_RANGES, "none")
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("statement-" + customerId + "-" + from + "-" + to + extension)
+                        .build().toString())
+                .body(out -> statementService.export(customerId, from, to, after, mediaType, out));
     }
 
     /**
@@ -59,6 +141,25 @@ public class CustomerController {
         return ResponseEntity.ok(accountService.makePayment(request));
     }
 
+    /**
+     * Processes a batch of payments, such as a payroll run. A batch is not idempotent and must not be
+     * resubmitted; see {@link BatchPaymentService#process}
+     * @param requests The payments, each as accepted by make-payment
+     * @return ResponseEntity streaming one NDJSON result per payment, with its index in the batch, as each completes
+     * @throws ResponseStatusException with status 400 if the batch is empty or larger than payment.batch.max-size
+     */
+    @PostMapping(value = "/make-payment/batch", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> makePayments(@RequestBody List<MakePaymentRequest> requests) {
+        try {
+            batchPaymentService.validate(requests);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(results -> batchPaymentService.process(requests, results));
+    }
+
     /**
      * Authenticates customer login attempt
      * @param request Contains login credentials like username/email and password
@@ -80,4 +181,24 @@ public class CustomerController {
    public ResponseEntity<BankTransferResponse> bankTransfer(@RequestBody BankTransferRequest request) {
     return ResponseEntity.ok(accountService.bankTransfer(request));
    }
-}
\ No newline at end of file
+
+   /**
+    * Accepts a bank transfer for background processing
+    * @param request Contains transfer details including amount, source and destination accounts
+    * @return ResponseEntity with status 202 and the transfer reference to poll for the outcome
+    */
+   @PostMapping("/bank-transfer/async")
+   public ResponseEntity<TransferStatusResponse> submitBankTransfer(@RequestBody BankTransferRequest request) {
+    return ResponseEntity.accepted().body(accountService.submitBankTransfer(request));
+   }
+
+   /**
+    * Reports the outcome of a transfer accepted by the async endpoint
+    * @param reference Reference returned when the transfer was accepted
+    * @return ResponseEntity containing the transfer status and bank reference once completed
+    */
+   @GetMapping("/bank-transfer/{reference}")
+   public ResponseEntity<TransferStatusResponse> getBankTransferStatus(@PathVariable UUID reference) {
+    return ResponseEntity.ok(accountService.getBankTransferStatus(reference));
+   }
+}
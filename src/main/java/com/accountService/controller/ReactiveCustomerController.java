@@ -0,0 +1,73 @@
+package com.accountService.controller;
+
+import com.accountService.dto.request.AuthLoginRequest;
+import com.accountService.dto.request.BankTransferRequest;
+import com.accountService.dto.request.MakePaymentRequest;
+import com.accountService.dto.response.AuthLoginResponse;
+import com.accountService.dto.response.BankTransferResponse;
+import com.accountService.dto.response.CustomerDashBoardResponse;
+import com.accountService.dto.response.MakePaymentResponse;
+import com.accountService.service.interfaces.ReactiveAccountService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Non-blocking variant of the downstream-facing {@link CustomerController} endpoints. Each handler returns
+ * a {@link Mono}, so the request is completed asynchronously and the container thread is released as soon
+ * as the handler returns instead of waiting for the auth, payment or bank service.
+ */
+@RestController
+@RequestMapping("/api/v2/customer")
+@RequiredArgsConstructor
+public class ReactiveCustomerController {
+    private final ReactiveAccountService reactiveAccountService;
+
+    /**
+     * Authenticates customer login attempt
+     * @param request Contains login credentials like username/email and password
+     * @return Mono of the authentication response with token or status
+     */
+    @PostMapping("/auth/login")
+    public Mono<ResponseEntity<AuthLoginResponse>> authLogin(@RequestBody AuthLoginRequest request) {
+        return reactiveAccountService.authLogin(request).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Processes a payment transaction for a customer
+     * @param request Contains payment details like amount, payment method, etc.
+     * @return Mono of the payment transaction response with status
+     */
+    @PostMapping("/make-payment")
+    public Mono<ResponseEntity<MakePaymentResponse>> makePayment(@RequestBody MakePaymentRequest request) {
+        return reactiveAccountService.makePayment(request).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Retrieves a customer's dashboard
+     * @param customerId Unique identifier of the customer
+     * @return Mono of the dashboard, with transactionsUnavailable set if the payment history could not be fetched in time
+     */
+    @GetMapping("/dashboard/{customerId}")
+    public Mono<ResponseEntity<CustomerDashBoardResponse>> getCustomerDashBoard(@PathVariable UUID customerId) {
+        return reactiveAccountService.getCustomerDashBoard(customerId).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Sends a bank transfer and waits for the bank's outcome without holding a thread
+     * @param request Contains transfer details including amount, source and destination accounts
+     * @return Mono of the bank's transfer response
+     */
+    @PostMapping("/bank-transfer")
+    public Mono<ResponseEntity<BankTransferResponse>> bankTransfer(@RequestBody BankTransferRequest request) {
+        return reactiveAccountService.bankTransfer(request).map(ResponseEntity::ok);
+    }
+}
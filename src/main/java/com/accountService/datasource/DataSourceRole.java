@@ -0,0 +1,9 @@
+package com.accountService.datasource;
+
+/**
+ * The database a connection is taken from when the replica is enabled.
+ */
+public enum DataSourceRole {
+    PRIMARY,
+    REPLICA
+}
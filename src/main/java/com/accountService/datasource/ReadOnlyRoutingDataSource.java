@@ -0,0 +1,40 @@
+package com.accountService.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Chooses where read-only transactions take their connection: the replica, unless the lag monitor
+ * has taken it out of rotation or the current read must see the customer's own recent writes.
+ * Used as the read-only target of a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy},
+ * so it is only consulted once a transaction has been marked read-only; all other work goes to the primary.
+ */
+public class ReadOnlyRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaLagMonitor lagMonitor;
+
+    /**
+     * Constructor for ReadOnlyRoutingDataSource.
+     *
+     * @param primary Pool of the primary database
+     * @param replica Pool of the replica
+     * @param lagMonitor Monitor deciding whether the replica is fresh enough to read from
+     */
+    public ReadOnlyRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+        setTargetDataSources(Map.of(DataSourceRole.PRIMARY, primary, DataSourceRole.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (ReplicaRouting.isPrimaryRequired() || !lagMonitor.isReplicaUsable()) {
+            return DataSourceRole.PRIMARY;
+        }
+        return DataSourceRole.REPLICA;
+    }
+}
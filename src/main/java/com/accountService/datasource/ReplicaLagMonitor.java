@@ -0,0 +1,103 @@
+package com.accountService.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Measures how far the replica is behind the primary and takes it out of rotation while it lags
+ * more than {@code datasource.replica.max-lag} milliseconds, or while the lag cannot be measured.
+ * A lag query that returns NULL reports that the replica is not replicating at all, which also takes
+ * it out of rotation. Until the first successful check the replica is not used. The last measured lag
+ * is published as {@code datasource.replica.lag} (milliseconds; negative when unknown).
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    /**
+     * Replay delay on a PostgreSQL standby; zero once everything received has been replayed,
+     * so an idle primary does not read as lag. That only holds while the standby is streaming: a standby
+     * cut off from the primary has replayed all it received too, so the query returns NULL unless the WAL
+     * receiver is streaming. The monitoring role needs pg_read_all_stats (or pg_monitor) to see its status.
+     */
+    static final String POSTGRES_LAG_QUERY = "select case "
+            + "when not exists (select 1 from pg_stat_wal_receiver where status = 'streaming') then null "
+            + "when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 "
+            + "else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000, 0) end::bigint";
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final String lagQuery;
+    private final long maxLagMs;
+    private volatile long lagMs = -1;
+    private volatile boolean replicaUsable = false;
+
+    /**
+     * Constructor for ReplicaLagMonitor.
+     *
+     * @param replicaDataSource Pool of the replica being monitored
+     * @param environment Source of the {@code datasource.replica.*} settings
+     * @param meterRegistry Registry the lag gauge is published to
+     */
+    public ReplicaLagMonitor(DataSource replicaDataSource, Environment environment, MeterRegistry meterRegistry) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.replicaJdbcTemplate.setQueryTimeout(
+                environment.getProperty("datasource.replica.lag-query-timeout", Integer.class, 1));
+        this.lagQuery = environment.getProperty("datasource.replica.lag-query", POSTGRES_LAG_QUERY);
+        this.maxLagMs = environment.getProperty("datasource.replica.max-lag", Long.class, 1000L);
+        Gauge.builder("datasource.replica.lag", this, ReplicaLagMonitor::getLagMs)
+                .description("Replication delay of the read replica, in milliseconds")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Re-measures the replica lag.
+     */
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-interval:1000}")
+    public void refresh() {
+        boolean usable;
+        try {
+            Long measured = replicaJdbcTemplate.queryForObject(lagQuery, Long.class);
+            if (measured == null) {
+                lagMs = -1;
+                usable = false;
+                if (replicaUsable) {
+                    log.warn("Replica is not receiving WAL from the primary, reading from the primary");
+                }
+            } else {
+                lagMs = measured;
+                usable = lagMs <= maxLagMs;
+            }
+        } catch (DataAccessException e) {
+            lagMs = -1;
+            usable = false;
+            if (replicaUsable) {
+                log.warn("Replica lag check failed, reading from the primary: {}", e.getMessage());
+            }
+        }
+        if (usable != replicaUsable) {
+            log.info("Replica {} rotation (lag {} ms, max {} ms)", usable ? "back in" : "out of", lagMs, maxLagMs);
+        }
+        replicaUsable = usable;
+    }
+
+    /**
+     * @return true if read-only work may currently be sent to the replica
+     */
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    /**
+     * @return The last measured lag in milliseconds, or -1 if the last check failed or the replica is not replicating
+     */
+    public long getLagMs() {
+        return lagMs;
+    }
+}
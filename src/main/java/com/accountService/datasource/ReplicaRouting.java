@@ -0,0 +1,80 @@
+package com.accountService.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Read-your-writes for replica routing. Services record a write against the customer it affected,
+ * and wrap that customer's read-only lookups in {@link #read(UUID, Supplier)}; for
+ * {@code datasource.replica.read-your-writes-window} after a write, those lookups are sent to the
+ * primary, so a customer always sees their own transfer even while the replica is catching up.
+ * <p>
+ * Writes are remembered per instance. Across instances the guarantee rests on the lag monitor,
+ * which takes the replica out of rotation once it falls more than {@code datasource.replica.max-lag}
+ * behind, so the window should be at least that plus the lag check interval.
+ * Without a replica configured every connection comes from the primary and this has no effect.
+ */
+@Component
+public class ReplicaRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private final Cache<UUID, Boolean> recentWrites;
+
+    /**
+     * Constructor for ReplicaRouting.
+     *
+     * @param environment Source of the {@code datasource.replica.*} settings
+     */
+    public ReplicaRouting(Environment environment) {
+        this.recentWrites = Caffeine.newBuilder()
+                .maximumSize(environment.getProperty("datasource.replica.recent-writes.max-size", Long.class, 100000L))
+                .expireAfterWrite(Duration.ofMillis(
+                        environment.getProperty("datasource.replica.read-your-writes-window", Long.class, 3000L)))
+                .build();
+    }
+
+    /**
+     * Records that a customer's data was just written on the primary.
+     *
+     * @param customerId Identifier of the customer whose data changed
+     */
+    public void recordWrite(UUID customerId) {
+        if (customerId != null) {
+            recentWrites.put(customerId, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Runs a read for a customer, on the primary if the customer wrote within the window.
+     * The read must start its own read-only transaction, so its connection is taken inside this call.
+     *
+     * @param customerId Identifier of the customer the read is for
+     * @param read The read to run
+     * @return The result of the read
+     */
+    public <T> T read(UUID customerId, Supplier<T> read) {
+        if (customerId == null || PRIMARY_REQUIRED.get() != null || recentWrites.getIfPresent(customerId) == null) {
+            return read.get();
+        }
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            PRIMARY_REQUIRED.remove();
+        }
+    }
+
+    /**
+     * @return true if the current thread is inside a read that must see the primary
+     */
+    static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+}
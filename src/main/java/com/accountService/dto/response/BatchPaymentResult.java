@@ -0,0 +1,19 @@
+package com.accountService.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchPaymentResult {
+    private int index;
+    private UUID customerId;
+    private MakePaymentResponse payment;
+    private String error;
+}
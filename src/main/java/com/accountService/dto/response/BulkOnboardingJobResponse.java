@@ -0,0 +1,26 @@
+package com.accountService.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkOnboardingJobResponse {
+    private UUID jobId;
+    private String status;
+    private long processedRows;
+    private long succeeded;
+    private long failed;
+    private List<BulkOnboardingRowFailure> failures;
+    private String message;
+    private LocalDateTime submittedAt;
+    private LocalDateTime completedAt;
+}
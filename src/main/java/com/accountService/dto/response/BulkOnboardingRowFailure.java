@@ -0,0 +1,16 @@
+package com.accountService.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkOnboardingRowFailure {
+    private long row;
+    private String email;
+    private String reason;
+}
@@ -27,6 +27,7 @@ public class CustomerDashBoardResponse {
     private String accountNumber;
     private BigDecimal balance;
     private List<MakePaymentResponse> transactions;
+    private boolean transactionsUnavailable;
     
 }
 
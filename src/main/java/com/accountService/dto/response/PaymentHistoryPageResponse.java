@@ -0,0 +1,17 @@
+package com.accountService.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PaymentHistoryPageResponse {
+    private List<MakePaymentResponse> transactions;
+    private String nextCursor;
+}
@@ -0,0 +1,26 @@
+package com.accountService.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonPropertyOrder({"transactionId", "createdAt", "type", "accountNumber", "amount", "status", "reference"})
+public class StatementLine {
+    private UUID transactionId;
+    private LocalDateTime createdAt;
+    private String type;
+    private String accountNumber;
+    private BigDecimal amount;
+    private String status;
+    private String reference;
+}
@@ -0,0 +1,26 @@
+package com.accountService.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferStatusResponse {
+    private UUID reference;
+    private String status;
+    private String transactionReference;
+    private String message;
+    private BigDecimal amount;
+    private String sourceAccount;
+    private String destinationAccount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
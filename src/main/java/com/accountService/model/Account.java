@@ -13,6 +13,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Column;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.FetchType;
 
 @Entity
 @Data
@@ -27,9 +28,16 @@ public class Account {
     @Column(nullable = false, unique = true)
     private String accountNumber;
 
-    @OneToOne(cascade = CascadeType.ALL)
+    /** Loaded only when accessed inside a transaction; lookups read the foreign key through projections instead */
+    @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Customer customer;
 
     @Column(nullable = false)
     private BigDecimal balance = BigDecimal.ZERO;
+
+    /**
+     * Number of {@link AccountBalanceSlot}s a hot account's balance is spread over, or null for an
+     * ordinary account, whose whole balance is the balance column
+     */
+    private Integer balanceSlots;
 }
@@ -0,0 +1,43 @@
+package com.accountService.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * One part of a hot account's balance. An account with {@link Account#getBalanceSlots()} set keeps its
+ * balance spread over that many slots, so concurrent debits and credits lock different rows instead of
+ * queueing on the account row. The account's balance is its own balance column plus the sum of its slots.
+ */
+@Entity
+@Table(name = "account_balance_slot",
+    uniqueConstraints = @UniqueConstraint(name = "uk_account_balance_slot", columnNames = {"account_number", "slot"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountBalanceSlot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false)
+    private String accountNumber;
+
+    @Column(nullable = false)
+    private int slot;
+
+    @Column(nullable = false)
+    private BigDecimal balance;
+}
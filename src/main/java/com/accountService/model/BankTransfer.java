@@ -0,0 +1,76 @@
+package com.accountService.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A bank transfer accepted for asynchronous processing. Its id is the reference returned to the
+ * client; the funds are held under {@code holdId} until the bank service reports an outcome.
+ * The transaction PIN is never stored here; it only lives, encrypted, in the outbox message until dispatch.
+ */
+@Entity
+@Table(name = "bank_transfer",
+    uniqueConstraints = @UniqueConstraint(name = "uk_bank_transfer_session", columnNames = {"customer_id", "session_id"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BankTransfer {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID customerId;
+
+    private String sessionId;
+
+    /** SHA-256 of the transfer's accounts and amount, so a session id cannot be reused for another transfer */
+    @Column(length = 64)
+    private String fingerprint;
+
+    @Column(nullable = false)
+    private String sourceAccountNumber;
+
+    @Column(nullable = false)
+    private String destinationAccountNumber;
+
+    @Column(nullable = false)
+    private String destinationBankCode;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private UUID holdId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransferStatus status;
+
+    private String transactionReference;
+
+    @Column(length = 1000)
+    private String message;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    private LocalDateTime updatedAt;
+}
@@ -41,5 +41,6 @@ public class Customer {
     private String phoneNumber;
 
     @Column(nullable = false)
+    @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
 }
@@ -0,0 +1,13 @@
+package com.accountService.model;
+
+/**
+ * Lifecycle of a {@link FundsHold}. A hold starts as HELD and moves exactly once to COMMITTED or
+ * RELEASED, or to UNKNOWN when the transfer was sent but its outcome was lost (a read timeout, say).
+ * An UNKNOWN hold keeps the funds debited until it is reconciled to COMMITTED or RELEASED.
+ */
+public enum HoldStatus {
+    HELD,
+    COMMITTED,
+    RELEASED,
+    UNKNOWN
+}
@@ -0,0 +1,11 @@
+package com.accountService.model;
+
+/**
+ * Lifecycle of a {@link TransferIdempotencyRecord}. A claim whose transfer may or may not have reached
+ * the bank is kept as UNKNOWN rather than given up, so a retry cannot send the transfer a second time.
+ */
+public enum IdempotencyStatus {
+    IN_FLIGHT,
+    COMPLETED,
+    UNKNOWN
+}
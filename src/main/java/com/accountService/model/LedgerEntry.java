@@ -0,0 +1,56 @@
+package com.accountService.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One payment or transfer outcome, owned by the account service so history can be served locally.
+ * The (customer_id, created_at, transaction_id) index matches the keyset used to page through
+ * a customer's history newest first, so every page is a bounded index range scan.
+ */
+@Entity
+@Table(name = "ledger_entry", indexes = {
+    @Index(name = "idx_ledger_entry_customer_created", columnList = "customer_id, created_at, transaction_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerEntry {
+    @Id
+    private UUID transactionId;
+
+    @Column(nullable = false)
+    private UUID customerId;
+
+    private String accountNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private LedgerEntryType type;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private String status;
+
+    private String reference;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
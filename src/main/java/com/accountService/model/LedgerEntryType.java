@@ -0,0 +1,9 @@
+package com.accountService.model;
+
+/**
+ * Kind of operation a {@link LedgerEntry} records.
+ */
+public enum LedgerEntryType {
+    PAYMENT,
+    BANK_TRANSFER
+}
@@ -0,0 +1,31 @@
+package com.accountService.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A token bucket shared by every instance of the service in cluster rate-limiting mode.
+ * The bucket is stored as the time its next token becomes due (the GCRA "theoretical arrival time"),
+ * so taking a token is a single conditional update of one column.
+ */
+@Entity
+@Table(name = "rate_limit_bucket")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateLimitBucket {
+    @Id
+    @Column(length = 200)
+    private String bucketKey;
+
+    /** Epoch microseconds at which the bucket would be full again if no more tokens were taken */
+    @Column(nullable = false)
+    private long tat;
+}
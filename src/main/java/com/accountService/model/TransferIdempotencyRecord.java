@@ -0,0 +1,64 @@
+package com.accountService.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Claim on a (customer, session) pair for a bank transfer. The unique constraint is what makes
+ * the claim atomic: of several concurrent submissions only one insert succeeds. Once the transfer
+ * completes, the response is kept here so duplicates can be answered without calling the bank.
+ * A claim whose outcome is unknown lives as long as its funds hold is unreconciled.
+ */
+@Entity
+@Table(name = "transfer_idempotency",
+    uniqueConstraints = @UniqueConstraint(name = "uk_transfer_idempotency_session", columnNames = {"customer_id", "session_id"}),
+    indexes = @Index(name = "idx_transfer_idempotency_created", columnList = "created_at"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferIdempotencyRecord {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID customerId;
+
+    @Column(nullable = false)
+    private String sessionId;
+
+    /** SHA-256 of the transfer's accounts and amount, so a session id cannot be reused for another transfer */
+    @Column(length = 64)
+    private String fingerprint;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private IdempotencyStatus status;
+
+    /** Funds hold of the transfer, set before the transfer is sent to the bank */
+    private UUID holdId;
+
+    /** JSON of the BankTransferResponse, set once the transfer completes */
+    @Column(length = 4000)
+    private String response;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
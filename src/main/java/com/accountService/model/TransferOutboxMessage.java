@@ -0,0 +1,58 @@
+package com.accountService.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Pending delivery of a {@link BankTransfer} to the bank service, written in the same transaction
+ * as the transfer and its funds hold. The message is deleted once the transfer reaches an outcome.
+ */
+@Entity
+@Table(name = "transfer_outbox", indexes = {
+    @Index(name = "idx_transfer_outbox_next_attempt", columnList = "next_attempt_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferOutboxMessage {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false, unique = true)
+    private UUID transferId;
+
+    /** JSON of the BankTransferRequest to send, without its transaction PIN */
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    /** Transaction PIN of the request, encrypted by {@code TransferPinCipher} */
+    @Column(length = 200)
+    private String encryptedPin;
+
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
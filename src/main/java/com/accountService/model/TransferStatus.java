@@ -0,0 +1,13 @@
+package com.accountService.model;
+
+/**
+ * Lifecycle of a {@link BankTransfer} submitted for asynchronous processing. A transfer that ran out
+ * of delivery attempts may still have reached the bank, so it is UNKNOWN, with its funds held, until
+ * its hold is reconciled to SUCCESS or FAILED.
+ */
+public enum TransferStatus {
+    PENDING,
+    SUCCESS,
+    FAILED,
+    UNKNOWN
+}
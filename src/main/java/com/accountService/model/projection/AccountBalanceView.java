@@ -0,0 +1,12 @@
+package com.accountService.model.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Account number and current balance, the only account columns the dashboard shows.
+ */
+public interface AccountBalanceView {
+    String getAccountNumber();
+
+    BigDecimal getBalance();
+}
@@ -0,0 +1,14 @@
+package com.accountService.model.projection;
+
+import java.util.UUID;
+
+/**
+ * Identity columns of an account, read without loading the entity or its customer.
+ */
+public interface AccountIdentityView {
+    UUID getId();
+
+    String getAccountNumber();
+
+    UUID getCustomerId();
+}
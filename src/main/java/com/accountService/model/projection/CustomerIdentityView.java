@@ -0,0 +1,14 @@
+package com.accountService.model.projection;
+
+import java.util.UUID;
+
+/**
+ * Identity and name of a customer, read without loading the entity.
+ */
+public interface CustomerIdentityView {
+    UUID getId();
+
+    String getFirstName();
+
+    String getLastName();
+}
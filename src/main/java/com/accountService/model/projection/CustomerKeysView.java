@@ -0,0 +1,14 @@
+package com.accountService.model.projection;
+
+/**
+ * The unique columns of a customer, read without loading the entity.
+ */
+public interface CustomerKeysView {
+    String getEmail();
+
+    String getBvn();
+
+    String getNin();
+
+    String getPhoneNumber();
+}
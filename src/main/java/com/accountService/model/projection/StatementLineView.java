@@ -0,0 +1,27 @@
+package com.accountService.model.projection;
+
+import com.accountService.model.LedgerEntryType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Columns of a ledger entry that appear on a statement, read as plain tuples so a long export
+ * does not fill the persistence context with managed entities.
+ */
+public interface StatementLineView {
+    UUID getTransactionId();
+
+    LocalDateTime getCreatedAt();
+
+    LedgerEntryType getType();
+
+    String getAccountNumber();
+
+    BigDecimal getAmount();
+
+    String getStatus();
+
+    String getReference();
+}
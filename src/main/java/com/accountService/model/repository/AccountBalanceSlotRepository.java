@@ -0,0 +1,47 @@
+package com.accountService.model.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.accountService.model.AccountBalanceSlot;
+
+import jakarta.persistence.LockModeType;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+public interface AccountBalanceSlotRepository extends JpaRepository<AccountBalanceSlot, UUID> {
+
+    /**
+     * Atomically debits one slot if, and only if, it holds at least the requested amount.
+     * Only that slot's row is locked, so debits landing on other slots of the account proceed in parallel.
+     *
+     * @return 1 if the slot was debited, 0 if it does not exist or has insufficient funds
+     */
+    @Modifying
+    @Query("update AccountBalanceSlot s set s.balance = s.balance - :amount "
+        + "where s.accountNumber = :accountNumber and s.slot = :slot and s.balance >= :amount")
+    int debitIfSufficient(@Param("accountNumber") String accountNumber, @Param("slot") int slot,
+                          @Param("amount") BigDecimal amount);
+
+    /**
+     * Atomically credits one slot.
+     *
+     * @return 1 if the slot was credited, 0 if it does not exist
+     */
+    @Modifying
+    @Query("update AccountBalanceSlot s set s.balance = s.balance + :amount "
+        + "where s.accountNumber = :accountNumber and s.slot = :slot")
+    int credit(@Param("accountNumber") String accountNumber, @Param("slot") int slot,
+               @Param("amount") BigDecimal amount);
+
+    /**
+     * Locks every slot of an account, always in slot order so two callers cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from AccountBalanceSlot s where s.accountNumber = :accountNumber order by s.slot")
+    List<AccountBalanceSlot> lockAll(@Param("accountNumber") String accountNumber);
+}
@@ -1,7 +1,16 @@
 package com.accountService.model.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import com.accountService.model.Account;
+import com.accountService.model.projection.AccountBalanceView;
+import com.accountService.model.projection.AccountIdentityView;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 import java.util.Optional;
 
@@ -9,4 +18,73 @@ import java.util.Optional;
 public interface AccountRepository extends JpaRepository<Account, UUID> {
     Optional<Account> findByAccountNumber(String accountNumber);
     Optional<Account> findByCustomerId(UUID customerId);
+    boolean existsByAccountNumber(String accountNumber);
+
+    /**
+     * Reads the identity columns of an account; the customer id comes from the foreign key, so no join is made.
+     * Read-only, so it is served by the replica when one is configured.
+     */
+    @Transactional(readOnly = true)
+    @Query("select a.id as id, a.accountNumber as accountNumber, a.customer.id as customerId "
+        + "from Account a where a.accountNumber = :accountNumber")
+    Optional<AccountIdentityView> findIdentityByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    /**
+     * Reads the balance shown on the dashboard, adding up the balance slots of a hot account. Read-only,
+     * so it is served by the replica when one is configured; callers route a customer's reads to the
+     * primary right after a write of theirs.
+     */
+    @Transactional(readOnly = true)
+    @Query("select a.accountNumber as accountNumber, a.balance + coalesce((select sum(s.balance) "
+        + "from AccountBalanceSlot s where s.accountNumber = a.accountNumber), 0) as balance "
+        + "from Account a where a.customer.id = :customerId")
+    Optional<AccountBalanceView> findBalanceByCustomerId(@Param("customerId") UUID customerId);
+
+    /**
+     * @return The number of balance slots of a hot account; empty for an ordinary or unknown account
+     */
+    @Query("select a.balanceSlots from Account a where a.accountNumber = :accountNumber and a.balanceSlots is not null")
+    Optional<Integer> findBalanceSlots(@Param("accountNumber") String accountNumber);
+
+    @Query("select a.accountNumber from Account a where a.balanceSlots is not null")
+    List<String> findSlottedAccountNumbers();
+
+    /**
+     * Marks an account as hot, or changes its number of balance slots.
+     *
+     * @return 1 if the account was updated, 0 if it does not exist
+     */
+    @Modifying
+    @Query("update Account a set a.balanceSlots = :slots where a.accountNumber = :accountNumber")
+    int updateBalanceSlots(@Param("accountNumber") String accountNumber, @Param("slots") int slots);
+
+    /**
+     * Reads the account row's own balance column, without any balance slots.
+     */
+    @Query("select a.balance from Account a where a.accountNumber = :accountNumber")
+    Optional<BigDecimal> findBalanceColumn(@Param("accountNumber") String accountNumber);
+
+    @Query("select a.accountNumber from Account a where a.accountNumber in :accountNumbers")
+    List<String> findExistingAccountNumbers(@Param("accountNumbers") Collection<String> accountNumbers);
+
+    /**
+     * Atomically debits an account if, and only if, it holds at least the requested amount.
+     * The balance check and the write happen in one statement under the row lock, so concurrent
+     * debits can neither overdraw the account nor lose each other's updates.
+     *
+     * @return 1 if the account was debited, 0 if it does not exist or has insufficient funds
+     */
+    @Modifying
+    @Query("update Account a set a.balance = a.balance - :amount "
+        + "where a.accountNumber = :accountNumber and a.balance >= :amount")
+    int debitIfSufficient(@Param("accountNumber") String accountNumber, @Param("amount") BigDecimal amount);
+
+    /**
+     * Atomically credits an account.
+     *
+     * @return 1 if the account was credited, 0 if it does not exist
+     */
+    @Modifying
+    @Query("update Account a set a.balance = a.balance + :amount where a.accountNumber = :accountNumber")
+    int credit(@Param("accountNumber") String accountNumber, @Param("amount") BigDecimal amount);
 }
@@ -0,0 +1,40 @@
+package com.accountService.model.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.accountService.model.BankTransfer;
+import com.accountService.model.TransferStatus;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface BankTransferRepository extends JpaRepository<BankTransfer, UUID> {
+
+    Optional<BankTransfer> findByCustomerIdAndSessionId(UUID customerId, String sessionId);
+
+    /**
+     * Loads a transfer with a row lock, so two dispatchers settling the same transfer
+     * (for example after a lease expired) see each other's outcome instead of both applying one.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from BankTransfer t where t.id = :id")
+    Optional<BankTransfer> findForUpdate(@Param("id") UUID id);
+
+    /**
+     * Records the reconciled outcome of the transfer, if any, that holds funds under a hold of unknown outcome.
+     *
+     * @return 1 if such a transfer was updated, 0 otherwise
+     */
+    @Modifying
+    @Transactional
+    @Query("update BankTransfer t set t.status = :to, t.updatedAt = :now where t.holdId = :holdId "
+        + "and t.status = com.accountService.model.TransferStatus.UNKNOWN")
+    int resolveUnknown(@Param("holdId") UUID holdId, @Param("to") TransferStatus to, @Param("now") LocalDateTime now);
+}
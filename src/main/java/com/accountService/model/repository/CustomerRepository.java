@@ -1,14 +1,63 @@
 package com.accountService.model.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.accountService.model.Customer;
+import com.accountService.model.projection.CustomerIdentityView;
+import com.accountService.model.projection.CustomerKeysView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface CustomerRepository extends JpaRepository<Customer, UUID> {
+
+    int KEYS_FETCH_SIZE = 1000;
+
     Optional<Customer> findByBvn(String bvn);
     Optional<Customer> findByNin(String nin);
     Optional<Customer> findByPhoneNumber(String phoneNumber);
+
+    boolean existsByEmail(String email);
+    boolean existsByBvn(String bvn);
+    boolean existsByNin(String nin);
+    boolean existsByPhoneNumber(String phoneNumber);
+
+    /**
+     * Streams the unique columns of every customer. Rows are fetched from a database cursor
+     * {@value #KEYS_FETCH_SIZE} at a time, so the stream must be consumed and closed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + KEYS_FETCH_SIZE))
+    @Query("select c.email as email, c.bvn as bvn, c.nin as nin, c.phoneNumber as phoneNumber from Customer c")
+    Stream<CustomerKeysView> streamKeys();
+
+    /**
+     * Reads the identity columns of a customer. Read-only, so it is served by the replica when one is configured.
+     */
+    @Transactional(readOnly = true)
+    @Query("select c.id as id, c.firstName as firstName, c.lastName as lastName from Customer c where c.id = :id")
+    Optional<CustomerIdentityView> findIdentityById(@Param("id") UUID id);
+
+    @Query("select c.id from Customer c where c.id in :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    @Query("select c.email from Customer c where c.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select c.bvn from Customer c where c.bvn in :bvns")
+    List<String> findExistingBvns(@Param("bvns") Collection<String> bvns);
+
+    @Query("select c.nin from Customer c where c.nin in :nins")
+    List<String> findExistingNins(@Param("nins") Collection<String> nins);
+
+    @Query("select c.phoneNumber from Customer c where c.phoneNumber in :phoneNumbers")
+    List<String> findExistingPhoneNumbers(@Param("phoneNumbers") Collection<String> phoneNumbers);
 }
@@ -0,0 +1,43 @@
+package com.accountService.model.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.accountService.model.FundsHold;
+import com.accountService.model.HoldStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface FundsHoldRepository extends JpaRepository<FundsHold, UUID> {
+
+    /**
+     * Moves a hold from one status to another only if it is still in the expected status,
+     * so a hold can be committed or released at most once even under concurrent callers.
+     *
+     * @return 1 if the transition happened, 0 otherwise
+     */
+    @Modifying
+    @Query("update FundsHold h set h.status = :to where h.id = :id and h.status = :from")
+    int transition(@Param("id") UUID id, @Param("from") HoldStatus from, @Param("to") HoldStatus to);
+
+    /**
+     * Finds holds that have stayed in a status since before a cut-off. Holds of asynchronous transfers
+     * still waiting for delivery are skipped: the outbox settles those.
+     *
+     * @return Identifiers of the holds, oldest first
+     */
+    @Query("select h.id from FundsHold h where h.status = :status and h.createdAt < :before "
+        + "and not exists (select t.id from BankTransfer t where t.holdId = h.id "
+        + "and t.status = com.accountService.model.TransferStatus.PENDING) order by h.createdAt")
+    List<UUID> findStale(@Param("status") HoldStatus status, @Param("before") LocalDateTime before, Limit limit);
+
+    /**
+     * Counts the holds that have stayed in a status since before a cut-off.
+     */
+    long countByStatusAndCreatedAtBefore(HoldStatus status, LocalDateTime before);
+}
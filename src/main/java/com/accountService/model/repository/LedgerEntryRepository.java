@@ -0,0 +1,67 @@
+package com.accountService.model.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.accountService.model.LedgerEntry;
+import com.accountService.model.projection.StatementLineView;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, UUID> {
+
+    int STATEMENT_PAGE_SIZE = 500;
+
+    @Query("select l from LedgerEntry l where l.customerId = :customerId "
+        + "order by l.createdAt desc, l.transactionId desc")
+    List<LedgerEntry> findLatest(@Param("customerId") UUID customerId, Limit limit);
+
+    /**
+     * Returns the entries that come after the given position in newest-first order.
+     * The (createdAt, transactionId) pair is unique, so no entry is skipped or repeated between pages.
+     */
+    @Query("select l from LedgerEntry l where l.customerId = :customerId "
+        + "and (l.createdAt < :createdAt or (l.createdAt = :createdAt and l.transactionId < :transactionId)) "
+        + "order by l.createdAt desc, l.transactionId desc")
+    List<LedgerEntry> findOlderThan(@Param("customerId") UUID customerId,
+                                    @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("transactionId") UUID transactionId,
+                                    Limit limit);
+
+    /**
+     * Returns the first page of a customer's entries from {@code from} (inclusive) to {@code to} (exclusive),
+     * oldest first. Each page is read in its own short read-only transaction, so a long export holds no
+     * connection or snapshot between pages.
+     */
+    @Transactional(readOnly = true)
+    @Query("select l.transactionId as transactionId, l.createdAt as createdAt, l.type as type, "
+        + "l.accountNumber as accountNumber, l.amount as amount, l.status as status, l.reference as reference "
+        + "from LedgerEntry l where l.customerId = :customerId and l.createdAt >= :from and l.createdAt < :to "
+        + "order by l.createdAt, l.transactionId")
+    List<StatementLineView> findStatementPage(@Param("customerId") UUID customerId,
+                                              @Param("from") LocalDateTime from,
+                                              @Param("to") LocalDateTime to,
+                                              Limit limit);
+
+    /**
+     * Returns the page of a statement that follows the given entry, up to {@code to} (exclusive).
+     * The (createdAt, transactionId) pair is unique, so no entry is skipped or repeated between pages.
+     */
+    @Transactional(readOnly = true)
+    @Query("select l.transactionId as transactionId, l.createdAt as createdAt, l.type as type, "
+        + "l.accountNumber as accountNumber, l.amount as amount, l.status as status, l.reference as reference "
+        + "from LedgerEntry l where l.customerId = :customerId "
+        + "and (l.createdAt > :createdAt or (l.createdAt = :createdAt and l.transactionId > :transactionId)) "
+        + "and l.createdAt < :to "
+        + "order by l.createdAt, l.transactionId")
+    List<StatementLineView> findStatementPageAfter(@Param("customerId") UUID customerId,
+                                                   @Param("createdAt") LocalDateTime createdAt,
+                                                   @Param("transactionId") UUID transactionId,
+                                                   @Param("to") LocalDateTime to,
+                                                   Limit limit);
+}
@@ -0,0 +1,46 @@
+package com.accountService.model.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.accountService.model.RateLimitBucket;
+
+public interface RateLimitBucketRepository extends JpaRepository<RateLimitBucket, String> {
+
+    /**
+     * Takes a token from a bucket if one is available, in one statement so concurrent
+     * instances cannot both take the last token.
+     *
+     * @param now Current epoch time in microseconds
+     * @param interval Microseconds between two tokens
+     * @param tolerance How far the next token may run ahead of now, i.e. capacity times the interval
+     * @return 1 if a token was taken, 0 if the bucket is empty or does not exist
+     */
+    @Modifying
+    @Transactional
+    @Query("update RateLimitBucket b set b.tat = greatest(b.tat, :now) + :interval "
+        + "where b.bucketKey = :key and greatest(b.tat, :now) + :interval - :now <= :tolerance")
+    int tryConsume(@Param("key") String key, @Param("now") long now, @Param("interval") long interval,
+                   @Param("tolerance") long tolerance);
+
+    /**
+     * Creates a bucket; fails with a constraint violation if another instance created it first.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "insert into rate_limit_bucket (bucket_key, tat) values (:key, :tat)", nativeQuery = true)
+    int create(@Param("key") String key, @Param("tat") long tat);
+
+    /**
+     * Removes buckets that have been full for a while; they are recreated full on next use.
+     *
+     * @return Number of buckets removed
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from RateLimitBucket b where b.tat < :before")
+    int deleteIdleBefore(@Param("before") long before);
+}
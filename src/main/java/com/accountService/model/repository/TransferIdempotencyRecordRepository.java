@@ -0,0 +1,94 @@
+package com.accountService.model.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.accountService.model.IdempotencyStatus;
+import com.accountService.model.TransferIdempotencyRecord;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface TransferIdempotencyRecordRepository extends JpaRepository<TransferIdempotencyRecord, UUID> {
+
+    Optional<TransferIdempotencyRecord> findByCustomerIdAndSessionId(UUID customerId, String sessionId);
+
+    /**
+     * Stores the response of an in-flight transfer and marks it completed.
+     *
+     * @return 1 if the record was in flight, 0 if it had already been completed or removed
+     */
+    @Modifying
+    @Transactional
+    @Query("update TransferIdempotencyRecord r set r.status = com.accountService.model.IdempotencyStatus.COMPLETED, "
+        + "r.response = :response where r.customerId = :customerId and r.sessionId = :sessionId "
+        + "and r.status = com.accountService.model.IdempotencyStatus.IN_FLIGHT")
+    int complete(@Param("customerId") UUID customerId, @Param("sessionId") String sessionId,
+                 @Param("response") String response);
+
+    /**
+     * Moves a record from one status to another.
+     *
+     * @return 1 if the record had the expected status, 0 otherwise
+     */
+    @Modifying
+    @Transactional
+    @Query("update TransferIdempotencyRecord r set r.status = :to "
+        + "where r.customerId = :customerId and r.sessionId = :sessionId and r.status = :from")
+    int transition(@Param("customerId") UUID customerId, @Param("sessionId") String sessionId,
+                   @Param("from") IdempotencyStatus from, @Param("to") IdempotencyStatus to);
+
+    @Modifying
+    @Transactional
+    @Query("delete from TransferIdempotencyRecord r where r.customerId = :customerId and r.sessionId = :sessionId "
+        + "and r.status = :status")
+    int deleteByKey(@Param("customerId") UUID customerId, @Param("sessionId") String sessionId,
+                    @Param("status") IdempotencyStatus status);
+
+    /**
+     * Records the funds hold of an in-flight transfer.
+     *
+     * @return 1 if the record was in flight, 0 otherwise
+     */
+    @Modifying
+    @Transactional
+    @Query("update TransferIdempotencyRecord r set r.holdId = :holdId where r.customerId = :customerId "
+        + "and r.sessionId = :sessionId and r.status = com.accountService.model.IdempotencyStatus.IN_FLIGHT")
+    int attachHold(@Param("customerId") UUID customerId, @Param("sessionId") String sessionId,
+                   @Param("holdId") UUID holdId);
+
+    /**
+     * Finds records with a funds hold that have stayed in a status since before a cut-off.
+     *
+     * @return The records, oldest first
+     */
+    @Query("select r from TransferIdempotencyRecord r where r.status = :status and r.holdId is not null "
+        + "and r.createdAt < :before order by r.createdAt")
+    List<TransferIdempotencyRecord> findStaleWithHold(@Param("status") IdempotencyStatus status,
+                                                      @Param("before") LocalDateTime before, Limit limit);
+
+    /**
+     * Removes, in one statement, completed records older than their retention, in-flight records
+     * that never got as far as holding funds, and records of unknown outcome whose hold has been
+     * reconciled: released, or committed and older than the completed retention.
+     *
+     * @return Number of records removed
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from TransferIdempotencyRecord r where "
+        + "(r.status = com.accountService.model.IdempotencyStatus.COMPLETED and r.createdAt < :completedBefore) "
+        + "or (r.status = com.accountService.model.IdempotencyStatus.IN_FLIGHT and r.holdId is null "
+        + "and r.createdAt < :inFlightBefore) "
+        + "or (r.status = com.accountService.model.IdempotencyStatus.UNKNOWN and exists (select h.id from FundsHold h "
+        + "where h.id = r.holdId and (h.status = com.accountService.model.HoldStatus.RELEASED "
+        + "or (h.status = com.accountService.model.HoldStatus.COMMITTED and r.createdAt < :completedBefore))))")
+    int deleteExpired(@Param("completedBefore") LocalDateTime completedBefore,
+                      @Param("inFlightBefore") LocalDateTime inFlightBefore);
+}
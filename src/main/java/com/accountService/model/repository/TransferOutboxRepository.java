@@ -0,0 +1,29 @@
+package com.accountService.model.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.accountService.model.TransferOutboxMessage;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface TransferOutboxRepository extends JpaRepository<TransferOutboxMessage, UUID> {
+
+    /**
+     * Locks the next due messages, skipping any another dispatcher has locked, so several
+     * nodes can drain the outbox concurrently without waiting on or double-sending each other.
+     * A lock timeout of -2 is Hibernate's SKIP LOCKED.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select m from TransferOutboxMessage m where m.nextAttemptAt <= :now order by m.nextAttemptAt")
+    List<TransferOutboxMessage> lockDue(@Param("now") LocalDateTime now, Limit limit);
+}
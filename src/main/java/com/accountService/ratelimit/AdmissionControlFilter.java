@@ -0,0 +1,269 @@
+package com.accountService.ratelimit;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sheds load on the expensive endpoints before any database or remote work is done. It runs right after
+ * {@link com.accountService.security.JwtTokenFilter} and takes a token from two buckets per request: the
+ * caller's bucket for the endpoint, then the endpoint's overall bucket. If either is empty the request is
+ * answered {@code 429 Too Many Requests} with a {@code Retry-After} hint, so saturation turns into fast
+ * rejections instead of timeouts for every caller.
+ * <p>
+ * The caller is the authenticated principal. For unauthenticated requests it is the customer the request
+ * names in its body's {@code customerId}, so customers behind one proxy or NAT address do not share a
+ * bucket; the body is buffered, up to {@code ratelimit.max-body-bytes}, and replayed to the endpoint. Failing
+ * both, it is the client address, which is taken from {@code X-Forwarded-For} only when the request came
+ * through a trusted proxy ({@code server.forward-headers-strategy}). The buckets live in the configured
+ * {@link TokenBucketStore}; rejections are counted in {@code ratelimit.rejected}, tagged by endpoint and by
+ * which limit was hit.
+ */
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final TokenBucketStore tokenBucketStore;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final boolean enabled;
+    private final int maxBodyBytes;
+    private final Map<RateLimitedEndpoint, RateLimit> customerLimits = new EnumMap<>(RateLimitedEndpoint.class);
+    private final Map<RateLimitedEndpoint, RateLimit> endpointLimits = new EnumMap<>(RateLimitedEndpoint.class);
+    private final Map<RateLimitedEndpoint, Counter> customerRejections = new EnumMap<>(RateLimitedEndpoint.class);
+    private final Map<RateLimitedEndpoint, Counter> endpointRejections = new EnumMap<>(RateLimitedEndpoint.class);
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    /**
+     * Reads the limits of every {@link RateLimitedEndpoint}.
+     *
+     * @param tokenBucketStore Store the buckets are kept in
+     * @param environment Source of the {@code ratelimit.*} settings
+     * @param meterRegistry Registry the rejection counters are published to
+     */
+    public AdmissionControlFilter(TokenBucketStore tokenBucketStore, Environment environment,
+                                  MeterRegistry meterRegistry) {
+        this.tokenBucketStore = tokenBucketStore;
+        this.enabled = environment.getProperty("ratelimit.enabled", Boolean.class, true);
+        this.maxBodyBytes = environment.getProperty("ratelimit.max-body-bytes", Integer.class, 65536);
+        for (RateLimitedEndpoint endpoint : RateLimitedEndpoint.values()) {
+            String prefix = "ratelimit." + endpoint.key() + ".";
+            RateLimit customerLimit = RateLimit.from(environment, prefix + "customer.", 20, 5);
+            RateLimit endpointLimit = RateLimit.from(environment, prefix + "endpoint.", 0, 0);
+            if (customerLimit != null) {
+                customerLimits.put(endpoint, customerLimit);
+            }
+            if (endpointLimit != null) {
+                endpointLimits.put(endpoint, endpointLimit);
+            }
+            customerRejections.put(endpoint, rejectionCounter(meterRegistry, endpoint, "customer"));
+            endpointRejections.put(endpoint, rejectionCounter(meterRegistry, endpoint, "endpoint"));
+        }
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, RateLimitedEndpoint endpoint, String limit) {
+        return Counter.builder("ratelimit.rejected")
+                .tag("endpoint", endpoint.key())
+                .tag("limit", limit)
+                .description("Requests rejected with 429 by admission control")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || match(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain chain)
+            throws ServletException, IOException {
+        RateLimitedEndpoint endpoint = match(request);
+
+        String caller = authenticatedCaller();
+        if (caller == null && endpoint.customerInBody()) {
+            byte[] body = request.getInputStream().readNBytes(maxBodyBytes + 1);
+            if (body.length > maxBodyBytes) {
+                reject(response, HttpStatus.PAYLOAD_TOO_LARGE, "Request body is too large");
+                return;
+            }
+            request = new BufferedBodyRequest(request, body);
+            caller = customerInBody(body);
+        }
+        if (caller == null) {
+            caller = "addr:" + request.getRemoteAddr();
+        }
+
+        RateLimit customerLimit = customerLimits.get(endpoint);
+        if (customerLimit != null) {
+            long wait = tokenBucketStore.tryAcquire(endpoint.key() + ":" + caller, customerLimit);
+            if (wait > 0) {
+                customerRejections.get(endpoint).increment();
+                reject(response, wait, "Too many requests; retry later");
+                return;
+            }
+        }
+        RateLimit endpointLimit = endpointLimits.get(endpoint);
+        if (endpointLimit != null) {
+            long wait = tokenBucketStore.tryAcquire(endpoint.key(), endpointLimit);
+            if (wait > 0) {
+                endpointRejections.get(endpoint).increment();
+                reject(response, wait, "Service is busy; retry later");
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private RateLimitedEndpoint match(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (RateLimitedEndpoint endpoint : RateLimitedEndpoint.values()) {
+            if (!endpoint.method().matches(request.getMethod())) {
+                continue;
+            }
+            for (String pattern : endpoint.patterns()) {
+                if (pathMatcher.match(pattern, path)) {
+                    return endpoint;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String authenticatedCaller() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return null;
+    }
+
+    /**
+     * Reads the top-level {@code customerId} of a JSON object body.
+     *
+     * @return The caller key for the customer, or null if the body does not name a valid one
+     */
+    private String customerInBody(byte[] body) {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("customerId".equals(field)) {
+                    return value == JsonToken.VALUE_STRING ? "customer:" + UUID.fromString(parser.getText()) : null;
+                }
+                parser.skipChildren();
+            }
+            return null;
+        } catch (IOException | IllegalArgumentException e) {
+            // Left for the endpoint to reject
+            return null;
+        }
+    }
+
+    private static void reject(HttpServletResponse response, long waitMicros, String message) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER,
+                String.valueOf(Math.max(1L, (waitMicros + TimeUnit.SECONDS.toMicros(1) - 1) / TimeUnit.SECONDS.toMicros(1))));
+        reject(response, HttpStatus.TOO_MANY_REQUESTS, message);
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(("{\"message\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * A request whose body has already been read, replaying it to the rest of the chain.
+     */
+    private static final class BufferedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private BufferedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException("Buffered request bodies are read synchronously");
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.accountService.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the buckets in this instance's memory. Each bucket is a single {@link AtomicLong} holding
+ * the time its next token is due, updated by compare-and-set, so taking a token never locks. Buckets
+ * idle for {@code ratelimit.local.idle-expiry} are dropped, which is harmless once that is longer than
+ * the time a bucket takes to refill: a dropped bucket comes back full, as it would have been anyway.
+ */
+public class LocalTokenBucketStore implements TokenBucketStore {
+
+    private final Cache<String, AtomicLong> buckets;
+
+    public LocalTokenBucketStore(Environment environment) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(environment.getProperty("ratelimit.local.max-buckets", Long.class, 100_000L))
+                .expireAfterAccess(Duration.ofMillis(
+                        environment.getProperty("ratelimit.local.idle-expiry", Long.class, 600_000L)))
+                .build();
+    }
+
+    @Override
+    public long tryAcquire(String key, RateLimit limit) {
+        AtomicLong tat = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        long interval = limit.intervalMicros();
+        long tolerance = limit.toleranceMicros();
+        while (true) {
+            long now = TimeUnit.NANOSECONDS.toMicros(System.nanoTime());
+            long current = tat.get();
+            long next = Math.max(current, now) + interval;
+            if (next - now > tolerance) {
+                return next - now - tolerance;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
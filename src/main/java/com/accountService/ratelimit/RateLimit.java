@@ -0,0 +1,66 @@
+package com.accountService.ratelimit;
+
+import lombok.Builder;
+import lombok.Value;
+import org.springframework.core.env.Environment;
+
+/**
+ * A token bucket's shape: it holds up to {@code capacity} tokens and refills at
+ * {@code refillPerSecond}. The buckets are kept as GCRA timestamps, so the limit is also
+ * expressed as the interval between tokens and how far ahead of now the next token may be booked.
+ */
+@Value
+@Builder
+public class RateLimit {
+    long capacity;
+    double refillPerSecond;
+
+    /**
+     * Reads a limit from {@code <prefix>capacity} and {@code <prefix>refill-per-second}.
+     *
+     * @param environment The Spring environment to read properties from
+     * @param prefix Property prefix, ending with a dot
+     * @param defaultCapacity Capacity if none is configured; 0 disables the limit
+     * @param defaultRefillPerSecond Refill rate if none is configured
+     * @return The limit, or null if it is disabled
+     */
+    public static RateLimit from(Environment environment, String prefix, long defaultCapacity,
+                                 double defaultRefillPerSecond) {
+        long capacity = environment.getProperty(prefix + "capacity", Long.class, defaultCapacity);
+        double refill = environment.getProperty(prefix + "refill-per-second", Double.class, defaultRefillPerSecond);
+        if (capacity <= 0 || refill <= 0) {
+            return null;
+        }
+        return RateLimit.builder().capacity(capacity).refillPerSecond(refill).build();
+    }
+
+    /**
+     * @return Microseconds between two tokens
+     */
+    public long intervalMicros() {
+        return Math.max(1L, Math.round(1_000_000d / refillPerSecond));
+    }
+
+    /**
+     * @return How far ahead of now the bucket's next token may be booked, i.e. the burst it allows
+     */
+    public long toleranceMicros() {
+        return capacity * intervalMicros();
+    }
+
+    /**
+     * Returns this instance's share of a limit enforced across several instances.
+     *
+     * @param instances Number of instances the limit is split between
+     * @return The per-instance limit
+     */
+    public RateLimit share(int instances) {
+        if (instances <= 1) {
+            return this;
+        }
+        return RateLimit.builder()
+                .capacity(Math.max(1L, capacity / instances))
+                .refillPerSecond(refillPerSecond / instances)
+                .build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.accountService.ratelimit;
+
+import org.springframework.http.HttpMethod;
+
+import java.util.List;
+
+/**
+ * Endpoints admission control applies to. Each is limited per customer and as a whole, with
+ * limits configured under {@code ratelimit.<key>.*}. The patterns cover both the servlet and the
+ * reactive API, which share one set of buckets. A request is limited by the first endpoint it matches,
+ * so batch payments, which cost up to {@code payment.batch.max-size} payments each, draw from their own
+ * buckets rather than those of single payments.
+ */
+public enum RateLimitedEndpoint {
+    BANK_TRANSFER("bank-transfer", HttpMethod.POST, List.of("/api/*/customer/bank-transfer/**"), true),
+    MAKE_PAYMENT_BATCH("make-payment-batch", HttpMethod.POST, List.of("/api/*/customer/make-payment/batch"), false),
+    MAKE_PAYMENT("make-payment", HttpMethod.POST, List.of("/api/*/customer/make-payment/**"), true);
+
+    private final String key;
+    private final HttpMethod method;
+    private final List<String> patterns;
+    private final boolean customerInBody;
+
+    RateLimitedEndpoint(String key, HttpMethod method, List<String> patterns, boolean customerInBody) {
+        this.key = key;
+        this.method = method;
+        this.patterns = patterns;
+        this.customerInBody = customerInBody;
+    }
+
+    /**
+     * @return The short name used in property keys, bucket keys and metric tags
+     */
+    public String key() {
+        return key;
+    }
+
+    HttpMethod method() {
+        return method;
+    }
+
+    List<String> patterns() {
+        return patterns;
+    }
+
+    /**
+     * @return Whether the request body is a JSON object naming the customer in {@code customerId}
+     */
+    boolean customerInBody() {
+        return customerInBody;
+    }
+}
@@ -0,0 +1,110 @@
+package com.accountService.ratelimit;
+
+import com.accountService.model.repository.RateLimitBucketRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the buckets in the database, so a customer's limit holds across every instance of the service.
+ * Taking a token is one conditional update; a bucket that does not exist yet is inserted full. Bucket
+ * times are epoch microseconds from each instance's clock, so clock skew between instances shifts a
+ * bucket by at most the skew.
+ * <p>
+ * If the database cannot be reached, the instance falls back to a local stand-in: in-memory buckets
+ * with its {@code 1/ratelimit.cluster.instances} share of each limit. It stays on the stand-in for
+ * {@code ratelimit.cluster.retry-after} before trying the database again, so an outage costs one failed
+ * statement per interval rather than one per request. Fallbacks are counted in {@code ratelimit.store.fallback}.
+ */
+@Slf4j
+public class SharedTokenBucketStore implements TokenBucketStore {
+
+    private final RateLimitBucketRepository repository;
+    private final TokenBucketStore standIn;
+    private final int instances;
+    private final long retryAfterMs;
+    private final long retentionMicros;
+    private final Cache<String, Boolean> knownBuckets;
+    private final Counter fallbacks;
+    private volatile long unavailableUntil;
+
+    public SharedTokenBucketStore(RateLimitBucketRepository repository, TokenBucketStore standIn,
+                                  Environment environment, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.standIn = standIn;
+        this.instances = environment.getProperty("ratelimit.cluster.instances", Integer.class, 1);
+        this.retryAfterMs = environment.getProperty("ratelimit.cluster.retry-after", Long.class, 5000L);
+        this.retentionMicros = TimeUnit.MILLISECONDS.toMicros(
+                environment.getProperty("ratelimit.cluster.retention", Long.class, 3_600_000L));
+        // Buckets known to exist, so a denied request costs one statement instead of a failed insert as well
+        this.knownBuckets = Caffeine.newBuilder()
+                .maximumSize(environment.getProperty("ratelimit.local.max-buckets", Long.class, 100_000L))
+                .expireAfterWrite(Duration.ofMinutes(1))
+                .build();
+        this.fallbacks = Counter.builder("ratelimit.store.fallback")
+                .description("Rate limit decisions made by the local stand-in because the shared store was unavailable")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public long tryAcquire(String key, RateLimit limit) {
+        if (System.currentTimeMillis() < unavailableUntil) {
+            fallbacks.increment();
+            return standIn.tryAcquire(key, limit.share(instances));
+        }
+        try {
+            return tryAcquireShared(key, limit);
+        } catch (DataAccessException e) {
+            log.warn("Rate limit store unavailable, using local buckets for {} ms: {}", retryAfterMs, e.getMessage());
+            unavailableUntil = System.currentTimeMillis() + retryAfterMs;
+            fallbacks.increment();
+            return standIn.tryAcquire(key, limit.share(instances));
+        }
+    }
+
+    private long tryAcquireShared(String key, RateLimit limit) {
+        long now = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        long interval = limit.intervalMicros();
+        if (repository.tryConsume(key, now, interval, limit.toleranceMicros()) == 1) {
+            return 0;
+        }
+        if (knownBuckets.getIfPresent(key) == null) {
+            try {
+                repository.create(key, now + interval);
+                knownBuckets.put(key, Boolean.TRUE);
+                return 0;
+            } catch (DataIntegrityViolationException e) {
+                // Created by another instance in the meantime
+                knownBuckets.put(key, Boolean.TRUE);
+                if (repository.tryConsume(key, now, interval, limit.toleranceMicros()) == 1) {
+                    return 0;
+                }
+            }
+        }
+        // The wait is not read back from the store; one token interval is the shortest it can be
+        return interval;
+    }
+
+    /**
+     * Deletes buckets that have been full for longer than {@code ratelimit.cluster.retention}.
+     */
+    @Scheduled(fixedDelayString = "${ratelimit.cluster.cleanup-interval:600000}")
+    public void deleteIdleBuckets() {
+        try {
+            int removed = repository.deleteIdleBefore(
+                    TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis()) - retentionMicros);
+            log.debug("Removed {} idle rate limit buckets", removed);
+        } catch (DataAccessException e) {
+            log.warn("Could not remove idle rate limit buckets: {}", e.getMessage());
+        }
+    }
+}
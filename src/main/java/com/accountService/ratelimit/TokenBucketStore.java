@@ -0,0 +1,16 @@
+package com.accountService.ratelimit;
+
+/**
+ * Holds the token buckets admission control draws from.
+ */
+public interface TokenBucketStore {
+
+    /**
+     * Takes one token from a bucket, creating the bucket full if it does not exist yet.
+     *
+     * @param key Identifies the bucket, e.g. the endpoint and customer it limits
+     * @param limit Shape of the bucket
+     * @return 0 if a token was taken, otherwise an estimate of the microseconds until one is available
+     */
+    long tryAcquire(String key, RateLimit limit);
+}
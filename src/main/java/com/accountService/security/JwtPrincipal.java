@@ -0,0 +1,18 @@
+package com.accountService.security;
+
+import lombok.Value;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The identity carried by a verified JWT, with its roles already mapped to granted authorities
+ * so cached principals can be turned into an authentication without further work.
+ */
+@Value
+public class JwtPrincipal {
+    String username;
+    List<SimpleGrantedAuthority> authorities;
+    Instant expiresAt;
+}
@@ -0,0 +1,112 @@
+package com.accountService.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of verified tokens, so a client sending the same bearer token on every request
+ * pays for signature verification once rather than on each call.
+ * Entries are keyed by the SHA-256 of the token, never the token itself, and live for at most
+ * {@code security.jwt.cache.ttl} milliseconds and never past the token's own expiry.
+ * Only valid tokens are cached. Hit and miss counts are published as {@code cache.gets{cache="jwt.principal"}}.
+ */
+@Component
+public class JwtPrincipalCache {
+
+    private final JwtUtil jwtUtil;
+    private final Cache<String, JwtPrincipal> cache;
+
+    /**
+     * Constructs the cache and registers its metrics.
+     *
+     * @param jwtUtil Parser used on a cache miss
+     * @param environment Source of the {@code security.jwt.cache.*} settings
+     * @param meterRegistry Registry the cache statistics are published to
+     */
+    public JwtPrincipalCache(JwtUtil jwtUtil, Environment environment, MeterRegistry meterRegistry) {
+        this.jwtUtil = jwtUtil;
+        long maxSize = environment.getProperty("security.jwt.cache.max-size", Long.class, 10000L);
+        long ttlNanos = TimeUnit.MILLISECONDS.toNanos(
+                environment.getProperty("security.jwt.cache.ttl", Long.class, 300000L));
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry(ttlNanos))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.principal");
+    }
+
+    /**
+     * Returns the principal for a token, verifying it only if it is not already cached.
+     *
+     * @param token The JWT token string
+     * @return The token's principal, or empty if the token is invalid or expired
+     */
+    public Optional<JwtPrincipal> resolve(String token) {
+        String key = hash(token);
+        JwtPrincipal cached = cache.getIfPresent(key);
+        if (cached != null) {
+            if (cached.getExpiresAt() == null || cached.getExpiresAt().isAfter(Instant.now())) {
+                return Optional.of(cached);
+            }
+            cache.invalidate(key);
+            return Optional.empty();
+        }
+        Optional<JwtPrincipal> principal = jwtUtil.parsePrincipal(token);
+        principal.ifPresent(value -> cache.put(key, value));
+        return principal;
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Expires an entry at the configured TTL or at the token's {@code exp}, whichever comes first.
+     */
+    private static final class TokenExpiry implements Expiry<String, JwtPrincipal> {
+        private final long ttlNanos;
+
+        private TokenExpiry(long ttlNanos) {
+            this.ttlNanos = ttlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, JwtPrincipal principal, long currentTime) {
+            if (principal.getExpiresAt() == null) {
+                return ttlNanos;
+            }
+            long untilExpiry = TimeUnit.MILLISECONDS.toNanos(
+                    principal.getExpiresAt().toEpochMilli() - System.currentTimeMillis());
+            return Math.max(0, Math.min(ttlNanos, untilExpiry));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JwtPrincipal principal, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, principal, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, JwtPrincipal principal, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
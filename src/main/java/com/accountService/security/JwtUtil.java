@@ -1,19 +1,33 @@
 package com.accountService.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Instant;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Utility class for handling JWT (JSON Web Token) operations including token validation
  * and extraction of claims.
+ * The signing key and parser are built once; the parser is immutable and safe to share across threads.
  */
 @Service
 public class JwtUtil {
 
-    private final String SECRET_KEY = "your-secure-secret-key-change-this"; // Use a secure and shared key
+    static final String SECRET_KEY = "your-secure-secret-key-change-this"; // Use a secure and shared key
+
+    private final Key signingKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8));
+    private final JwtParser parser = Jwts.parserBuilder()
+            .setSigningKey(signingKey)
+            .build();
 
     /**
      * Extracts the username from the JWT token.
@@ -40,12 +54,28 @@ public class JwtUtil {
      * @return true if the token is valid, false otherwise
      */
     public boolean validateToken(String token) {
+        return parsePrincipal(token).isPresent();
+    }
+
+    /**
+     * Verifies a token and extracts everything needed to authenticate it in a single parse.
+     * @param token The JWT token string
+     * @return The token's principal, or empty if the token is invalid or expired
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<JwtPrincipal> parsePrincipal(String token) {
+        Claims claims;
         try {
-            extractClaims(token);
-            return true;
+            claims = extractClaims(token);
         } catch (Exception e) {
-            return false;
+            return Optional.empty();
         }
+        List<String> roles = claims.get("roles", List.class);
+        List<SimpleGrantedAuthority> authorities = roles == null ? Collections.emptyList() : roles.stream()
+                .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+                .toList();
+        Instant expiresAt = claims.getExpiration() != null ? claims.getExpiration().toInstant() : null;
+        return Optional.of(new JwtPrincipal(claims.getSubject(), authorities, expiresAt));
     }
 
     /**
@@ -54,10 +84,6 @@ public class JwtUtil {
      * @return Claims object containing all the claims from the token
      */
     private Claims extractClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(SECRET_KEY.getBytes())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 }
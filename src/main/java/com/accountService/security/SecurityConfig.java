@@ -1,6 +1,7 @@
 package com.accountService.security;
 
 
+import com.accountService.ratelimit.AdmissionControlFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -17,13 +18,16 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtTokenFilter jwtTokenFilter;
+    private final AdmissionControlFilter admissionControlFilter;
 
     /**
      * Constructor for SecurityConfig.
      * @param jwtTokenFilter The JWT token filter to be used for authentication
+     * @param admissionControlFilter Rate limits the expensive endpoints per caller and per endpoint
      */
-    public SecurityConfig(JwtTokenFilter jwtTokenFilter) {
+    public SecurityConfig(JwtTokenFilter jwtTokenFilter, AdmissionControlFilter admissionControlFilter) {
         this.jwtTokenFilter = jwtTokenFilter;
+        this.admissionControlFilter = admissionControlFilter;
     }
 
     /**
@@ -31,8 +35,11 @@ public class SecurityConfig {
      * This method:
      * - Disables CSRF protection
      * - Requires authentication for specific endpoints (/account/onboard, /account/dashboard)
+     * - Restricts the back-office endpoints (/api/v1/admin/**) to the ADMIN role
+     * - Leaves /actuator/health open for probes and restricts the other actuator endpoints to the ADMIN role
      * - Allows public access to all other endpoints
      * - Adds JWT token filter before username/password authentication
+     * - Adds admission control right after it, so callers are limited by their authenticated identity
      *
      * @param http The HttpSecurity object to be configured
      * @return The built SecurityFilterChain
@@ -44,9 +51,13 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/account/onboard", "/account/dashboard").authenticated()
+                .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .anyRequest().permitAll()
             )
-            .addFilterBefore(jwtTokenFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtTokenFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(admissionControlFilter, JwtTokenFilter.class);
         return http.build();
     }
 }
@@ -0,0 +1,80 @@
+package com.accountService.security;
+
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Encrypts transaction PINs that must outlive the request, such as those of transfers waiting in the
+ * outbox, with AES-256-GCM under the key in {@code transfer.async.pin-key} (32 bytes, Base64-encoded).
+ * Every node that dispatches transfers needs the same key.
+ */
+@Component
+public class TransferPinCipher {
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+
+    private final SecretKey key;
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Constructor for TransferPinCipher.
+     *
+     * @param environment Source of the {@code transfer.async.pin-key} setting
+     * @throws IllegalStateException if the key is missing or not 32 bytes long
+     */
+    public TransferPinCipher(Environment environment) {
+        byte[] bytes = Base64.getDecoder().decode(environment.getRequiredProperty("transfer.async.pin-key"));
+        if (bytes.length != 32) {
+            throw new IllegalStateException("transfer.async.pin-key must be 32 Base64-encoded bytes");
+        }
+        this.key = new SecretKeySpec(bytes, "AES");
+    }
+
+    /**
+     * @param pin The PIN in plaintext
+     * @return The PIN encrypted under a fresh IV, Base64-encoded with the IV in front
+     */
+    public String encrypt(String pin) {
+        byte[] iv = new byte[IV_BYTES];
+        random.nextBytes(iv);
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+            byte[] sealed = cipher.doFinal(pin.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(ByteBuffer.allocate(iv.length + sealed.length)
+                    .put(iv)
+                    .put(sealed)
+                    .array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to encrypt transaction PIN", e);
+        }
+    }
+
+    /**
+     * @param encrypted A value returned by {@link #encrypt}
+     * @return The PIN in plaintext
+     * @throws IllegalStateException if the value was not encrypted under this key or was altered
+     */
+    public String decrypt(String encrypted) {
+        byte[] bytes = Base64.getDecoder().decode(encrypted);
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, bytes, 0, IV_BYTES));
+            return new String(cipher.doFinal(bytes, IV_BYTES, bytes.length - IV_BYTES), StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to decrypt transaction PIN", e);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.accountService.service.implementation;
+
+import com.accountService.model.AccountBalanceSlot;
+import com.accountService.model.repository.AccountBalanceSlotRepository;
+import com.accountService.model.repository.AccountRepository;
+import com.accountService.service.interfaces.AccountBalanceService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Applies debits and credits to account balances. An ordinary account is debited with one conditional
+ * update of its row. A hot account's balance is spread over balance slots: a debit or credit picks a slot
+ * at random, so concurrent writers mostly lock different rows. A debit tries up to
+ * {@code balance.slots.debit-attempts} slots on their own; only if none of them covers the amount are all
+ * the slots locked, in slot order, and the debit taken across them if their total covers it.
+ * <p>
+ * A background rebalancer evens out the slots every {@code balance.slots.rebalance-interval}, so single-slot
+ * debits keep succeeding, and sweeps into the slots anything credited to the account row itself. Slot
+ * counts are cached for {@code balance.slots.cache-ttl}; an instance that has not yet seen an account
+ * become hot finds its row empty, re-reads the slot count and retries on the slots.
+ */
+@Slf4j
+@Service
+public class AccountBalanceServiceImpl implements AccountBalanceService {
+
+    private static final int NOT_SLOTTED = 0;
+
+    private final AccountRepository accountRepository;
+    private final AccountBalanceSlotRepository slotRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<String, Integer> slotCounts;
+    private final int debitAttempts;
+    private final BigDecimal rebalanceThreshold;
+
+    public AccountBalanceServiceImpl(AccountRepository accountRepository,
+                                     AccountBalanceSlotRepository slotRepository,
+                                     TransactionTemplate transactionTemplate,
+                                     Environment environment) {
+        this.accountRepository = accountRepository;
+        this.slotRepository = slotRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.slotCounts = Caffeine.newBuilder()
+                .maximumSize(environment.getProperty("balance.slots.cache-size", Long.class, 10_000L))
+                .expireAfterWrite(Duration.ofMillis(environment.getProperty("balance.slots.cache-ttl", Long.class, 30_000L)))
+                .build();
+        this.debitAttempts = environment.getProperty("balance.slots.debit-attempts", Integer.class, 2);
+        this.rebalanceThreshold = new BigDecimal(environment.getProperty("balance.slots.rebalance-threshold", "0.5"));
+    }
+
+    @Override
+    @Transactional
+    public boolean debitIfSufficient(String accountNumber, BigDecimal amount) {
+        int slots = slotCount(accountNumber);
+        if (slots == NOT_SLOTTED) {
+            if (accountRepository.debitIfSufficient(accountNumber, amount) == 1) {
+                return true;
+            }
+            slotCounts.invalidate(accountNumber);
+            slots = slotCount(accountNumber);
+            if (slots == NOT_SLOTTED) {
+                return false;
+            }
+        }
+
+        int start = ThreadLocalRandom.current().nextInt(slots);
+        for (int i = 0; i < Math.min(debitAttempts, slots); i++) {
+            if (slotRepository.debitIfSufficient(accountNumber, (start + i) % slots, amount) == 1) {
+                return true;
+            }
+        }
+
+        // No slot tried covers the amount on its own; the slots may still do so between them
+        List<AccountBalanceSlot> locked = slotRepository.lockAll(accountNumber);
+        BigDecimal total = locked.stream().map(AccountBalanceSlot::getBalance).reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (total.compareTo(amount) < 0) {
+            return false;
+        }
+        BigDecimal remaining = amount;
+        locked.sort(Comparator.comparing(AccountBalanceSlot::getBalance).reversed());
+        for (AccountBalanceSlot slot : locked) {
+            BigDecimal taken = slot.getBalance().min(remaining);
+            slot.setBalance(slot.getBalance().subtract(taken));
+            remaining = remaining.subtract(taken);
+            if (remaining.signum() == 0) {
+                break;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public boolean credit(String accountNumber, BigDecimal amount) {
+        int slots = slotCount(accountNumber);
+        if (slots == NOT_SLOTTED) {
+            return accountRepository.credit(accountNumber, amount) == 1;
+        }
+        return slotRepository.credit(accountNumber, ThreadLocalRandom.current().nextInt(slots), amount) == 1;
+    }
+
+    @Override
+    @Transactional
+    public void enableBalanceSlots(String accountNumber, int slots) {
+        if (slots < 2) {
+            throw new IllegalArgumentException("A hot account needs at least 2 balance slots");
+        }
+        if (!accountRepository.existsByAccountNumber(accountNumber)) {
+            throw new IllegalArgumentException("Account not found");
+        }
+        int current = accountRepository.findBalanceSlots(accountNumber).orElse(NOT_SLOTTED);
+        if (slots < current) {
+            throw new IllegalArgumentException("Account already has " + current + " balance slots");
+        }
+        accountRepository.updateBalanceSlots(accountNumber, slots);
+        for (int slot = current; slot < slots; slot++) {
+            slotRepository.save(AccountBalanceSlot.builder()
+                    .accountNumber(accountNumber)
+                    .slot(slot)
+                    .balance(BigDecimal.ZERO)
+                    .build());
+        }
+        slotRepository.flush();
+        rebalance(accountNumber, true);
+        slotCounts.invalidate(accountNumber);
+        log.info("Spread the balance of account {} over {} slots", accountNumber, slots);
+    }
+
+    /**
+     * Evens out the slots of every hot account, one account per transaction.
+     */
+    @Scheduled(fixedDelayString = "${balance.slots.rebalance-interval:5000}")
+    public void rebalanceAll() {
+        for (String accountNumber : accountRepository.findSlottedAccountNumbers()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> rebalance(accountNumber, false));
+            } catch (RuntimeException e) {
+                log.warn("Could not rebalance account {}: {}", accountNumber, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Locks the account's slots, sweeps in anything credited to the account row and, if the emptiest slot
+     * has fallen below {@code balance.slots.rebalance-threshold} of the average or anything was swept in,
+     * spreads the total evenly again. Must run in a transaction.
+     *
+     * @param force Whether to spread the total even if the slots are still balanced
+     * @return true if the slots were rewritten
+     */
+    boolean rebalance(String accountNumber, boolean force) {
+        List<AccountBalanceSlot> slots = slotRepository.lockAll(accountNumber);
+        if (slots.isEmpty()) {
+            return false;
+        }
+        BigDecimal swept = accountRepository.findBalanceColumn(accountNumber)
+                .filter(balance -> balance.signum() > 0)
+                .filter(balance -> accountRepository.debitIfSufficient(accountNumber, balance) == 1)
+                .orElse(BigDecimal.ZERO);
+        BigDecimal total = slots.stream().map(AccountBalanceSlot::getBalance).reduce(swept, BigDecimal::add);
+        BigDecimal count = BigDecimal.valueOf(slots.size());
+        BigDecimal emptiest = slots.stream().map(AccountBalanceSlot::getBalance).min(Comparator.naturalOrder())
+                .orElseThrow();
+        if (!force && swept.signum() == 0
+                && emptiest.multiply(count).compareTo(total.multiply(rebalanceThreshold)) >= 0) {
+            return false;
+        }
+
+        BigDecimal share = total.divide(count, Math.max(2, total.scale()), RoundingMode.DOWN);
+        for (AccountBalanceSlot slot : slots) {
+            slot.setBalance(share);
+        }
+        slots.get(0).setBalance(share.add(total.subtract(share.multiply(count))));
+        return true;
+    }
+
+    private int slotCount(String accountNumber) {
+        return slotCounts.get(accountNumber, key -> accountRepository.findBalanceSlots(key).orElse(NOT_SLOTTED));
+    }
+}
@@ -0,0 +1,143 @@
+package com.accountService.service.implementation;
+
+import com.accountService.service.interfaces.AccountNumberAllocator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Allocates account numbers from blocks of serials leased from a database sequence.
+ * Each node takes a whole block of {@value #BLOCK_SIZE} serials with one {@code nextval} call and
+ * hands them out in memory with a single atomic increment, so allocation needs no database round trip
+ * and no lock except when a block runs out. Nodes never share a block, so numbers cannot collide.
+ * Serials left in a block when a node stops are skipped, never reissued.
+ */
+@Service
+public class AccountNumberAllocatorImpl implements AccountNumberAllocator {
+
+    /**
+     * Serials per leased block. Fixed, because block {@code n} always covers
+     * {@code [n * BLOCK_SIZE, (n + 1) * BLOCK_SIZE)}; changing it would let new blocks overlap old ones.
+     */
+    static final long BLOCK_SIZE = 1000;
+
+    private static final long MAX_SERIAL = 999_999_999L;
+    private static final int[] NUBAN_WEIGHTS = {3, 7, 3, 3, 7, 3, 3, 7, 3, 3, 7, 3};
+    private static final String SEQUENCE = "account_number_block_seq";
+
+    private final LongSupplier nextBlock;
+    private final String bankCode;
+    private final AtomicReference<Block> current = new AtomicReference<>(Block.EXHAUSTED);
+    private final ReentrantLock refillLock = new ReentrantLock();
+
+    /**
+     * Creates the block sequence if it does not exist yet and leases blocks from it.
+     *
+     * @param jdbcTemplate Used to create and read the block sequence
+     * @param environment Source of {@code account.number.bank-code}
+     */
+    @Autowired
+    public AccountNumberAllocatorImpl(JdbcTemplate jdbcTemplate, Environment environment) {
+        this(sequenceBlocks(jdbcTemplate), environment.getProperty("account.number.bank-code", "000"));
+    }
+
+    /**
+     * @param nextBlock Source of block numbers; must never return the same block twice
+     * @param bankCode 3-digit CBN bank code used in the NUBAN check digit
+     */
+    AccountNumberAllocatorImpl(LongSupplier nextBlock, String bankCode) {
+        if (bankCode == null || !bankCode.matches("\\d{3}")) {
+            throw new IllegalArgumentException("Bank code must be 3 digits");
+        }
+        this.nextBlock = nextBlock;
+        this.bankCode = bankCode;
+    }
+
+    /**
+     * Creates the sequence with the first lease rather than at startup, so the context can be refreshed
+     * without a database, as the CDS training run does. Leases are serialized by the refill lock.
+     */
+    private static LongSupplier sequenceBlocks(JdbcTemplate jdbcTemplate) {
+        AtomicBoolean created = new AtomicBoolean();
+        return () -> {
+            if (!created.get()) {
+                jdbcTemplate.execute("create sequence if not exists " + SEQUENCE + " start with 1 increment by 1");
+                created.set(true);
+            }
+            return jdbcTemplate.queryForObject("select nextval('" + SEQUENCE + "')", Long.class);
+        };
+    }
+
+    @Override
+    public String allocate() {
+        while (true) {
+            Block block = current.get();
+            long serial = block.next.getAndIncrement();
+            if (serial < block.end) {
+                return format(serial);
+            }
+            refill(block);
+        }
+    }
+
+    /**
+     * Replaces an exhausted block. Only one thread leases a new block; threads that lose the race
+     * find the replacement already installed and go back to the lock-free path.
+     */
+    private void refill(Block exhausted) {
+        refillLock.lock();
+        try {
+            if (current.get() != exhausted) {
+                return;
+            }
+            long blockNumber = nextBlock.getAsLong();
+            long start = blockNumber * BLOCK_SIZE;
+            if (start + BLOCK_SIZE - 1 > MAX_SERIAL) {
+                throw new IllegalStateException("Account number space exhausted");
+            }
+            current.set(new Block(start, start + BLOCK_SIZE));
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    private String format(long serial) {
+        String serialDigits = String.format("%09d", serial);
+        return serialDigits + checkDigit(bankCode, serialDigits);
+    }
+
+    /**
+     * Computes the CBN NUBAN check digit for a bank code and 9-digit serial.
+     *
+     * @param bankCode 3-digit bank code
+     * @param serial 9-digit serial number
+     * @return The check digit, 0-9
+     */
+    static int checkDigit(String bankCode, String serial) {
+        String digits = bankCode + serial;
+        int sum = 0;
+        for (int i = 0; i < NUBAN_WEIGHTS.length; i++) {
+            sum += (digits.charAt(i) - '0') * NUBAN_WEIGHTS[i];
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    private static final class Block {
+        static final Block EXHAUSTED = new Block(0, 0);
+
+        final AtomicLong next;
+        final long end;
+
+        Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
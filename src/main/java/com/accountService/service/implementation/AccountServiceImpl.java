@@ -1,12 +1,26 @@
 package com.accountService.service.implementation;
 
 import com.accountService.service.interfaces.AccountService;
+import com.accountService.service.interfaces.FundsReservationService;
+import com.accountService.service.interfaces.AccountNumberAllocator;
+import com.accountService.service.interfaces.LedgerService;
+import com.accountService.service.interfaces.TransferIdempotencyService;
+import com.accountService.service.interfaces.TransferInProgressException;
+import com.accountService.service.interfaces.AsyncTransferService;
+import com.accountService.dto.response.TransferStatusResponse;
+import org.springframework.dao.DataIntegrityViolationException;
+import com.accountService.cache.AccountLookupCache;
+import com.accountService.datasource.ReplicaRouting;
+import com.accountService.cache.CustomerIdentity;
+import com.accountService.cache.CustomerLookupCache;
+import com.accountService.cache.CustomerUniquenessIndex;
 import com.accountService.model.repository.AccountRepository;
-import com.accountService.model.repository.CustomerRepository;
 import org.springframework.stereotype.Service;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import com.accountService.model.Customer;
 import com.accountService.model.Account;
+import com.accountService.model.projection.AccountBalanceView;
 import com.accountService.dto.response.OnBoardCustomerResponse;
 import com.accountService.dto.request.OnBoardCustomerRequest;
 import org.springframework.web.client.RestTemplate;
@@ -19,8 +33,8 @@ import com.accountService.dto.response.MakePaymentResponse;
 import com.accountService.dto.request.AuthLoginRequest;
 import com.accountService.dto.response.AuthLoginResponse;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
-import org.springframework.http.MediaType;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
 import com.accountService.dto.response.CustomerDashBoardResponse;
@@ -28,17 +42,43 @@ import java.math.BigDecimal;
 import org.springframework.web.client.RestClientException;
 import com.accountService.dto.request.BankTransferRequest;
 import com.accountService.dto.response.BankTransferResponse;
+import com.accountService.dto.response.PaymentHistoryPageResponse;
 import org.apache.commons.lang3.StringUtils;
+import com.accountService.client.Downstream;
+import com.accountService.client.DownstreamClients;
+import com.accountService.client.DownstreamFailures;
+import com.accountService.client.DownstreamUnavailableException;
+import com.accountService.client.PaymentHistoryCoalescer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AccountServiceImpl implements AccountService {
 
     private final AccountRepository accountRepository;
-    private final CustomerRepository customerRepository;
     private final Environment environment;
+    private final DownstreamClients downstreamClients;
+    private final PaymentHistoryCoalescer paymentHistoryCoalescer;
+    private final FundsReservationService fundsReservationService;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final CustomerLookupCache customerLookupCache;
+    private final AccountLookupCache accountLookupCache;
+    private final CustomerUniquenessIndex customerUniquenessIndex;
+    private final LedgerService ledgerService;
+    private final TransferIdempotencyService transferIdempotencyService;
+    private final AsyncTransferService asyncTransferService;
+    private final ReplicaRouting replicaRouting;
+    @Qualifier("dashboardExecutor")
+    private final Executor dashboardExecutor;
     
 
     /**
@@ -64,15 +104,29 @@ public class AccountServiceImpl implements AccountService {
                 .phoneNumber(request.getPhoneNumber())
                 .build();
         
-        Customer savedCustomer = customerRepository.save(customer);
-        
         Account account = Account.builder()
                 .accountNumber(generateAccountNumber())
-                .customer(savedCustomer)
+                .customer(customer)
                 .balance(BigDecimal.ZERO)
                 .build();
+
+        // Most onboardings use new values, which the index rules out without a query
+        customerUniquenessIndex.findTaken(customer).ifPresent(key -> {
+            throw new IllegalStateException("Customer with this " + key.label() + " already exists");
+        });
         
-        Account savedAccount = accountRepository.save(account);
+        // The customer is persisted through the account's cascade, so both rows are written in one transaction
+        Account savedAccount;
+        try {
+            savedAccount = accountRepository.save(account);
+        } catch (DataIntegrityViolationException e) {
+            // Onboarded concurrently, or by another instance since its index was last rebuilt
+            throw new IllegalStateException("Customer already exists");
+        }
+        customerUniquenessIndex.add(savedAccount.getCustomer());
+        replicaRouting.recordWrite(savedAccount.getCustomer().getId());
+        customerLookupCache.invalidate(savedAccount.getCustomer().getId());
+        accountLookupCache.invalidate(savedAccount.getAccountNumber());
         
         return OnBoardCustomerResponse.builder()
                 .accountNumber(savedAccount.getAccountNumber())
@@ -95,12 +149,18 @@ public class AccountServiceImpl implements AccountService {
     }
 
     /**
-     * Generates a unique 10-digit account number based on system timestamp.
-     * 
-     * @return String containing generated account number
+     * Allocates an account number that is not already in use.
+     * Allocator numbers never collide with each other; the existence check only guards against
+     * numbers issued before the allocator was introduced, which were derived from the system clock.
+     *
+     * @return String containing the allocated 10-digit account number
      */
     private String generateAccountNumber() {
-        return String.format("%010d", System.currentTimeMillis() % 10000000000L);
+        String accountNumber = accountNumberAllocator.allocate();
+        while (accountRepository.existsByAccountNumber(accountNumber)) {
+            accountNumber = accountNumberAllocator.allocate();
+        }
+        return accountNumber;
     }
 
     /**
@@ -111,14 +171,17 @@ public class AccountServiceImpl implements AccountService {
      */
     @Override
     public AuthLoginResponse authLogin(AuthLoginRequest request) {
-        RestTemplate restTemplate = new RestTemplate();
+        RestTemplate restTemplate = downstreamClients.restTemplate(Downstream.AUTH);
         String authUrl = environment.getProperty("api.auth.url", "https://auth-service/login");
-        return restTemplate.postForObject(authUrl, request, AuthLoginResponse.class);
+        return restTemplate.postForObject(authUrl, new HttpEntity<>(request, downstreamClients.headers(Downstream.AUTH)),
+            AuthLoginResponse.class);
     }
 
     /**
      * Retrieves payment transaction history for a specific customer.
-     * Makes authenticated call to payment service API.
+     * Makes authenticated call to payment service API. Used by the dashboard; the paged
+     * history endpoint is served from the local ledger instead. Concurrent requests for the same
+     * customer share one call, through the {@link PaymentHistoryCoalescer}.
      * 
      * @param customerId UUID of customer to get history for
      * @return List of MakePaymentResponse containing transaction details
@@ -126,12 +189,15 @@ public class AccountServiceImpl implements AccountService {
      */
     @Override
     public List<MakePaymentResponse> getPaymentHistory(UUID customerId) {
-        RestTemplate restTemplate = new RestTemplate();
+        return paymentHistoryCoalescer.fetch(customerId,
+            () -> fetchPaymentHistory(customerId, downstreamClients.restTemplate(Downstream.PAYMENT)));
+    }
+
+    private List<MakePaymentResponse> fetchPaymentHistory(UUID customerId, RestTemplate restTemplate) {
         String historyUrl = environment.getProperty("api.payment.history.url", 
             "https://payment-service/history/" + customerId);
         
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpHeaders headers = downstreamClients.headers(Downstream.PAYMENT);
         
         HttpEntity<?> entity = new HttpEntity<>(headers);
         
@@ -145,9 +211,14 @@ public class AccountServiceImpl implements AccountService {
         return response.getBody();
     }
 
+    @Override
+    public PaymentHistoryPageResponse getPaymentHistoryPage(UUID customerId, String cursor, int size) {
+        return ledgerService.getHistory(customerId, cursor, size);
+    }
+
     /**
      * Processes a payment request through external payment service.
-     * Validates customer existence before processing.
+     * Validates customer existence, through the lookup cache, before processing.
      * 
      * @param request Contains payment details including amount and customer ID
      * @return MakePaymentResponse with payment confirmation details
@@ -155,48 +226,137 @@ public class AccountServiceImpl implements AccountService {
      */
     @Override
     public MakePaymentResponse makePayment(MakePaymentRequest request) {
-        Customer customer = customerRepository.findById(request.getCustomerId())
+        replicaRouting.read(request.getCustomerId(), () -> customerLookupCache.find(request.getCustomerId()))
             .orElseThrow(() -> new RuntimeException("Customer not found"));
 
-        RestTemplate restTemplate = new RestTemplate();
+        RestTemplate restTemplate = downstreamClients.restTemplate(Downstream.PAYMENT);
         String paymentUrl = environment.getProperty("api.payment.url", "https://payment-service/process");
         
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpHeaders headers = downstreamClients.headers(Downstream.PAYMENT);
         
         HttpEntity<MakePaymentRequest> paymentRequest = new HttpEntity<>(request, headers);
         
-        return restTemplate.postForObject(paymentUrl, paymentRequest, MakePaymentResponse.class);
+        MakePaymentResponse response = restTemplate.postForObject(paymentUrl, paymentRequest, MakePaymentResponse.class);
+        ledgerService.recordPayment(request.getCustomerId(), response);
+        paymentHistoryCoalescer.invalidate(request.getCustomerId());
+        return response;
     }
     
     /**
      * Retrieves comprehensive dashboard information for a customer.
      * Includes personal details, account status, balance and transaction history.
+     * The payment-history call runs on the dashboard executor, capped at its time budget, while the
+     * customer and account lookups run on the calling thread, so a slow payment service cannot queue
+     * the database lookups behind it. If payment history fails, overruns its budget or cannot be
+     * scheduled, the dashboard is still returned with {@code transactionsUnavailable} set.
      * 
      * @param customerId UUID of customer to get dashboard for
      * @return CustomerDashBoardResponse containing all customer and account information
-     * @throws RuntimeException if customer not found
+     * @throws RuntimeException if customer or account not found
      */
     @Override
     public CustomerDashBoardResponse getCustomerDashBoard(UUID customerId) {
-        Customer customer = customerRepository.findById(customerId)
-            .orElseThrow(() -> new RuntimeException("Customer not found"));
-            
-        Account account = accountRepository.findByCustomerId(customerId)
-            .orElseThrow(() -> new RuntimeException("Account not found"));
-            
-        List<MakePaymentResponse> transactions = getPaymentHistory(customerId);
+        long transactionsTimeoutMs = environment.getProperty("dashboard.timeout.transactions", Long.class, 3000L);
+        RestTemplate historyClient = downstreamClients.restTemplate(Downstream.PAYMENT,
+            Duration.ofMillis(transactionsTimeoutMs));
+
+        CompletableFuture<List<MakePaymentResponse>> transactionsFuture;
+        try {
+            transactionsFuture = CompletableFuture
+                .supplyAsync(() -> paymentHistoryCoalescer.fetch(customerId,
+                    () -> fetchPaymentHistory(customerId, historyClient)), dashboardExecutor)
+                .orTimeout(transactionsTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            transactionsFuture = CompletableFuture.failedFuture(e);
+        }
+
+        CustomerIdentity customer;
+        AccountBalanceView account;
+        try {
+            customer = replicaRouting.read(customerId, () -> customerLookupCache.find(customerId))
+                .orElseThrow(() -> new RuntimeException("Customer not found"));
+            account = replicaRouting.read(customerId, () -> accountRepository.findBalanceByCustomerId(customerId))
+                .orElseThrow(() -> new RuntimeException("Account not found"));
+        } catch (RuntimeException e) {
+            transactionsFuture.cancel(false);
+            throw e;
+        }
+
+        List<MakePaymentResponse> transactions = transactionsFuture
+            .exceptionally(e -> {
+                log.debug("Dashboard for customer {} is without payment history: {}", customerId, e.toString());
+                return null;
+            })
+            .join();
         
         return CustomerDashBoardResponse.builder()
             .customerName(customer.getFirstName() + " " + customer.getLastName())
             .accountNumber(account.getAccountNumber())
             .balance(account.getBalance())
-            .transactions(transactions)
+            .transactions(transactions != null ? transactions : Collections.emptyList())
+            .transactionsUnavailable(transactions == null)
             .build();
     }
 
     @Override
     public BankTransferResponse bankTransfer(BankTransferRequest request) {
+        validateTransfer(request);
+
+        // A retried submission carries the same session id: answer it from the stored outcome
+        // instead of sending the transfer to the bank a second time
+        String sessionId = StringUtils.trimToNull(request.getSessionId());
+        if (sessionId != null) {
+            Optional<BankTransferResponse> previous = transferIdempotencyService.claim(request);
+            if (previous.isPresent()) {
+                return previous.get();
+            }
+        }
+        return executeTransfer(request, sessionId);
+    }
+
+    @Override
+    public TransferStatusResponse submitBankTransfer(BankTransferRequest request) {
+        validateTransfer(request);
+        try {
+            return asyncTransferService.submit(request);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent submission with the same session id was accepted first
+            throw new TransferInProgressException(request.getSessionId());
+        } finally {
+            replicaRouting.recordWrite(request.getCustomerId());
+        }
+    }
+
+    @Override
+    public TransferStatusResponse getBankTransferStatus(UUID reference) {
+        return asyncTransferService.getStatus(reference);
+    }
+
+    /**
+     * Checks that a transfer request is complete and that its customer and source account exist.
+     *
+     * @param request The transfer request to validate
+     * @throws IllegalArgumentException if a required field is missing or the amount is not positive
+     * @throws RuntimeException if the customer or source account is not found
+     */
+    private void validateTransfer(BankTransferRequest request) {
+        checkTransferFields(request);
+
+        // Validate customer and source account exist; identity lookups are cached, balances never are
+        UUID customerId = request.getCustomerId();
+        replicaRouting.read(customerId, () -> customerLookupCache.find(customerId))
+            .orElseThrow(() -> new RuntimeException("Customer not found"));
+        replicaRouting.read(customerId, () -> accountLookupCache.find(request.getSourceAccountNumber()))
+            .orElseThrow(() -> new RuntimeException("Source account not found"));
+    }
+
+    /**
+     * Checks that a transfer request is complete, without looking anything up.
+     *
+     * @param request The transfer request to check
+     * @throws IllegalArgumentException if a required field is missing or the amount is not positive
+     */
+    static void checkTransferFields(BankTransferRequest request) {
         // Validate request is not null
         if (request == null) {
             throw new IllegalArgumentException("Transfer request cannot be null");
@@ -221,25 +381,51 @@ public class AccountServiceImpl implements AccountService {
         if (StringUtils.isBlank(request.getTransactionPin())) {
             throw new IllegalArgumentException("Transaction PIN is required");
         }
+    }
 
-        // Validate customer exists
-         customerRepository.findById(request.getCustomerId())
-            .orElseThrow(() -> new RuntimeException("Customer not found"));
-
-        // Validate source account exists and has sufficient funds
-        Account sourceAccount = accountRepository.findByAccountNumber(request.getSourceAccountNumber())
-            .orElseThrow(() -> new RuntimeException("Source account not found"));
-
-        if (sourceAccount.getBalance().compareTo(request.getAmount()) < 0) {
-            throw new RuntimeException("Insufficient funds for transfer");
+    /**
+     * Holds the funds, sends the transfer to the bank service and settles the hold according to the outcome.
+     * If the call fails the hold is only released when the transfer provably did not happen: it was never
+     * sent, or the bank refused it. Otherwise, such as after a read timeout, the bank may have moved the
+     * money, so the hold is marked UNKNOWN and the funds stay debited until it is reconciled or expires.
+     * The session's claim, if any, follows the hold: completed once the bank answers (before the ledger
+     * is written, so a ledger failure cannot free the session for a second transfer), given up only when
+     * the hold is released, and otherwise kept as UNKNOWN so retries are refused.
+     *
+     * @param request A validated transfer request
+     * @param sessionId The claimed session id, or null if the request has none
+     * @return Response returned by the bank service
+     * @throws RuntimeException if the funds cannot be held or the bank service call fails
+     */
+    private BankTransferResponse executeTransfer(BankTransferRequest request, String sessionId) {
+        // Hold the funds up front: a single conditional debit that fails if the source account
+        // is missing or cannot cover the amount, so concurrent transfers cannot overdraw it
+        UUID holdId;
+        try {
+            holdId = fundsReservationService.reserve(request.getSourceAccountNumber(), request.getAmount());
+        } catch (RuntimeException e) {
+            if (sessionId != null) {
+                transferIdempotencyService.abandon(request.getCustomerId(), sessionId);
+            }
+            throw e;
+        }
+        // Link the claim to its hold before anything is sent, so an abandoned claim can be reconciled
+        if (sessionId != null) {
+            try {
+                transferIdempotencyService.attachHold(request.getCustomerId(), sessionId, holdId);
+            } catch (RuntimeException e) {
+                fundsReservationService.release(holdId);
+                transferIdempotencyService.abandon(request.getCustomerId(), sessionId);
+                throw e;
+            }
         }
+        boolean settled = false;
 
         try {
-            RestTemplate restTemplate = new RestTemplate();
+            RestTemplate restTemplate = downstreamClients.restTemplate(Downstream.BANK);
             String transferUrl = environment.getProperty("api.bank.transfer.url", "https://bank-service/bank-transfer");
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
+            HttpHeaders headers = downstreamClients.headers(Downstream.BANK);
             
             HttpEntity<BankTransferRequest> transferRequest = new HttpEntity<>(request, headers);
             
@@ -253,18 +439,61 @@ public class AccountServiceImpl implements AccountService {
                 throw new RuntimeException("No response received from transfer service");
             }
 
-            // Update account balance if transfer was successful
+            // Keep the debit if the transfer was successful; release it if the bank reports a failure
             if ("SUCCESS".equalsIgnoreCase(response.getStatus())) {
-                sourceAccount.setBalance(sourceAccount.getBalance().subtract(request.getAmount()));
-                accountRepository.save(sourceAccount);
+                fundsReservationService.commit(holdId);
+            } else {
+                fundsReservationService.release(holdId);
             }
+            settled = true;
+            if (sessionId != null) {
+                transferIdempotencyService.complete(request.getCustomerId(), sessionId, response);
+            }
+            ledgerService.recordTransfer(request, response);
 
             return response;
 
-        } catch (RestClientException e) {
-            throw new RuntimeException("Failed to process bank transfer: " + e.getMessage());
-        } catch (Exception e) {
-            throw new RuntimeException("Unexpected error during bank transfer: " + e.getMessage());
+        } catch (RuntimeException e) {
+            if (!settled) {
+                settleFailedTransfer(request, sessionId, holdId, e);
+            }
+            if (e instanceof DownstreamUnavailableException) {
+                throw e;
+            }
+            if (e instanceof RestClientException) {
+                throw new RuntimeException("Failed to process bank transfer: " + e.getMessage(), e);
+            }
+            throw new RuntimeException("Unexpected error during bank transfer: " + e.getMessage(), e);
+        } finally {
+            replicaRouting.recordWrite(request.getCustomerId());
+            accountLookupCache.invalidate(request.getSourceAccountNumber());
+        }
+    }
+
+    /**
+     * Settles the hold and claim of a transfer whose bank call failed: released if the transfer provably
+     * did not happen, otherwise kept as UNKNOWN for reconciliation.
+     *
+     * @param request The failed transfer
+     * @param sessionId The claimed session id, or null if the request has none
+     * @param holdId The transfer's hold
+     * @param failure Why the bank call failed
+     */
+    private void settleFailedTransfer(BankTransferRequest request, String sessionId, UUID holdId,
+                                      RuntimeException failure) {
+        if (DownstreamFailures.neverSent(failure) || DownstreamFailures.rejected(failure)) {
+            fundsReservationService.release(holdId);
+            if (sessionId != null) {
+                transferIdempotencyService.abandon(request.getCustomerId(), sessionId);
+            }
+            return;
+        }
+        if (sessionId != null) {
+            transferIdempotencyService.markUnknown(request.getCustomerId(), sessionId);
+        }
+        if (fundsReservationService.markUnknown(holdId)) {
+            log.warn("Outcome of the transfer under hold {} is unknown; its funds stay held until reconciled: {}",
+                holdId, failure.getMessage());
         }
     }
 
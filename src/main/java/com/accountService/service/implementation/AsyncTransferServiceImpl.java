@@ -0,0 +1,362 @@
+package com.accountService.service.implementation;
+
+import com.accountService.client.Downstream;
+import com.accountService.client.DownstreamClients;
+import com.accountService.client.DownstreamFailures;
+import com.accountService.datasource.ReplicaRouting;
+import com.accountService.dto.request.BankTransferRequest;
+import com.accountService.dto.response.BankTransferResponse;
+import com.accountService.dto.response.TransferStatusResponse;
+import com.accountService.model.BankTransfer;
+import com.accountService.model.TransferOutboxMessage;
+import com.accountService.model.TransferStatus;
+import com.accountService.model.repository.BankTransferRepository;
+import com.accountService.model.repository.TransferOutboxRepository;
+import com.accountService.security.TransferPinCipher;
+import com.accountService.service.interfaces.AsyncTransferService;
+import com.accountService.service.interfaces.FundsReservationService;
+import com.accountService.service.interfaces.IdempotencyKeyReusedException;
+import com.accountService.service.interfaces.LedgerService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Processes bank transfers through a transactional outbox, so an API request never waits on the
+ * bank service. Submission holds the funds and records the transfer and its outbox message together;
+ * a scheduled dispatcher then drains the outbox in batches on the transfer dispatch executor.
+ * <p>
+ * A batch is claimed with {@code SELECT ... FOR UPDATE SKIP LOCKED} and leased by pushing its next
+ * attempt past {@code transfer.async.lease}, then the claiming transaction commits before any HTTP
+ * call is made, so no connection or row lock is held while the bank responds. Transient failures
+ * (5xx, I/O errors, an open circuit, 408, 409, 425 and 429) are retried with capped exponential backoff
+ * and jitter; a refusal (any other 4xx) or a non-success response fails the transfer and releases the
+ * hold. A transfer that runs out of attempts may still have reached the bank, so it and its hold become
+ * UNKNOWN until reconciled. Every delivery carries a session id, so the bank can discard a redelivery
+ * after a lost response. The transaction PIN is kept in the outbox only in encrypted form.
+ */
+@Slf4j
+@Service
+public class AsyncTransferServiceImpl implements AsyncTransferService {
+
+    private final BankTransferRepository bankTransferRepository;
+    private final TransferOutboxRepository transferOutboxRepository;
+    private final FundsReservationService fundsReservationService;
+    private final LedgerService ledgerService;
+    private final DownstreamClients downstreamClients;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor transferDispatchExecutor;
+    private final ObjectMapper objectMapper;
+    private final ReplicaRouting replicaRouting;
+    private final TransferPinCipher transferPinCipher;
+    private final String transferUrl;
+    private final int batchSize;
+    private final long leaseMs;
+    private final int maxAttempts;
+    private final long backoffInitialMs;
+    private final long backoffMaxMs;
+
+    public AsyncTransferServiceImpl(BankTransferRepository bankTransferRepository,
+                                    TransferOutboxRepository transferOutboxRepository,
+                                    FundsReservationService fundsReservationService,
+                                    LedgerService ledgerService,
+                                    DownstreamClients downstreamClients,
+                                    TransactionTemplate transactionTemplate,
+                                    @Qualifier("transferDispatchExecutor") Executor transferDispatchExecutor,
+                                    ObjectMapper objectMapper,
+                                    ReplicaRouting replicaRouting,
+                                    TransferPinCipher transferPinCipher,
+                                    Environment environment) {
+        this.bankTransferRepository = bankTransferRepository;
+        this.transferOutboxRepository = transferOutboxRepository;
+        this.fundsReservationService = fundsReservationService;
+        this.ledgerService = ledgerService;
+        this.downstreamClients = downstreamClients;
+        this.transactionTemplate = transactionTemplate;
+        this.transferDispatchExecutor = transferDispatchExecutor;
+        this.objectMapper = objectMapper;
+        this.replicaRouting = replicaRouting;
+        this.transferPinCipher = transferPinCipher;
+        this.transferUrl = environment.getProperty("api.bank.transfer.url", "https://bank-service/bank-transfer");
+        this.batchSize = environment.getProperty("transfer.async.batch-size", Integer.class, 50);
+        this.leaseMs = environment.getProperty("transfer.async.lease", Long.class, 60000L);
+        this.maxAttempts = environment.getProperty("transfer.async.max-attempts", Integer.class, 8);
+        this.backoffInitialMs = environment.getProperty("transfer.async.backoff-initial", Long.class, 1000L);
+        this.backoffMaxMs = environment.getProperty("transfer.async.backoff-max", Long.class, 300000L);
+    }
+
+    @Override
+    @Transactional
+    public TransferStatusResponse submit(BankTransferRequest request) {
+        String sessionId = StringUtils.trimToNull(request.getSessionId());
+        String fingerprint = TransferIdempotencyServiceImpl.fingerprint(request);
+        if (sessionId != null) {
+            Optional<BankTransfer> existing = bankTransferRepository.findByCustomerIdAndSessionId(
+                request.getCustomerId(), sessionId);
+            if (existing.isPresent()) {
+                // As on the synchronous path; transfers accepted before fingerprints were stored match any request
+                String accepted = existing.get().getFingerprint();
+                if (accepted != null && !accepted.equals(fingerprint)) {
+                    throw new IdempotencyKeyReusedException(sessionId);
+                }
+                return toResponse(existing.get());
+            }
+        }
+
+        UUID holdId = fundsReservationService.reserve(request.getSourceAccountNumber(), request.getAmount());
+        BankTransfer transfer = bankTransferRepository.saveAndFlush(BankTransfer.builder()
+            .customerId(request.getCustomerId())
+            .sessionId(sessionId)
+            .fingerprint(fingerprint)
+            .sourceAccountNumber(request.getSourceAccountNumber())
+            .destinationAccountNumber(request.getDestinationAccountNumber())
+            .destinationBankCode(request.getDestinationBankCode())
+            .amount(request.getAmount())
+            .holdId(holdId)
+            .status(TransferStatus.PENDING)
+            .build());
+
+        BankTransferRequest outbound = BankTransferRequest.builder()
+            .customerId(request.getCustomerId())
+            .sourceAccountNumber(request.getSourceAccountNumber())
+            .destinationAccountNumber(request.getDestinationAccountNumber())
+            .destinationBankCode(request.getDestinationBankCode())
+            .amount(request.getAmount())
+            .narration(request.getNarration())
+            .destinationAccountName(request.getDestinationAccountName())
+            .sessionId(sessionId != null ? sessionId : transfer.getId().toString())
+            .build();
+        transferOutboxRepository.save(TransferOutboxMessage.builder()
+            .transferId(transfer.getId())
+            .payload(writePayload(outbound))
+            .encryptedPin(transferPinCipher.encrypt(request.getTransactionPin()))
+            .nextAttemptAt(LocalDateTime.now())
+            .build());
+
+        return toResponse(transfer);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TransferStatusResponse getStatus(UUID reference) {
+        return bankTransferRepository.findById(reference)
+            .map(AsyncTransferServiceImpl::toResponse)
+            .orElseThrow(() -> new RuntimeException("Transfer not found"));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${transfer.async.dispatch-interval:500}")
+    public int dispatchDue() {
+        List<TransferOutboxMessage> batch = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<TransferOutboxMessage> due = transferOutboxRepository.lockDue(now, Limit.of(batchSize));
+            LocalDateTime leaseExpiry = now.plus(leaseMs, ChronoUnit.MILLIS);
+            due.forEach(message -> message.setNextAttemptAt(leaseExpiry));
+            return due;
+        });
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        CompletableFuture.allOf(batch.stream()
+                .map(message -> CompletableFuture.runAsync(() -> deliver(message), transferDispatchExecutor))
+                .toArray(CompletableFuture[]::new))
+            .exceptionally(e -> {
+                log.error("Transfer dispatch batch failed", e);
+                return null;
+            })
+            .join();
+        return batch.size();
+    }
+
+    /**
+     * Sends one outbox message to the bank service and settles or reschedules it. Nothing escapes:
+     * a failure outside the bank call, such as a settlement transaction that cannot commit, uses up
+     * an attempt like a failed call would, so the message cannot stay leased and redelivered forever.
+     *
+     * @param message A leased outbox message
+     */
+    private void deliver(TransferOutboxMessage message) {
+        try {
+            attemptDelivery(message);
+        } catch (RuntimeException e) {
+            log.error("Delivery of transfer {} failed", message.getTransferId(), e);
+            try {
+                retryLater(message, e.getMessage());
+            } catch (RuntimeException retryFailure) {
+                log.error("Could not reschedule transfer {}; it is redelivered once its lease expires",
+                    message.getTransferId(), retryFailure);
+            }
+        }
+    }
+
+    private void attemptDelivery(TransferOutboxMessage message) {
+        BankTransferRequest request;
+        try {
+            request = readPayload(message.getPayload());
+            if (message.getEncryptedPin() != null) {
+                request.setTransactionPin(transferPinCipher.decrypt(message.getEncryptedPin()));
+            }
+        } catch (RuntimeException e) {
+            // No later attempt can read it either, and an earlier attempt may already have reached the bank
+            log.error("Stored request of transfer {} cannot be read", message.getTransferId(), e);
+            markUnknown(message, "Stored transfer request cannot be read: " + e.getMessage());
+            return;
+        }
+        BankTransferResponse response;
+        try {
+            response = downstreamClients.restTemplate(Downstream.BANK).postForObject(transferUrl,
+                new HttpEntity<>(request, downstreamClients.headers(Downstream.BANK)), BankTransferResponse.class);
+        } catch (RuntimeException e) {
+            if (DownstreamFailures.rejected(e)) {
+                // The bank refused the request itself, so it was not acted on and sending it again cannot succeed
+                settle(message, null, "Transfer rejected by bank service: " + e.getMessage());
+            } else {
+                retryLater(message, e.getMessage());
+            }
+            return;
+        }
+
+        if (response == null) {
+            retryLater(message, "No response received from transfer service");
+            return;
+        }
+        if (settle(message, response, response.getMessage())) {
+            ledgerService.recordTransfer(request, response);
+        }
+    }
+
+    /**
+     * Records the outcome of a transfer, commits or releases its hold and removes its outbox message,
+     * all in one transaction.
+     *
+     * @param message The delivered outbox message
+     * @param response Bank response, or null if the transfer failed without one
+     * @param detail Message to store with the outcome
+     * @return true if this call settled the transfer, false if it had already been settled
+     */
+    private boolean settle(TransferOutboxMessage message, BankTransferResponse response, String detail) {
+        Boolean settled = transactionTemplate.execute(status -> {
+            transferOutboxRepository.deleteById(message.getId());
+            BankTransfer transfer = bankTransferRepository.findForUpdate(message.getTransferId()).orElse(null);
+            if (transfer == null || transfer.getStatus() != TransferStatus.PENDING) {
+                return false;
+            }
+            boolean success = response != null && "SUCCESS".equalsIgnoreCase(response.getStatus());
+            if (success) {
+                fundsReservationService.commit(transfer.getHoldId());
+            } else {
+                fundsReservationService.release(transfer.getHoldId());
+            }
+            transfer.setStatus(success ? TransferStatus.SUCCESS : TransferStatus.FAILED);
+            transfer.setTransactionReference(response != null ? response.getTransactionReference() : null);
+            transfer.setMessage(StringUtils.abbreviate(detail, 1000));
+            transfer.setUpdatedAt(LocalDateTime.now());
+            replicaRouting.recordWrite(transfer.getCustomerId());
+            return true;
+        });
+        return Boolean.TRUE.equals(settled);
+    }
+
+    /**
+     * Gives up delivering a transfer that may have reached the bank: the transfer and its hold are
+     * marked UNKNOWN, keeping the funds debited until the hold is reconciled, and the message removed.
+     *
+     * @param message The outbox message that could not be delivered
+     * @param detail Message to store with the outcome
+     */
+    private void markUnknown(TransferOutboxMessage message, String detail) {
+        transactionTemplate.executeWithoutResult(status -> {
+            transferOutboxRepository.deleteById(message.getId());
+            BankTransfer transfer = bankTransferRepository.findForUpdate(message.getTransferId()).orElse(null);
+            if (transfer == null || transfer.getStatus() != TransferStatus.PENDING) {
+                return;
+            }
+            fundsReservationService.markUnknown(transfer.getHoldId());
+            transfer.setStatus(TransferStatus.UNKNOWN);
+            transfer.setMessage(StringUtils.abbreviate(detail, 1000));
+            transfer.setUpdatedAt(LocalDateTime.now());
+            replicaRouting.recordWrite(transfer.getCustomerId());
+            log.warn("Outcome of transfer {} is unknown; its hold {} awaits reconciliation: {}",
+                transfer.getId(), transfer.getHoldId(), detail);
+        });
+    }
+
+    /**
+     * Schedules another delivery attempt after an exponential backoff with jitter,
+     * or gives up on the transfer as of unknown outcome once it has used up its attempts.
+     *
+     * @param message The outbox message that could not be delivered
+     * @param error Description of the failure
+     */
+    private void retryLater(TransferOutboxMessage message, String error) {
+        int attempts = message.getAttempts() + 1;
+        if (attempts >= maxAttempts) {
+            markUnknown(message, "Transfer outcome unknown after " + attempts + " attempts: " + error);
+            return;
+        }
+        long backoffMs = Math.min(backoffMaxMs, backoffInitialMs << Math.min(attempts - 1, 20));
+        long delayMs = backoffMs / 2 + ThreadLocalRandom.current().nextLong(backoffMs / 2 + 1);
+
+        transactionTemplate.executeWithoutResult(status ->
+            transferOutboxRepository.findById(message.getId()).ifPresent(pending -> {
+                pending.setAttempts(attempts);
+                pending.setNextAttemptAt(LocalDateTime.now().plus(delayMs, ChronoUnit.MILLIS));
+                pending.setLastError(StringUtils.abbreviate(error, 1000));
+            }));
+    }
+
+    @Override
+    public void holdResolved(UUID holdId, boolean transferred) {
+        bankTransferRepository.resolveUnknown(holdId, transferred ? TransferStatus.SUCCESS : TransferStatus.FAILED,
+            LocalDateTime.now());
+    }
+
+    private String writePayload(BankTransferRequest request) {
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to store transfer request", e);
+        }
+    }
+
+    private BankTransferRequest readPayload(String payload) {
+        try {
+            return objectMapper.readValue(payload, BankTransferRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read stored transfer request", e);
+        }
+    }
+
+    private static TransferStatusResponse toResponse(BankTransfer transfer) {
+        return TransferStatusResponse.builder()
+            .reference(transfer.getId())
+            .status(transfer.getStatus().name())
+            .transactionReference(transfer.getTransactionReference())
+            .message(transfer.getMessage())
+            .amount(transfer.getAmount())
+            .sourceAccount(transfer.getSourceAccountNumber())
+            .destinationAccount(transfer.getDestinationAccountNumber())
+            .createdAt(transfer.getCreatedAt())
+            .updatedAt(transfer.getUpdatedAt())
+            .build();
+    }
+}
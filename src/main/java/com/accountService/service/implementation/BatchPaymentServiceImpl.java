@@ -0,0 +1,245 @@
+package com.accountService.service.implementation;
+
+import com.accountService.client.Downstream;
+import com.accountService.client.DownstreamClients;
+import com.accountService.client.PaymentHistoryCoalescer;
+import com.accountService.dto.request.MakePaymentRequest;
+import com.accountService.dto.response.BatchPaymentResult;
+import com.accountService.dto.response.MakePaymentResponse;
+import com.accountService.model.repository.CustomerRepository;
+import com.accountService.service.interfaces.BatchPaymentService;
+import com.accountService.service.interfaces.LedgerService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+
+/**
+ * Processes batches of payments, such as payroll runs, without one API call per payment.
+ * The batch's customers are checked with one {@code IN} query per thousand distinct ids, then the
+ * payments are sent to the payment service on the payment batch executor, keeping up to
+ * {@code payment.batch.max-in-flight} calls of each batch in flight over the pooled keep-alive connections.
+ * When {@code api.payment.batch.url} is set, payments are instead sent to the payment service's batch
+ * API in groups of {@code payment.batch.downstream-batch-size}.
+ * <p>
+ * Each result is written as soon as its call completes, so the client can follow progress; a
+ * payment that fails, or whose customer is unknown, is reported in its result and does not stop the batch.
+ * Each completed payment drops its customer's kept payment history, as a single payment does.
+ */
+@Service
+public class BatchPaymentServiceImpl implements BatchPaymentService {
+
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final CustomerRepository customerRepository;
+    private final LedgerService ledgerService;
+    private final DownstreamClients downstreamClients;
+    private final PaymentHistoryCoalescer paymentHistoryCoalescer;
+    private final Executor paymentBatchExecutor;
+    private final ObjectWriter resultWriter;
+    private final String paymentUrl;
+    private final String batchUrl;
+    private final int maxBatchSize;
+    private final int maxInFlight;
+    private final int downstreamBatchSize;
+
+    public BatchPaymentServiceImpl(CustomerRepository customerRepository,
+                                   LedgerService ledgerService,
+                                   DownstreamClients downstreamClients,
+                                   PaymentHistoryCoalescer paymentHistoryCoalescer,
+                                   @Qualifier("paymentBatchExecutor") Executor paymentBatchExecutor,
+                                   ObjectMapper objectMapper,
+                                   Environment environment) {
+        this.customerRepository = customerRepository;
+        this.ledgerService = ledgerService;
+        this.downstreamClients = downstreamClients;
+        this.paymentHistoryCoalescer = paymentHistoryCoalescer;
+        this.paymentBatchExecutor = paymentBatchExecutor;
+        this.resultWriter = objectMapper.writerFor(BatchPaymentResult.class);
+        this.paymentUrl = environment.getProperty("api.payment.url", "https://payment-service/process");
+        this.batchUrl = StringUtils.trimToNull(environment.getProperty("api.payment.batch.url"));
+        this.maxBatchSize = environment.getProperty("payment.batch.max-size", Integer.class, 10000);
+        this.maxInFlight = environment.getProperty("payment.batch.max-in-flight", Integer.class, 16);
+        this.downstreamBatchSize = environment.getProperty("payment.batch.downstream-batch-size", Integer.class, 100);
+    }
+
+    @Override
+    public void validate(List<MakePaymentRequest> payments) {
+        if (payments == null || payments.isEmpty()) {
+            throw new IllegalArgumentException("At least one payment is required");
+        }
+        if (payments.size() > maxBatchSize) {
+            throw new IllegalArgumentException("A batch may contain at most " + maxBatchSize + " payments");
+        }
+    }
+
+    @Override
+    public void process(List<MakePaymentRequest> payments, OutputStream results) throws IOException {
+        validate(payments);
+
+        Set<UUID> knownCustomers = findExistingCustomers(payments);
+        int groupSize = batchUrl != null ? downstreamBatchSize : 1;
+        CompletionService<List<BatchPaymentResult>> completion = new ExecutorCompletionService<>(paymentBatchExecutor);
+        int inFlight = 0;
+        List<Item> group = new ArrayList<>(groupSize);
+
+        for (int index = 0; index < payments.size(); index++) {
+            MakePaymentRequest payment = payments.get(index);
+            UUID customerId = payment != null ? payment.getCustomerId() : null;
+            if (customerId == null) {
+                write(results, failed(index, null, "Customer ID is required"));
+                continue;
+            }
+            if (!knownCustomers.contains(customerId)) {
+                write(results, failed(index, customerId, "Customer not found"));
+                continue;
+            }
+            group.add(new Item(index, payment));
+            if (group.size() == groupSize) {
+                if (inFlight == maxInFlight) {
+                    writeAll(results, next(completion));
+                    inFlight--;
+                }
+                List<Item> submitted = group;
+                completion.submit(() -> send(submitted));
+                inFlight++;
+                group = new ArrayList<>(groupSize);
+            }
+        }
+        if (!group.isEmpty()) {
+            List<Item> submitted = group;
+            completion.submit(() -> send(submitted));
+            inFlight++;
+        }
+        for (; inFlight > 0; inFlight--) {
+            writeAll(results, next(completion));
+        }
+    }
+
+    /**
+     * Looks up which of the batch's customers exist, querying each distinct id once.
+     */
+    private Set<UUID> findExistingCustomers(List<MakePaymentRequest> payments) {
+        List<UUID> ids = payments.stream()
+                .filter(Objects::nonNull)
+                .map(MakePaymentRequest::getCustomerId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Set<UUID> existing = new HashSet<>();
+        for (int from = 0; from < ids.size(); from += LOOKUP_CHUNK_SIZE) {
+            existing.addAll(customerRepository.findExistingIds(
+                    ids.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, ids.size()))));
+        }
+        return existing;
+    }
+
+    private List<BatchPaymentResult> send(List<Item> items) {
+        return batchUrl != null ? sendGroup(items) : List.of(sendOne(items.get(0)));
+    }
+
+    private BatchPaymentResult sendOne(Item item) {
+        UUID customerId = item.payment().getCustomerId();
+        try {
+            MakePaymentResponse response = downstreamClients.restTemplate(Downstream.PAYMENT)
+                    .postForObject(paymentUrl, new HttpEntity<>(item.payment(), downstreamClients.headers(Downstream.PAYMENT)), MakePaymentResponse.class);
+            if (response == null) {
+                return failed(item.index(), customerId, "No response received from payment service");
+            }
+            ledgerService.recordPayment(customerId, response);
+            paymentHistoryCoalescer.invalidate(customerId);
+            return succeeded(item.index(), customerId, response);
+        } catch (RuntimeException e) {
+            return failed(item.index(), customerId, e.getMessage());
+        }
+    }
+
+    /**
+     * Sends a group of payments in one call to the payment service's batch API, which answers
+     * with one response per payment, in order.
+     */
+    private List<BatchPaymentResult> sendGroup(List<Item> items) {
+        List<BatchPaymentResult> results = new ArrayList<>(items.size());
+        List<MakePaymentResponse> responses;
+        try {
+            responses = downstreamClients.restTemplate(Downstream.PAYMENT).exchange(
+                    batchUrl,
+                    HttpMethod.POST,
+                    new HttpEntity<>(items.stream().map(Item::payment).toList(), downstreamClients.headers(Downstream.PAYMENT)),
+                    new ParameterizedTypeReference<List<MakePaymentResponse>>() {}
+            ).getBody();
+        } catch (RuntimeException e) {
+            items.forEach(item -> results.add(failed(item.index(), item.payment().getCustomerId(), e.getMessage())));
+            return results;
+        }
+        if (responses == null || responses.size() != items.size()) {
+            String error = "Payment service returned " + (responses == null ? 0 : responses.size())
+                    + " results for " + items.size() + " payments";
+            items.forEach(item -> results.add(failed(item.index(), item.payment().getCustomerId(), error)));
+            return results;
+        }
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            UUID customerId = item.payment().getCustomerId();
+            ledgerService.recordPayment(customerId, responses.get(i));
+            paymentHistoryCoalescer.invalidate(customerId);
+            results.add(succeeded(item.index(), customerId, responses.get(i)));
+        }
+        return results;
+    }
+
+    private static List<BatchPaymentResult> next(CompletionService<List<BatchPaymentResult>> completion)
+            throws IOException {
+        try {
+            return completion.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for payment results");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Payment batch task failed", e.getCause());
+        }
+    }
+
+    private void writeAll(OutputStream out, List<BatchPaymentResult> results) throws IOException {
+        for (BatchPaymentResult result : results) {
+            out.write(resultWriter.writeValueAsBytes(result));
+            out.write(NEWLINE);
+        }
+        out.flush();
+    }
+
+    private void write(OutputStream out, BatchPaymentResult result) throws IOException {
+        writeAll(out, List.of(result));
+    }
+
+    private static BatchPaymentResult succeeded(int index, UUID customerId, MakePaymentResponse response) {
+        return BatchPaymentResult.builder().index(index).customerId(customerId).payment(response).build();
+    }
+
+    private static BatchPaymentResult failed(int index, UUID customerId, String error) {
+        return BatchPaymentResult.builder().index(index).customerId(customerId).error(error).build();
+    }
+
+    private record Item(int index, MakePaymentRequest payment) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.accountService.service.implementation;
+
+import com.accountService.dto.response.BulkOnboardingJobResponse;
+import com.accountService.dto.response.BulkOnboardingRowFailure;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one bulk onboarding job. Written by the worker processing the file and read
+ * concurrently by status requests, so every counter is atomic.
+ * Only the first {@code maxRecordedFailures} row failures are kept; the failed count is always exact.
+ */
+class BulkOnboardingJob {
+
+    enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private final UUID id = UUID.randomUUID();
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+    private final int maxRecordedFailures;
+    private final AtomicLong processedRows = new AtomicLong();
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicInteger recordedFailures = new AtomicInteger();
+    private final ConcurrentLinkedQueue<BulkOnboardingRowFailure> failures = new ConcurrentLinkedQueue<>();
+    private volatile Status status = Status.QUEUED;
+    private volatile String message;
+    private volatile LocalDateTime completedAt;
+
+    BulkOnboardingJob(int maxRecordedFailures) {
+        this.maxRecordedFailures = maxRecordedFailures;
+    }
+
+    UUID getId() {
+        return id;
+    }
+
+    void start() {
+        status = Status.RUNNING;
+    }
+
+    void rowsSucceeded(int rows) {
+        succeeded.addAndGet(rows);
+        processedRows.addAndGet(rows);
+    }
+
+    void rowFailed(long row, String email, String reason) {
+        failed.incrementAndGet();
+        processedRows.incrementAndGet();
+        if (recordedFailures.incrementAndGet() <= maxRecordedFailures) {
+            failures.add(BulkOnboardingRowFailure.builder().row(row).email(email).reason(reason).build());
+        }
+    }
+
+    void complete() {
+        finish(Status.COMPLETED, null);
+    }
+
+    void abort(String reason) {
+        finish(Status.FAILED, reason);
+    }
+
+    private void finish(Status finalStatus, String reason) {
+        message = reason;
+        completedAt = LocalDateTime.now();
+        status = finalStatus;
+    }
+
+    BulkOnboardingJobResponse toResponse() {
+        List<BulkOnboardingRowFailure> snapshot = new ArrayList<>(failures);
+        return BulkOnboardingJobResponse.builder()
+                .jobId(id)
+                .status(status.name())
+                .processedRows(processedRows.get())
+                .succeeded(succeeded.get())
+                .failed(failed.get())
+                .failures(snapshot)
+                .message(message)
+                .submittedAt(submittedAt)
+                .completedAt(completedAt)
+                .build();
+    }
+}
@@ -0,0 +1,466 @@
+package com.accountService.service.implementation;
+
+import com.accountService.cache.AccountLookupCache;
+import com.accountService.cache.CustomerKey;
+import com.accountService.cache.CustomerUniquenessIndex;
+import com.accountService.dto.request.OnBoardCustomerRequest;
+import com.accountService.dto.response.BulkOnboardingJobResponse;
+import com.accountService.model.Account;
+import com.accountService.model.Customer;
+import com.accountService.model.repository.AccountRepository;
+import com.accountService.model.repository.CustomerRepository;
+import com.accountService.service.interfaces.AccountNumberAllocator;
+import com.accountService.service.interfaces.BulkOnboardingService;
+import com.accountService.service.interfaces.UploadTooLargeException;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * Onboards customers from NDJSON or CSV files in the background.
+ * Records are streamed from a spooled copy of the upload and written in chunks of
+ * {@code onboarding.bulk.chunk-size}: each chunk is validated with one {@code IN} query per unique
+ * column and inserted in a single transaction, so Hibernate can send it as JDBC batches.
+ * Rows that cannot be parsed or fail validation are reported and skipped; if a chunk still fails on insert,
+ * for example because a concurrent request took the same email, that chunk is retried row by row so only the
+ * offending rows are rejected. Uploads larger than {@code onboarding.bulk.max-upload-bytes} are refused.
+ * <p>
+ * Jobs are tracked in memory on the instance that accepted the upload, for
+ * {@code onboarding.bulk.job-retention}. They are not shared: another instance reports the job as not found,
+ * and a restart loses the job along with its unprocessed rows, while the rows already inserted stay onboarded.
+ */
+@Service
+public class BulkOnboardingServiceImpl implements BulkOnboardingService {
+
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final OnBoardCustomerRequest MALFORMED = new OnBoardCustomerRequest();
+
+    private static final Map<CustomerKey, Function<OnBoardCustomerRequest, String>> UNIQUE_COLUMNS =
+            new EnumMap<>(CustomerKey.class);
+
+    static {
+        UNIQUE_COLUMNS.put(CustomerKey.EMAIL, OnBoardCustomerRequest::getEmail);
+        UNIQUE_COLUMNS.put(CustomerKey.BVN, OnBoardCustomerRequest::getBvn);
+        UNIQUE_COLUMNS.put(CustomerKey.NIN, OnBoardCustomerRequest::getNin);
+        UNIQUE_COLUMNS.put(CustomerKey.PHONE_NUMBER, OnBoardCustomerRequest::getPhoneNumber);
+    }
+
+    private final AccountRepository accountRepository;
+    private final CustomerRepository customerRepository;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final AccountLookupCache accountLookupCache;
+    private final CustomerUniquenessIndex customerUniquenessIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor bulkOnboardingExecutor;
+    private final int chunkSize;
+    private final int maxRecordedFailures;
+    private final long maxUploadBytes;
+    private final Cache<UUID, BulkOnboardingJob> jobs;
+    private final Map<CustomerKey, Function<Set<String>, List<String>>> existingLookups;
+    private final ObjectReader ndjsonReader;
+    private final ObjectReader csvReader;
+
+    public BulkOnboardingServiceImpl(AccountRepository accountRepository,
+                                     CustomerRepository customerRepository,
+                                     AccountNumberAllocator accountNumberAllocator,
+                                     AccountLookupCache accountLookupCache,
+                                     CustomerUniquenessIndex customerUniquenessIndex,
+                                     TransactionTemplate transactionTemplate,
+                                     @Qualifier("bulkOnboardingExecutor") Executor bulkOnboardingExecutor,
+                                     ObjectMapper objectMapper,
+                                     Environment environment) {
+        this.accountRepository = accountRepository;
+        this.customerRepository = customerRepository;
+        this.accountNumberAllocator = accountNumberAllocator;
+        this.accountLookupCache = accountLookupCache;
+        this.customerUniquenessIndex = customerUniquenessIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.bulkOnboardingExecutor = bulkOnboardingExecutor;
+        this.chunkSize = environment.getProperty("onboarding.bulk.chunk-size", Integer.class, 500);
+        this.maxRecordedFailures = environment.getProperty("onboarding.bulk.max-recorded-failures", Integer.class, 1000);
+        this.maxUploadBytes = environment.getProperty("onboarding.bulk.max-upload-bytes", Long.class, 104857600L);
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(
+                        environment.getProperty("onboarding.bulk.job-retention", Long.class, 86400000L)))
+                .build();
+        this.existingLookups = Map.of(
+                CustomerKey.EMAIL, customerRepository::findExistingEmails,
+                CustomerKey.BVN, customerRepository::findExistingBvns,
+                CustomerKey.NIN, customerRepository::findExistingNins,
+                CustomerKey.PHONE_NUMBER, customerRepository::findExistingPhoneNumbers);
+        this.ndjsonReader = objectMapper.readerFor(OnBoardCustomerRequest.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        CsvMapper csvMapper = new CsvMapper();
+        this.csvReader = csvMapper.readerFor(OnBoardCustomerRequest.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    @Override
+    public BulkOnboardingJobResponse submit(InputStream records, MediaType format) {
+        boolean ndjson = isNdjson(format);
+        Path file = spool(records);
+        BulkOnboardingJob job = new BulkOnboardingJob(maxRecordedFailures);
+        jobs.put(job.getId(), job);
+        try {
+            bulkOnboardingExecutor.execute(() -> process(job, ndjson, file));
+        } catch (RejectedExecutionException e) {
+            jobs.invalidate(job.getId());
+            deleteQuietly(file);
+            throw new IllegalStateException("Too many bulk onboarding jobs in progress, try again later");
+        }
+        return job.toResponse();
+    }
+
+    @Override
+    public BulkOnboardingJobResponse getJob(UUID jobId) {
+        BulkOnboardingJob job = jobs.getIfPresent(jobId);
+        if (job == null) {
+            throw new RuntimeException("Bulk onboarding job not found");
+        }
+        return job.toResponse();
+    }
+
+    private boolean isNdjson(MediaType format) {
+        if (format != null && NDJSON.isCompatibleWith(format)) {
+            return true;
+        }
+        if (format != null && MediaType.parseMediaType("text/csv").isCompatibleWith(format)) {
+            return false;
+        }
+        throw new IllegalArgumentException("Bulk onboarding accepts application/x-ndjson or text/csv");
+    }
+
+    /**
+     * Copies the upload to a temporary file, giving up as soon as it exceeds the size limit.
+     */
+    private Path spool(InputStream records) {
+        Path file;
+        try {
+            file = Files.createTempFile("bulk-onboarding-", ".upload");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to receive bulk onboarding file", e);
+        }
+        try (OutputStream out = Files.newOutputStream(file)) {
+            byte[] buffer = new byte[8192];
+            long total = 0;
+            int read;
+            while ((read = records.read(buffer)) != -1) {
+                total += read;
+                if (total > maxUploadBytes) {
+                    throw new UploadTooLargeException(maxUploadBytes);
+                }
+                out.write(buffer, 0, read);
+            }
+            return file;
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new UncheckedIOException("Failed to receive bulk onboarding file", e);
+        } catch (RuntimeException e) {
+            deleteQuietly(file);
+            throw e;
+        }
+    }
+
+    private void process(BulkOnboardingJob job, boolean ndjson, Path file) {
+        job.start();
+        try (RecordReader records = ndjson ? ndjsonRecords(file) : csvRecords(file)) {
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            long rowNumber = 0;
+            OnBoardCustomerRequest request;
+            while ((request = records.next()) != null) {
+                rowNumber++;
+                if (request == MALFORMED) {
+                    job.rowFailed(rowNumber, null, "Malformed record");
+                    continue;
+                }
+                chunk.add(new Row(rowNumber, normalize(request)));
+                if (chunk.size() == chunkSize) {
+                    processChunk(job, chunk);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                processChunk(job, chunk);
+            }
+            job.complete();
+        } catch (IOException | RuntimeException e) {
+            job.abort("Bulk onboarding stopped: " + e.getMessage());
+        } finally {
+            deleteQuietly(file);
+        }
+    }
+
+    /**
+     * Reads one JSON record per line, so a malformed line only rejects that row.
+     */
+    private RecordReader ndjsonRecords(Path file) throws IOException {
+        BufferedReader lines = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        return new RecordReader() {
+            @Override
+            public OnBoardCustomerRequest next() throws IOException {
+                String line;
+                do {
+                    line = lines.readLine();
+                } while (line != null && line.isBlank());
+                if (line == null) {
+                    return null;
+                }
+                try {
+                    // A literal null line is not a record, and must not read as the end of the file
+                    OnBoardCustomerRequest request = ndjsonReader.readValue(line);
+                    return request != null ? request : MALFORMED;
+                } catch (IOException e) {
+                    return MALFORMED;
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                lines.close();
+            }
+        };
+    }
+
+    /**
+     * Reads CSV rows. A row that cannot be parsed, for example one with more cells than the header, only
+     * rejects that row: the parser has moved past it by the time it fails. A failure that leaves the parser
+     * where it was, such as an unterminated quote, cannot be skipped and stops the job.
+     */
+    private RecordReader csvRecords(Path file) throws IOException {
+        MappingIterator<OnBoardCustomerRequest> rows = csvReader.readValues(file.toFile());
+        return new RecordReader() {
+            private long failedAt = -1;
+
+            @Override
+            public OnBoardCustomerRequest next() throws IOException {
+                try {
+                    return rows.hasNextValue() ? rows.nextValue() : null;
+                } catch (IOException | RuntimeException e) {
+                    JsonLocation location = rows.getCurrentLocation();
+                    long offset = location != null ? location.getCharOffset() : -1;
+                    if (offset == failedAt) {
+                        throw new IOException("Cannot read past row: " + e.getMessage(), e);
+                    }
+                    failedAt = offset;
+                    return MALFORMED;
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                rows.close();
+            }
+        };
+    }
+
+    /**
+     * Trims every field and turns blanks into nulls, so empty CSV cells are not treated as values.
+     */
+    private static OnBoardCustomerRequest normalize(OnBoardCustomerRequest request) {
+        request.setBvn(StringUtils.trimToNull(request.getBvn()));
+        request.setNin(StringUtils.trimToNull(request.getNin()));
+        request.setFirstName(StringUtils.trimToNull(request.getFirstName()));
+        request.setLastName(StringUtils.trimToNull(request.getLastName()));
+        request.setEmail(StringUtils.trimToNull(request.getEmail()));
+        request.setPhoneNumber(StringUtils.trimToNull(request.getPhoneNumber()));
+        return request;
+    }
+
+    private void processChunk(BulkOnboardingJob job, List<Row> chunk) {
+        List<Row> valid = validate(job, chunk);
+        if (valid.isEmpty()) {
+            return;
+        }
+        assignAccountNumbers(valid);
+        try {
+            List<Account> saved = transactionTemplate.execute(status ->
+                    accountRepository.saveAll(valid.stream().map(this::toAccount).toList()));
+            saved.forEach(account -> customerUniquenessIndex.add(account.getCustomer()));
+            valid.forEach(row -> accountLookupCache.invalidate(row.accountNumber));
+            job.rowsSucceeded(valid.size());
+        } catch (DataAccessException e) {
+            for (Row row : valid) {
+                try {
+                    Account account = transactionTemplate.execute(status -> accountRepository.save(toAccount(row)));
+                    customerUniquenessIndex.add(account.getCustomer());
+                    accountLookupCache.invalidate(row.accountNumber);
+                    job.rowsSucceeded(1);
+                } catch (DataAccessException rowFailure) {
+                    job.rowFailed(row.number, row.request.getEmail(), "Customer with these details already exists");
+                }
+            }
+        }
+    }
+
+    /**
+     * Rejects rows with missing fields or with an email, BVN, NIN or phone number that is already
+     * registered or appears earlier in the same chunk.
+     */
+    private List<Row> validate(BulkOnboardingJob job, List<Row> chunk) {
+        List<Row> complete = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            OnBoardCustomerRequest request = row.request;
+            if (request.getBvn() == null && request.getNin() == null) {
+                job.rowFailed(row.number, request.getEmail(), "Either BVN or NIN must be provided");
+            } else if (StringUtils.isAnyBlank(request.getFirstName(), request.getLastName(),
+                    request.getEmail(), request.getPhoneNumber())) {
+                job.rowFailed(row.number, request.getEmail(), "firstName, lastName, email and phoneNumber are required");
+            } else {
+                complete.add(row);
+            }
+        }
+
+        Map<CustomerKey, Set<String>> existing = new EnumMap<>(CustomerKey.class);
+        UNIQUE_COLUMNS.forEach((column, getter) -> existing.put(column, existingValues(complete, column, getter)));
+
+        List<Row> valid = new ArrayList<>(complete.size());
+        Map<CustomerKey, Set<String>> accepted = new EnumMap<>(CustomerKey.class);
+        for (Row row : complete) {
+            String reason = null;
+            for (Map.Entry<CustomerKey, Function<OnBoardCustomerRequest, String>> column : UNIQUE_COLUMNS.entrySet()) {
+                String value = column.getValue().apply(row.request);
+                if (value == null) {
+                    continue;
+                }
+                if (existing.get(column.getKey()).contains(value)) {
+                    reason = "Customer with this " + column.getKey().label() + " already exists";
+                    break;
+                }
+                if (accepted.getOrDefault(column.getKey(), Set.of()).contains(value)) {
+                    reason = "Duplicate " + column.getKey().label() + " in upload";
+                    break;
+                }
+            }
+            if (reason != null) {
+                job.rowFailed(row.number, row.request.getEmail(), reason);
+                continue;
+            }
+            UNIQUE_COLUMNS.forEach((column, getter) -> {
+                String value = getter.apply(row.request);
+                if (value != null) {
+                    accepted.computeIfAbsent(column, key -> new HashSet<>()).add(value);
+                }
+            });
+            valid.add(row);
+        }
+        return valid;
+    }
+
+    /**
+     * Returns the values of a column that are already registered. Only values the uniqueness index
+     * cannot rule out are looked up, so a chunk of new customers usually needs no query at all.
+     */
+    private Set<String> existingValues(List<Row> rows, CustomerKey column,
+                                       Function<OnBoardCustomerRequest, String> getter) {
+        Set<String> candidates = new HashSet<>();
+        for (Row row : rows) {
+            String value = getter.apply(row.request);
+            if (value != null && customerUniquenessIndex.mightExist(column, value)) {
+                candidates.add(value);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> existing = new HashSet<>(existingLookups.get(column).apply(candidates));
+        candidates.forEach(value -> customerUniquenessIndex.recordLookup(column, existing.contains(value)));
+        return existing;
+    }
+
+    /**
+     * Allocates account numbers for a chunk, replacing any that clash with legacy clock-derived numbers.
+     */
+    private void assignAccountNumbers(List<Row> rows) {
+        List<Row> pending = rows;
+        while (!pending.isEmpty()) {
+            for (Row row : pending) {
+                row.accountNumber = accountNumberAllocator.allocate();
+            }
+            Set<String> taken = new HashSet<>(accountRepository.findExistingAccountNumbers(
+                    pending.stream().map(row -> row.accountNumber).toList()));
+            pending = pending.stream().filter(row -> taken.contains(row.accountNumber)).toList();
+        }
+    }
+
+    private Account toAccount(Row row) {
+        OnBoardCustomerRequest request = row.request;
+        Customer customer = Customer.builder()
+                .firstName(request.getFirstName())
+                .lastName(request.getLastName())
+                .bvn(request.getBvn())
+                .nin(request.getNin())
+                .email(request.getEmail())
+                .phoneNumber(request.getPhoneNumber())
+                .build();
+        return Account.builder()
+                .accountNumber(Objects.requireNonNull(row.accountNumber))
+                .customer(customer)
+                .balance(BigDecimal.ZERO)
+                .build();
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Temp files are cleaned up by the OS if this fails
+        }
+    }
+
+    /**
+     * Source of upload records; returns {@link #MALFORMED} for a record that cannot be parsed
+     * and null once the file is exhausted.
+     */
+    private interface RecordReader extends Closeable {
+        OnBoardCustomerRequest next() throws IOException;
+    }
+
+    private static final class Row {
+        final long number;
+        final OnBoardCustomerRequest request;
+        String accountNumber;
+
+        Row(long number, OnBoardCustomerRequest request) {
+            this.number = number;
+            this.request = request;
+        }
+    }
+}
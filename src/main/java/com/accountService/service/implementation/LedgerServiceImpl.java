@@ -0,0 +1,188 @@
+package com.accountService.service.implementation;
+
+import com.accountService.dto.request.BankTransferRequest;
+import com.accountService.dto.response.BankTransferResponse;
+import com.accountService.dto.response.MakePaymentResponse;
+import com.accountService.dto.response.PaymentHistoryPageResponse;
+import com.accountService.model.LedgerEntry;
+import com.accountService.model.LedgerEntryType;
+import com.accountService.model.repository.LedgerEntryRepository;
+import com.accountService.service.interfaces.LedgerService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keeps the local ledger of payments and transfers. Every entry is keyed by an id derived from the
+ * downstream's own identifier, so recording the same outcome twice overwrites one entry rather than adding
+ * a second. An outcome with no identifier, or whose write fails, is logged and counted in
+ * {@code ledger.entries.unrecorded}, tagged by entry type and reason, rather than thrown: the payment or
+ * transfer has already been processed and the caller must not be told otherwise.
+ */
+@Slf4j
+@Service
+public class LedgerServiceImpl implements LedgerService {
+
+    static final int MAX_PAGE_SIZE = 100;
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final MeterRegistry meterRegistry;
+
+    public LedgerServiceImpl(LedgerEntryRepository ledgerEntryRepository, MeterRegistry meterRegistry) {
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.meterRegistry = meterRegistry;
+        for (LedgerEntryType type : LedgerEntryType.values()) {
+            unrecorded(type, "missing_id");
+            unrecorded(type, "save_failed");
+        }
+    }
+
+    /**
+     * Records a payment under the transaction id the payment service assigned. A response without one is
+     * not recorded, as nothing would stop a replay from recording it twice.
+     */
+    @Override
+    public void recordPayment(UUID customerId, MakePaymentResponse response) {
+        if (response == null) {
+            return;
+        }
+        if (response.getTransactionId() == null) {
+            unrecorded(LedgerEntryType.PAYMENT, "missing_id").increment();
+            log.error("Payment service returned no transaction id; {} payment of {} for customer {} not recorded",
+                response.getStatus(), response.getAmount(), customerId);
+            return;
+        }
+        LedgerEntry entry = LedgerEntry.builder()
+            .transactionId(response.getTransactionId())
+            .customerId(customerId)
+            .type(LedgerEntryType.PAYMENT)
+            .amount(response.getAmount())
+            .status(response.getStatus())
+            .createdAt(response.getCreatedAt() != null ? response.getCreatedAt() : LocalDateTime.now())
+            .build();
+        save(entry);
+    }
+
+    /**
+     * Records a bank transfer keyed by its bank reference or, failing that, by the customer's session id,
+     * which identifies the submission just as uniquely. A transfer with neither is not recorded.
+     */
+    @Override
+    public void recordTransfer(BankTransferRequest request, BankTransferResponse response) {
+        if (response == null) {
+            return;
+        }
+        UUID transactionId;
+        if (response.getTransactionReference() != null) {
+            transactionId = UUID.nameUUIDFromBytes(response.getTransactionReference().getBytes(StandardCharsets.UTF_8));
+        } else if (request.getSessionId() != null && request.getCustomerId() != null) {
+            transactionId = UUID.nameUUIDFromBytes(("session:" + request.getCustomerId() + ":" + request.getSessionId())
+                .getBytes(StandardCharsets.UTF_8));
+        } else {
+            unrecorded(LedgerEntryType.BANK_TRANSFER, "missing_id").increment();
+            log.error("Bank returned no reference for a transfer without a session id; {} transfer of {} for customer {} not recorded",
+                response.getStatus(), request.getAmount(), request.getCustomerId());
+            return;
+        }
+        LedgerEntry entry = LedgerEntry.builder()
+            .transactionId(transactionId)
+            .customerId(request.getCustomerId())
+            .accountNumber(request.getSourceAccountNumber())
+            .type(LedgerEntryType.BANK_TRANSFER)
+            .amount(response.getAmount() != null ? response.getAmount() : request.getAmount())
+            .status(response.getStatus())
+            .reference(response.getTransactionReference())
+            .createdAt(response.getTransactionDate() != null ? response.getTransactionDate() : LocalDateTime.now())
+            .build();
+        save(entry);
+    }
+
+    private void save(LedgerEntry entry) {
+        try {
+            ledgerEntryRepository.save(entry);
+        } catch (DataAccessException e) {
+            unrecorded(entry.getType(), "save_failed").increment();
+            log.error("Failed to record {} {} for customer {}", entry.getType(), entry.getTransactionId(),
+                entry.getCustomerId(), e);
+        }
+    }
+
+    private Counter unrecorded(LedgerEntryType type, String reason) {
+        return Counter.builder("ledger.entries.unrecorded")
+            .tag("type", type.name())
+            .tag("reason", reason)
+            .description("Payment and transfer outcomes missing from the ledger, for reconciliation")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Pages by keyset rather than offset: the cursor carries the (createdAt, transactionId) of the
+     * last entry returned, so each page is a range scan on the customer index no matter how deep
+     * the client has paged. One extra row is fetched to tell whether another page exists.
+     */
+    @Override
+    public PaymentHistoryPageResponse getHistory(UUID customerId, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<LedgerEntry> entries;
+        if (cursor == null || cursor.isBlank()) {
+            entries = ledgerEntryRepository.findLatest(customerId, limit);
+        } else {
+            Cursor position = Cursor.decode(cursor);
+            entries = ledgerEntryRepository.findOlderThan(customerId, position.createdAt(), position.transactionId(), limit);
+        }
+
+        boolean hasMore = entries.size() > pageSize;
+        List<LedgerEntry> page = hasMore ? entries.subList(0, pageSize) : entries;
+
+        return PaymentHistoryPageResponse.builder()
+            .transactions(page.stream().map(LedgerServiceImpl::toResponse).toList())
+            .nextCursor(hasMore ? Cursor.of(page.get(page.size() - 1)).encode() : null)
+            .build();
+    }
+
+    private static MakePaymentResponse toResponse(LedgerEntry entry) {
+        MakePaymentResponse response = new MakePaymentResponse();
+        response.setTransactionId(entry.getTransactionId());
+        response.setAmount(entry.getAmount());
+        response.setStatus(entry.getStatus());
+        response.setCreatedAt(entry.getCreatedAt());
+        return response;
+    }
+
+    /**
+     * Position of the last entry on a page, encoded as an opaque URL-safe token.
+     */
+    record Cursor(LocalDateTime createdAt, UUID transactionId) {
+
+        static Cursor of(LedgerEntry entry) {
+            return new Cursor(entry.getCreatedAt(), entry.getTransactionId());
+        }
+
+        String encode() {
+            String raw = createdAt + "|" + transactionId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid history cursor");
+            }
+        }
+    }
+}
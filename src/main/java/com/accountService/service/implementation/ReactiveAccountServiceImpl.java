@@ -0,0 +1,345 @@
+package com.accountService.service.implementation;
+
+import com.accountService.cache.AccountLookupCache;
+import com.accountService.cache.CustomerIdentity;
+import com.accountService.cache.CustomerLookupCache;
+import com.accountService.client.Downstream;
+import com.accountService.client.DownstreamFailures;
+import com.accountService.client.DownstreamUnavailableException;
+import com.accountService.client.PaymentHistoryCoalescer;
+import com.accountService.client.ReactiveDownstreamClients;
+import com.accountService.datasource.ReplicaRouting;
+import com.accountService.dto.request.AuthLoginRequest;
+import com.accountService.dto.request.BankTransferRequest;
+import com.accountService.dto.request.MakePaymentRequest;
+import com.accountService.dto.response.AuthLoginResponse;
+import com.accountService.dto.response.BankTransferResponse;
+import com.accountService.dto.response.CustomerDashBoardResponse;
+import com.accountService.dto.response.MakePaymentResponse;
+import com.accountService.model.projection.AccountBalanceView;
+import com.accountService.model.repository.AccountRepository;
+import com.accountService.service.interfaces.FundsReservationService;
+import com.accountService.service.interfaces.LedgerService;
+import com.accountService.service.interfaces.ReactiveAccountService;
+import com.accountService.service.interfaces.TransferIdempotencyService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.env.Environment;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reactive implementation of the downstream-facing account operations. Remote calls go through
+ * {@link ReactiveDownstreamClients}, so while a call is outstanding the request holds a pooled connection
+ * and no thread. Repository, cache and ledger calls still use JDBC; they run on the bounded
+ * {@code jdbcScheduler}, which keeps them off the event loop and caps them at the connection pool's size.
+ */
+@Slf4j
+@Service
+public class ReactiveAccountServiceImpl implements ReactiveAccountService {
+
+    // Stages of a transfer after its hold, see executeTransfer
+    private static final Object SENDING = new Object();
+    private static final Object CANCELLED = new Object();
+
+    private final ReactiveDownstreamClients downstreamClients;
+    private final AccountRepository accountRepository;
+    private final CustomerLookupCache customerLookupCache;
+    private final AccountLookupCache accountLookupCache;
+    private final LedgerService ledgerService;
+    private final PaymentHistoryCoalescer paymentHistoryCoalescer;
+    private final FundsReservationService fundsReservationService;
+    private final TransferIdempotencyService transferIdempotencyService;
+    private final ReplicaRouting replicaRouting;
+    private final Scheduler jdbcScheduler;
+    private final Environment environment;
+
+    public ReactiveAccountServiceImpl(ReactiveDownstreamClients downstreamClients,
+                                      AccountRepository accountRepository,
+                                      CustomerLookupCache customerLookupCache,
+                                      AccountLookupCache accountLookupCache,
+                                      LedgerService ledgerService,
+                                      PaymentHistoryCoalescer paymentHistoryCoalescer,
+                                      FundsReservationService fundsReservationService,
+                                      TransferIdempotencyService transferIdempotencyService,
+                                      ReplicaRouting replicaRouting,
+                                      @Qualifier("jdbcScheduler") Scheduler jdbcScheduler,
+                                      Environment environment) {
+        this.downstreamClients = downstreamClients;
+        this.accountRepository = accountRepository;
+        this.customerLookupCache = customerLookupCache;
+        this.accountLookupCache = accountLookupCache;
+        this.ledgerService = ledgerService;
+        this.paymentHistoryCoalescer = paymentHistoryCoalescer;
+        this.fundsReservationService = fundsReservationService;
+        this.transferIdempotencyService = transferIdempotencyService;
+        this.replicaRouting = replicaRouting;
+        this.jdbcScheduler = jdbcScheduler;
+        this.environment = environment;
+    }
+
+    @Override
+    public Mono<AuthLoginResponse> authLogin(AuthLoginRequest request) {
+        String authUrl = environment.getProperty("api.auth.url", "https://auth-service/login");
+        return downstreamClients.webClient(Downstream.AUTH).post()
+                .uri(authUrl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(AuthLoginResponse.class);
+    }
+
+    @Override
+    public Mono<List<MakePaymentResponse>> getPaymentHistory(UUID customerId) {
+        String historyUrl = environment.getProperty("api.payment.history.url",
+                "https://payment-service/history/" + customerId);
+        return downstreamClients.webClient(Downstream.PAYMENT).get()
+                .uri(historyUrl)
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .bodyToFlux(MakePaymentResponse.class)
+                .collectList();
+    }
+
+    @Override
+    public Mono<MakePaymentResponse> makePayment(MakePaymentRequest request) {
+        String paymentUrl = environment.getProperty("api.payment.url", "https://payment-service/process");
+        return blocking(() -> findCustomer(request.getCustomerId()))
+                .then(downstreamClients.webClient(Downstream.PAYMENT).post()
+                        .uri(paymentUrl)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(request)
+                        .retrieve()
+                        .bodyToMono(MakePaymentResponse.class))
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("No response received from payment service")))
+                .flatMap(response -> blocking(() -> {
+                    ledgerService.recordPayment(request.getCustomerId(), response);
+                    paymentHistoryCoalescer.invalidate(request.getCustomerId());
+                    return response;
+                }));
+    }
+
+    /**
+     * Subscribes to the customer, account and payment-history branches at once. The lookups run on the
+     * JDBC scheduler while the history call is in flight; a failed or late history call degrades the
+     * dashboard instead of failing it.
+     */
+    @Override
+    public Mono<CustomerDashBoardResponse> getCustomerDashBoard(UUID customerId) {
+        Duration dbTimeout = Duration.ofMillis(environment.getProperty("dashboard.timeout.db", Long.class, 2000L));
+        Duration transactionsTimeout = Duration.ofMillis(
+                environment.getProperty("dashboard.timeout.transactions", Long.class, 3000L));
+
+        Mono<CustomerIdentity> customer = blocking(() -> findCustomer(customerId))
+                .timeout(dbTimeout, Mono.error(() -> new RuntimeException("Customer lookup timed out")));
+        Mono<AccountBalanceView> account = blocking(() -> replicaRouting.read(customerId,
+                        () -> accountRepository.findBalanceByCustomerId(customerId))
+                .orElseThrow(() -> new RuntimeException("Account not found")))
+                .timeout(dbTimeout, Mono.error(() -> new RuntimeException("Account lookup timed out")));
+        Mono<Optional<List<MakePaymentResponse>>> transactions = getPaymentHistory(customerId)
+                .timeout(transactionsTimeout)
+                .map(Optional::of)
+                .onErrorReturn(Optional.empty())
+                .defaultIfEmpty(Optional.empty());
+
+        return Mono.zip(customer, account, transactions)
+                .map(branches -> CustomerDashBoardResponse.builder()
+                        .customerName(branches.getT1().getFirstName() + " " + branches.getT1().getLastName())
+                        .accountNumber(branches.getT2().getAccountNumber())
+                        .balance(branches.getT2().getBalance())
+                        .transactions(branches.getT3().orElse(List.of()))
+                        .transactionsUnavailable(branches.getT3().isEmpty())
+                        .build());
+    }
+
+    @Override
+    public Mono<BankTransferResponse> bankTransfer(BankTransferRequest request) {
+        return Mono.defer(() -> {
+            AccountServiceImpl.checkTransferFields(request);
+            UUID customerId = request.getCustomerId();
+            Mono<Void> validated = blocking(() -> {
+                findCustomer(customerId);
+                return replicaRouting.read(customerId, () -> accountLookupCache.find(request.getSourceAccountNumber()))
+                        .orElseThrow(() -> new RuntimeException("Source account not found"));
+            }).then();
+
+            // A retried submission carries the same session id: answer it from the stored outcome
+            String sessionId = StringUtils.trimToNull(request.getSessionId());
+            if (sessionId == null) {
+                return validated.then(executeTransfer(request, null));
+            }
+            return validated
+                    .then(blocking(() -> transferIdempotencyService.claim(request)))
+                    .flatMap(previous -> previous.map(Mono::just).orElseGet(() -> executeTransfer(request, sessionId)));
+        });
+    }
+
+    /**
+     * Holds the funds, sends the transfer and settles the hold and claim as the blocking service does: a
+     * failed call releases the hold and gives up the claim only if the transfer provably did not happen,
+     * and otherwise keeps both as UNKNOWN for reconciliation. A subscriber that cancels once the funds are
+     * held and the call has started cannot know whether the transfer went out, so cancelling is settled as an
+     * unknown outcome. A hold whose reserve was still running when the subscriber cancelled is released,
+     * with its claim, once the reserve completes: that transfer was never sent. Cancelling before the claim
+     * leaves it in flight, to be swept.
+     *
+     * @param sessionId The claimed session id, or null if the request has none
+     */
+    private Mono<BankTransferResponse> executeTransfer(BankTransferRequest request, String sessionId) {
+        String transferUrl = environment.getProperty("api.bank.transfer.url", "https://bank-service/bank-transfer");
+        // The hold until it is handed to the bank call, then SENDING; CANCELLED once the subscriber cancels
+        AtomicReference<Object> stage = new AtomicReference<>();
+        return blocking(() -> {
+                    UUID holdId = hold(request, sessionId);
+                    if (!stage.compareAndSet(null, holdId)) {
+                        // Cancelled while the funds were being held: the filter below drops the hold
+                        jdbcScheduler.schedule(() -> releaseUnsent(request, sessionId, holdId));
+                    }
+                    return holdId;
+                })
+                .doOnCancel(() -> {
+                    Object held = stage.getAndSet(CANCELLED);
+                    if (held instanceof UUID holdId) {
+                        jdbcScheduler.schedule(() -> releaseUnsent(request, sessionId, holdId));
+                    }
+                })
+                .filter(holdId -> stage.compareAndSet(holdId, SENDING))
+                .flatMap(holdId -> downstreamClients.webClient(Downstream.BANK).post()
+                        .uri(transferUrl)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(request)
+                        .retrieve()
+                        .bodyToMono(BankTransferResponse.class)
+                        .switchIfEmpty(Mono.error(() -> new RuntimeException("No response received from transfer service")))
+                        .onErrorResume(e -> blocking(() -> {
+                            settleFailed(request, sessionId, holdId, e);
+                            return holdId;
+                        }).then(Mono.error(translate(e))))
+                        .flatMap(response -> blocking(() -> settle(request, sessionId, holdId, response)))
+                        .doOnCancel(() -> jdbcScheduler.schedule(() -> settleFailed(request, sessionId, holdId,
+                                new CancellationException("Transfer cancelled by its subscriber")))));
+    }
+
+    /**
+     * Places the transfer's hold and links the claim to it before anything is sent. The claim is given
+     * up if the funds cannot be held, and the hold released with it if they cannot be linked.
+     */
+    private UUID hold(BankTransferRequest request, String sessionId) {
+        UUID holdId;
+        try {
+            holdId = fundsReservationService.reserve(request.getSourceAccountNumber(), request.getAmount());
+        } catch (RuntimeException e) {
+            if (sessionId != null) {
+                transferIdempotencyService.abandon(request.getCustomerId(), sessionId);
+            }
+            throw e;
+        }
+        if (sessionId != null) {
+            try {
+                transferIdempotencyService.attachHold(request.getCustomerId(), sessionId, holdId);
+            } catch (RuntimeException e) {
+                fundsReservationService.release(holdId);
+                transferIdempotencyService.abandon(request.getCustomerId(), sessionId);
+                throw e;
+            }
+        }
+        return holdId;
+    }
+
+    /**
+     * Commits the hold if the bank accepted the transfer and releases it otherwise, then completes the
+     * claim (before the ledger is written, so a ledger failure cannot free the session).
+     */
+    private BankTransferResponse settle(BankTransferRequest request, String sessionId, UUID holdId,
+                                        BankTransferResponse response) {
+        try {
+            if ("SUCCESS".equalsIgnoreCase(response.getStatus())) {
+                fundsReservationService.commit(holdId);
+            } else {
+                fundsReservationService.release(holdId);
+            }
+            if (sessionId != null) {
+                transferIdempotencyService.complete(request.getCustomerId(), sessionId, response);
+            }
+            ledgerService.recordTransfer(request, response);
+            return response;
+        } finally {
+            replicaRouting.recordWrite(request.getCustomerId());
+            accountLookupCache.invalidate(request.getSourceAccountNumber());
+        }
+    }
+
+    /**
+     * Settles a transfer that got no answer: released if it provably did not happen, otherwise kept as
+     * UNKNOWN for reconciliation.
+     *
+     * @param failure Why no answer was received
+     */
+    private void settleFailed(BankTransferRequest request, String sessionId, UUID holdId, Throwable failure) {
+        if (DownstreamFailures.neverSent(failure) || DownstreamFailures.rejected(failure)) {
+            releaseUnsent(request, sessionId, holdId);
+            return;
+        }
+        try {
+            if (sessionId != null) {
+                transferIdempotencyService.markUnknown(request.getCustomerId(), sessionId);
+            }
+            if (fundsReservationService.markUnknown(holdId)) {
+                log.warn("Outcome of the transfer under hold {} is unknown; its funds stay held until reconciled: {}",
+                        holdId, failure.getMessage());
+            }
+        } finally {
+            replicaRouting.recordWrite(request.getCustomerId());
+            accountLookupCache.invalidate(request.getSourceAccountNumber());
+        }
+    }
+
+    /**
+     * Releases the hold of a transfer that did not happen and gives up its claim, so the session can be retried.
+     */
+    private void releaseUnsent(BankTransferRequest request, String sessionId, UUID holdId) {
+        try {
+            fundsReservationService.release(holdId);
+            if (sessionId != null) {
+                transferIdempotencyService.abandon(request.getCustomerId(), sessionId);
+            }
+        } finally {
+            replicaRouting.recordWrite(request.getCustomerId());
+            accountLookupCache.invalidate(request.getSourceAccountNumber());
+        }
+    }
+
+    private static Throwable translate(Throwable e) {
+        if (e instanceof DownstreamUnavailableException) {
+            return e;
+        }
+        if (e instanceof WebClientException) {
+            return new RuntimeException("Failed to process bank transfer: " + e.getMessage());
+        }
+        return new RuntimeException("Unexpected error during bank transfer: " + e.getMessage());
+    }
+
+    private CustomerIdentity findCustomer(UUID customerId) {
+        return replicaRouting.read(customerId, () -> customerLookupCache.find(customerId))
+                .orElseThrow(() -> new RuntimeException("Customer not found"));
+    }
+
+    /**
+     * Runs a blocking call on the JDBC scheduler.
+     */
+    private <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(jdbcScheduler);
+    }
+}
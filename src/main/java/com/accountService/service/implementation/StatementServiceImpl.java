@@ -0,0 +1,152 @@
+package com.accountService.service.implementation;
+
+import com.accountService.dto.response.StatementLine;
+import com.accountService.model.LedgerEntry;
+import com.accountService.model.projection.StatementLineView;
+import com.accountService.model.repository.LedgerEntryRepository;
+import com.accountService.service.interfaces.StatementService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exports statements straight from the ledger. The rows are read in keyset pages of
+ * {@link LedgerEntryRepository#STATEMENT_PAGE_SIZE}, as tuples rather than entities, each page in its own
+ * short read-only transaction, and written to the response as they arrive; the output is flushed once per
+ * page. A slow client therefore holds no connection between pages. Paging and resuming are both by keyset on
+ * (createdAt, transactionId), the statement's sort order, so a resumed export neither repeats nor skips
+ * a row even if entries were added to the range in between.
+ * <p>
+ * An export that runs longer than {@code statement.export.max-duration} milliseconds, which must stay below
+ * {@code spring.mvc.async.request-timeout}, is abandoned after its current page with an
+ * {@link IOException}. The response is then aborted rather than completed, and the client resumes it from
+ * the last row it received, instead of the async timeout cutting it off while the export keeps running.
+ */
+@Service
+public class StatementServiceImpl implements StatementService {
+
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    static final MediaType CSV = MediaType.parseMediaType("text/csv");
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final ObjectWriter ndjsonWriter;
+    private final ObjectWriter csvWriter;
+    private final ObjectWriter csvHeaderWriter;
+    private final long maxDurationNanos;
+
+    public StatementServiceImpl(LedgerEntryRepository ledgerEntryRepository, ObjectMapper objectMapper,
+                                Environment environment) {
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.maxDurationNanos = TimeUnit.MILLISECONDS.toNanos(
+                environment.getProperty("statement.export.max-duration", Long.class, 600000L));
+        this.ndjsonWriter = objectMapper.writerFor(StatementLine.class)
+                .withRootValueSeparator("\n")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        CsvMapper csvMapper = CsvMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        CsvSchema schema = csvMapper.schemaFor(StatementLine.class);
+        this.csvWriter = csvMapper.writer(schema)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.csvHeaderWriter = csvMapper.writer(schema.withHeader())
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    @Override
+    public void validate(LocalDate from, LocalDate to, MediaType format) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("A statement needs a date range whose end is not before its start");
+        }
+        writerFor(format, true);
+    }
+
+    @Override
+    public void export(UUID customerId, LocalDate from, LocalDate to, UUID after, MediaType format, OutputStream out)
+            throws IOException {
+        validate(from, to, format);
+        long deadline = System.nanoTime() + maxDurationNanos;
+        ObjectWriter writer = writerFor(format, after == null);
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        Limit page = Limit.of(LedgerEntryRepository.STATEMENT_PAGE_SIZE);
+
+        List<StatementLineView> lines = firstPage(customerId, from.atStartOfDay(), end, after, page);
+        boolean written = !lines.isEmpty();
+        try (SequenceWriter sequence = writer.writeValues(out)) {
+            while (!lines.isEmpty()) {
+                for (StatementLineView line : lines) {
+                    sequence.write(toLine(line));
+                }
+                sequence.flush();
+                if (lines.size() < LedgerEntryRepository.STATEMENT_PAGE_SIZE) {
+                    break;
+                }
+                StatementLineView last = lines.get(lines.size() - 1);
+                if (System.nanoTime() - deadline > 0) {
+                    throw new IOException("Statement export ran past statement.export.max-duration; resume after "
+                            + last.getTransactionId());
+                }
+                lines = ledgerEntryRepository.findStatementPageAfter(
+                        customerId, last.getCreatedAt(), last.getTransactionId(), end, page);
+            }
+        }
+        if (writer == ndjsonWriter && written) {
+            // The separator only goes between records; end the last line too
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    private List<StatementLineView> firstPage(UUID customerId, LocalDateTime from, LocalDateTime to, UUID after,
+                                              Limit page) {
+        if (after == null) {
+            return ledgerEntryRepository.findStatementPage(customerId, from, to, page);
+        }
+        LedgerEntry last = ledgerEntryRepository.findById(after)
+                .filter(entry -> entry.getCustomerId().equals(customerId))
+                .orElseThrow(() -> new IllegalArgumentException("Unknown statement position " + after));
+        return ledgerEntryRepository.findStatementPageAfter(
+                customerId, last.getCreatedAt(), last.getTransactionId(), to, page);
+    }
+
+    private ObjectWriter writerFor(MediaType format, boolean withHeader) {
+        if (format != null && NDJSON.isCompatibleWith(format) && !format.isWildcardType()) {
+            return ndjsonWriter;
+        }
+        if (format == null || CSV.isCompatibleWith(format)) {
+            return withHeader ? csvHeaderWriter : csvWriter;
+        }
+        throw new IllegalArgumentException("Statements are exported as text/csv or application/x-ndjson");
+    }
+
+    private static StatementLine toLine(StatementLineView view) {
+        return StatementLine.builder()
+                .transactionId(view.getTransactionId())
+                .createdAt(view.getCreatedAt())
+                .type(view.getType() != null ? view.getType().name() : null)
+                .accountNumber(view.getAccountNumber())
+                .amount(view.getAmount())
+                .status(view.getStatus())
+                .reference(view.getReference())
+                .build();
+    }
+}
@@ -0,0 +1,175 @@
+package com.accountService.service.implementation;
+
+import com.accountService.dto.request.BankTransferRequest;
+import com.accountService.dto.response.BankTransferResponse;
+import com.accountService.model.IdempotencyStatus;
+import com.accountService.model.TransferIdempotencyRecord;
+import com.accountService.model.repository.TransferIdempotencyRecordRepository;
+import com.accountService.service.interfaces.FundsReservationService;
+import com.accountService.service.interfaces.IdempotencyKeyReusedException;
+import com.accountService.service.interfaces.TransferIdempotencyService;
+import com.accountService.service.interfaces.TransferInProgressException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransferIdempotencyServiceImpl implements TransferIdempotencyService {
+
+    /** A claim can vanish between a lost insert and the next read, if its owner abandons it */
+    private static final int MAX_CLAIM_ATTEMPTS = 3;
+
+    /** Abandoned in-flight claims moved to UNKNOWN per sweep; the rest wait for the next one */
+    private static final int SWEEP_BATCH_SIZE = 500;
+
+    private final TransferIdempotencyRecordRepository recordRepository;
+    private final FundsReservationService fundsReservationService;
+    private final ObjectMapper objectMapper;
+    private final Environment environment;
+
+    /**
+     * Duplicates are answered from a single read by the unique (customer_id, session_id) index.
+     * A first submission claims by inserting, so of several concurrent submissions exactly one
+     * insert succeeds without a read-then-write race; the others go round again and find its record.
+     * Records written before fingerprints were stored match any request.
+     */
+    @Override
+    public Optional<BankTransferResponse> claim(BankTransferRequest request) {
+        UUID customerId = request.getCustomerId();
+        String sessionId = StringUtils.trimToNull(request.getSessionId());
+        String fingerprint = fingerprint(request);
+        for (int attempt = 0; attempt < MAX_CLAIM_ATTEMPTS; attempt++) {
+            Optional<TransferIdempotencyRecord> existing =
+                recordRepository.findByCustomerIdAndSessionId(customerId, sessionId);
+            if (existing.isPresent()) {
+                String claimed = existing.get().getFingerprint();
+                if (claimed != null && !claimed.equals(fingerprint)) {
+                    throw new IdempotencyKeyReusedException(sessionId);
+                }
+                if (existing.get().getStatus() == IdempotencyStatus.COMPLETED) {
+                    return Optional.of(readResponse(existing.get().getResponse()));
+                }
+                throw new TransferInProgressException(sessionId);
+            }
+            try {
+                recordRepository.saveAndFlush(TransferIdempotencyRecord.builder()
+                    .customerId(customerId)
+                    .sessionId(sessionId)
+                    .fingerprint(fingerprint)
+                    .status(IdempotencyStatus.IN_FLIGHT)
+                    .build());
+                return Optional.empty();
+            } catch (DataIntegrityViolationException e) {
+                // Lost the race to a concurrent submission
+            }
+        }
+        throw new TransferInProgressException(sessionId);
+    }
+
+    @Override
+    public void attachHold(UUID customerId, String sessionId, UUID holdId) {
+        if (recordRepository.attachHold(customerId, sessionId, holdId) == 0) {
+            throw new IllegalStateException("Transfer claim " + sessionId + " is no longer in flight");
+        }
+    }
+
+    @Override
+    public void complete(UUID customerId, String sessionId, BankTransferResponse response) {
+        recordRepository.complete(customerId, sessionId, writeResponse(response));
+    }
+
+    @Override
+    public void markUnknown(UUID customerId, String sessionId) {
+        recordRepository.transition(customerId, sessionId, IdempotencyStatus.IN_FLIGHT, IdempotencyStatus.UNKNOWN);
+    }
+
+    @Override
+    public void abandon(UUID customerId, String sessionId) {
+        recordRepository.deleteByKey(customerId, sessionId, IdempotencyStatus.IN_FLIGHT);
+    }
+
+    /**
+     * Expires completed records after their retention. An in-flight record older than
+     * {@code transfer.idempotency.in-flight-ttl} was left by a node that died mid-transfer, or whose
+     * {@link #complete} failed: if it holds funds, the transfer may have reached the bank, so the record
+     * and its hold move to UNKNOWN; if not, nothing was sent and the record is removed to free the session.
+     * Records of unknown outcome are removed only once their hold is reconciled, so the session stays
+     * refused until then.
+     */
+    @Scheduled(fixedDelayString = "${transfer.idempotency.sweep-interval:300000}")
+    public void sweepExpired() {
+        long completedTtlMs = environment.getProperty("transfer.idempotency.completed-ttl", Long.class, 86_400_000L);
+        long inFlightTtlMs = environment.getProperty("transfer.idempotency.in-flight-ttl", Long.class, 300_000L);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime inFlightBefore = now.minus(inFlightTtlMs, ChronoUnit.MILLIS);
+
+        for (TransferIdempotencyRecord record : recordRepository.findStaleWithHold(IdempotencyStatus.IN_FLIGHT,
+                inFlightBefore, Limit.of(SWEEP_BATCH_SIZE))) {
+            try {
+                fundsReservationService.markUnknown(record.getHoldId());
+                markUnknown(record.getCustomerId(), record.getSessionId());
+                log.warn("Transfer claim {} was abandoned in flight; its hold {} awaits reconciliation",
+                    record.getSessionId(), record.getHoldId());
+            } catch (RuntimeException e) {
+                log.warn("Could not mark abandoned transfer claim {} as unknown: {}", record.getSessionId(),
+                    e.getMessage());
+            }
+        }
+        recordRepository.deleteExpired(now.minus(completedTtlMs, ChronoUnit.MILLIS), inFlightBefore);
+    }
+
+    /**
+     * Hashes what makes a transfer the same transfer: its accounts and amount. The amount is
+     * normalised so 100, 100.0 and 100.00 are one transfer.
+     */
+    static String fingerprint(BankTransferRequest request) {
+        BigDecimal amount = request.getAmount();
+        String key = String.join("|",
+            Objects.toString(request.getSourceAccountNumber(), ""),
+            Objects.toString(request.getDestinationAccountNumber(), ""),
+            Objects.toString(request.getDestinationBankCode(), ""),
+            amount == null ? "" : amount.stripTrailingZeros().toPlainString());
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private String writeResponse(BankTransferResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to store transfer response", e);
+        }
+    }
+
+    private BankTransferResponse readResponse(String json) {
+        try {
+            return objectMapper.readValue(json, BankTransferResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read stored transfer response", e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.accountService.service.interfaces;
+
+import java.math.BigDecimal;
+
+public interface AccountBalanceService {
+
+    /**
+     * Debits an account if its balance covers the amount. For a hot account the balance is the sum of
+     * its slots, so the debit succeeds whenever the slots hold enough between them.
+     *
+     * @param accountNumber Account to debit
+     * @param amount Amount to debit
+     * @return true if the account was debited, false if it does not exist or has insufficient funds
+     */
+    boolean debitIfSufficient(String accountNumber, BigDecimal amount);
+
+    /**
+     * Credits an account, or one of its slots if it is a hot account.
+     *
+     * @param accountNumber Account to credit
+     * @param amount Amount to credit
+     * @return true if the account was credited, false if it does not exist
+     */
+    boolean credit(String accountNumber, BigDecimal amount);
+
+    /**
+     * Spreads an account's balance over {@code slots} balance slots, for an account too busy for
+     * its debits and credits to queue on one row. The number of slots can be raised later, not lowered.
+     *
+     * @param accountNumber Account to spread
+     * @param slots Number of slots, at least 2
+     * @throws IllegalArgumentException if the account does not exist or the slot count is invalid
+     */
+    void enableBalanceSlots(String accountNumber, int slots);
+}
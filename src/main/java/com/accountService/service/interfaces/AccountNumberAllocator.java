@@ -0,0 +1,13 @@
+package com.accountService.service.interfaces;
+
+public interface AccountNumberAllocator {
+
+    /**
+     * Allocates a new 10-digit NUBAN account number.
+     * Numbers are unique across every node sharing the database and are never reissued.
+     *
+     * @return The allocated account number: a 9-digit serial followed by its check digit
+     * @throws IllegalStateException if the serial number space is exhausted
+     */
+    String allocate();
+}
@@ -11,6 +11,8 @@ import java.util.UUID;
 import com.accountService.dto.response.CustomerDashBoardResponse;
 import com.accountService.dto.request.BankTransferRequest;
 import com.accountService.dto.response.BankTransferResponse;
+import com.accountService.dto.response.PaymentHistoryPageResponse;
+import com.accountService.dto.response.TransferStatusResponse;
 
 public interface AccountService {
 
@@ -54,6 +56,17 @@ public interface AccountService {
      */
     List<MakePaymentResponse> getPaymentHistory(UUID customerId);
 
+    /**
+     * Retrieves one page of a customer's payments and transfers from the local ledger, newest first.
+     *
+     * @param customerId Unique identifier of the customer
+     * @param cursor Cursor returned with the previous page, or null for the first page
+     * @param size Maximum number of transactions to return
+     * @return Page of transactions with the cursor for the next page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    PaymentHistoryPageResponse getPaymentHistoryPage(UUID customerId, String cursor, int size);
+
     /**
      * Retrieves customer dashboard information including personal details,
      * account balance, status and transaction history.
@@ -66,10 +79,34 @@ public interface AccountService {
 
     /**
      * Initiates a bank transfer for a customer.
+     * Submissions with the same customer and session id are processed once; repeats receive
+     * the response of the first.
      *
      * @param request Contains transfer details including amount, source and destination accounts
      * @return Response containing transfer transaction details
+     * @throws TransferInProgressException if the same session is still being processed
      * @throws RuntimeException if transfer processing fails or customer not found
      */
     BankTransferResponse bankTransfer(BankTransferRequest request);
+
+    /**
+     * Accepts a bank transfer for asynchronous processing.
+     * The request is validated and the funds are held before it is accepted; delivery to the
+     * bank service happens in the background.
+     *
+     * @param request Contains transfer details including amount, source and destination accounts
+     * @return The accepted transfer with the reference to poll for its outcome
+     * @throws TransferInProgressException if a concurrent submission with the same session id was accepted first
+     * @throws RuntimeException if validation fails, customer not found or funds are insufficient
+     */
+    TransferStatusResponse submitBankTransfer(BankTransferRequest request);
+
+    /**
+     * Retrieves the status of an asynchronous bank transfer.
+     *
+     * @param reference Reference returned when the transfer was accepted
+     * @return Transfer status, including the bank reference once completed
+     * @throws RuntimeException if no transfer has that reference
+     */
+    TransferStatusResponse getBankTransferStatus(UUID reference);
 }
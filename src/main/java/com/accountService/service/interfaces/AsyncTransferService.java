@@ -0,0 +1,45 @@
+package com.accountService.service.interfaces;
+
+import com.accountService.dto.request.BankTransferRequest;
+import com.accountService.dto.response.TransferStatusResponse;
+
+import java.util.UUID;
+
+public interface AsyncTransferService {
+
+    /**
+     * Accepts a validated transfer for background delivery to the bank service.
+     * The funds hold, the transfer record and its outbox message are written in one local transaction.
+     * A resubmission with the same customer and session id returns the existing transfer.
+     *
+     * @param request A validated transfer request
+     * @return The accepted transfer, whose reference can be polled for the outcome
+     * @throws IdempotencyKeyReusedException if the session id was already used for a different transfer
+     * @throws RuntimeException if the source account cannot cover the amount
+     */
+    TransferStatusResponse submit(BankTransferRequest request);
+
+    /**
+     * Retrieves the current state of an asynchronous transfer.
+     *
+     * @param reference Reference returned when the transfer was accepted
+     * @return The transfer status, including the bank reference once completed
+     * @throws RuntimeException if no transfer has that reference
+     */
+    TransferStatusResponse getStatus(UUID reference);
+
+    /**
+     * Delivers one batch of due outbox messages to the bank service and settles the outcomes.
+     *
+     * @return Number of messages taken from the outbox
+     */
+    int dispatchDue();
+
+    /**
+     * Records the outcome of a transfer of unknown outcome once its funds hold has been reconciled.
+     *
+     * @param holdId Identifier of the reconciled hold
+     * @param transferred Whether the bank carried out the transfer
+     */
+    void holdResolved(UUID holdId, boolean transferred);
+}
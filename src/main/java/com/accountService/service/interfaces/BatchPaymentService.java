@@ -0,0 +1,33 @@
+package com.accountService.service.interfaces;
+
+import com.accountService.dto.request.MakePaymentRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+public interface BatchPaymentService {
+
+    /**
+     * Checks that a batch can be processed, before any result is streamed.
+     *
+     * @param payments The payments to process
+     * @throws IllegalArgumentException if the batch is empty or larger than {@code payment.batch.max-size}
+     */
+    void validate(List<MakePaymentRequest> payments);
+
+    /**
+     * Processes a batch of payments, writing one BatchPaymentResult per payment as NDJSON as soon as
+     * it completes. Results arrive in completion order; each carries the index of its payment in the batch.
+     * <p>
+     * Payments carry no idempotency key, so a batch must never be resubmitted: every payment in it would be
+     * made again. A payment reported as failed may still have reached the payment service (a timeout, for
+     * example), so it should only be resent once the customer's payment history shows it was not made.
+     *
+     * @param payments The payments to process
+     * @param results Stream the NDJSON results are written and flushed to
+     * @throws IllegalArgumentException if the batch is empty or larger than {@code payment.batch.max-size}
+     * @throws IOException if the results cannot be written, for example because the client went away
+     */
+    void process(List<MakePaymentRequest> payments, OutputStream results) throws IOException;
+}
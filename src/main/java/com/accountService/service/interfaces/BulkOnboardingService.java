@@ -0,0 +1,33 @@
+package com.accountService.service.interfaces;
+
+import com.accountService.dto.response.BulkOnboardingJobResponse;
+import org.springframework.http.MediaType;
+
+import java.io.InputStream;
+import java.util.UUID;
+
+public interface BulkOnboardingService {
+
+    /**
+     * Accepts a file of onboarding records and starts processing it in the background.
+     * The upload is spooled to disk first, so the request completes as soon as it has been received.
+     * The job is tracked only by the instance that accepted it, so it must be polled there.
+     *
+     * @param records NDJSON or CSV stream of OnBoardCustomerRequest records
+     * @param format application/x-ndjson or text/csv
+     * @return The queued job, whose id can be polled with {@link #getJob(UUID)}
+     * @throws IllegalArgumentException if the format is not supported
+     * @throws UploadTooLargeException if the upload is larger than {@code onboarding.bulk.max-upload-bytes}
+     * @throws IllegalStateException if too many jobs are already queued
+     */
+    BulkOnboardingJobResponse submit(InputStream records, MediaType format);
+
+    /**
+     * Reports the progress of a bulk onboarding job, including per-row failures.
+     *
+     * @param jobId Identifier returned by {@link #submit}
+     * @return Current status and counters of the job
+     * @throws RuntimeException if the job is unknown, has expired, or was accepted by another instance
+     */
+    BulkOnboardingJobResponse getJob(UUID jobId);
+}
@@ -0,0 +1,61 @@
+package com.accountService.service.interfaces;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public interface FundsReservationService {
+
+    /**
+     * Places a hold on an account, atomically debiting the amount if the balance covers it.
+     *
+     * @param accountNumber Account to hold funds on
+     * @param amount Amount to hold
+     * @return Identifier of the hold, used to commit or release it
+     * @throws RuntimeException if the account does not exist or has insufficient funds
+     */
+    UUID reserve(String accountNumber, BigDecimal amount);
+
+    /**
+     * Makes a hold permanent once the remote transfer has succeeded.
+     *
+     * @param holdId Identifier returned by {@link #reserve}
+     * @return true if the hold was committed by this call, false if it was already settled
+     */
+    boolean commit(UUID holdId);
+
+    /**
+     * Cancels a hold and credits the amount back to the account.
+     * Safe to call more than once; only the first call credits the account.
+     *
+     * @param holdId Identifier returned by {@link #reserve}
+     * @return true if the hold was released by this call, false if it was already settled
+     */
+    boolean release(UUID holdId);
+
+    /**
+     * Keeps a hold's funds debited after its transfer was sent without a known outcome, so neither
+     * the commit nor the release happens until the transfer is reconciled through {@link #resolve}.
+     *
+     * @param holdId Identifier returned by {@link #reserve}
+     * @return true if the hold was marked by this call, false if it was already settled
+     */
+    boolean markUnknown(UUID holdId);
+
+    /**
+     * Reconciles a hold whose transfer outcome was unknown, once the bank's records show it.
+     *
+     * @param holdId Identifier returned by {@link #reserve}
+     * @param transferred Whether the bank carried out the transfer: commits the hold if so, releases it otherwise
+     * @return true if the hold was settled by this call, false if it was not awaiting reconciliation
+     */
+    boolean resolve(UUID holdId, boolean transferred);
+
+    /**
+     * Marks holds left HELD by a node that died mid-transfer as UNKNOWN after {@code funds.hold.held-ttl},
+     * and reports UNKNOWN holds still unreconciled after {@code funds.hold.unknown-alert-after}. Never
+     * releases funds: whether the bank carried out such a transfer is only known once it is reconciled.
+     *
+     * @return Number of holds marked UNKNOWN
+     */
+    int reapExpired();
+}
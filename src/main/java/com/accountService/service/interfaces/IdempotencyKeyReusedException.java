@@ -0,0 +1,16 @@
+package com.accountService.service.interfaces;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a session id that was already used for one transfer is submitted with a different
+ * amount or destination. The client must choose a new session id for a new transfer.
+ */
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(String sessionId) {
+        super("Session " + sessionId + " was already used for a different transfer");
+    }
+}
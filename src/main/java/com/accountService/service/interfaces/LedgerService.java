@@ -0,0 +1,38 @@
+package com.accountService.service.interfaces;
+
+import com.accountService.dto.request.BankTransferRequest;
+import com.accountService.dto.response.BankTransferResponse;
+import com.accountService.dto.response.MakePaymentResponse;
+import com.accountService.dto.response.PaymentHistoryPageResponse;
+
+import java.util.UUID;
+
+public interface LedgerService {
+
+    /**
+     * Records the outcome of a payment processed by the payment service.
+     *
+     * @param customerId Customer who made the payment
+     * @param response Response returned by the payment service
+     */
+    void recordPayment(UUID customerId, MakePaymentResponse response);
+
+    /**
+     * Records the outcome of a bank transfer processed by the bank service.
+     *
+     * @param request The transfer that was submitted
+     * @param response Response returned by the bank service
+     */
+    void recordTransfer(BankTransferRequest request, BankTransferResponse response);
+
+    /**
+     * Returns one page of a customer's history, newest first.
+     *
+     * @param customerId Customer whose history is requested
+     * @param cursor Opaque cursor from the previous page, or null for the first page
+     * @param size Maximum number of entries to return
+     * @return The page, with the cursor for the next page or null if there are no more entries
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    PaymentHistoryPageResponse getHistory(UUID customerId, String cursor, int size);
+}
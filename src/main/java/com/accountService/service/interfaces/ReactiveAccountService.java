@@ -0,0 +1,64 @@
+package com.accountService.service.interfaces;
+
+import com.accountService.dto.request.AuthLoginRequest;
+import com.accountService.dto.request.BankTransferRequest;
+import com.accountService.dto.request.MakePaymentRequest;
+import com.accountService.dto.response.AuthLoginResponse;
+import com.accountService.dto.response.BankTransferResponse;
+import com.accountService.dto.response.CustomerDashBoardResponse;
+import com.accountService.dto.response.MakePaymentResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Non-blocking variant of the {@link AccountService} operations that call downstream services.
+ * Each method returns immediately; the work starts on subscription and no thread waits on a remote call.
+ */
+public interface ReactiveAccountService {
+
+    /**
+     * Authenticates a customer with the auth service.
+     *
+     * @param request Login credentials
+     * @return The auth service's response
+     */
+    Mono<AuthLoginResponse> authLogin(AuthLoginRequest request);
+
+    /**
+     * Retrieves a customer's payment history from the payment service.
+     *
+     * @param customerId Customer whose history is requested
+     * @return The payments, as returned by the payment service
+     */
+    Mono<List<MakePaymentResponse>> getPaymentHistory(UUID customerId);
+
+    /**
+     * Sends a payment to the payment service and records it in the ledger.
+     *
+     * @param request Payment details
+     * @return The payment service's response
+     * @throws RuntimeException signalled if the customer is not found or the payment fails
+     */
+    Mono<MakePaymentResponse> makePayment(MakePaymentRequest request);
+
+    /**
+     * Builds a customer's dashboard, with the same time budgets and degraded-history behaviour as
+     * {@link AccountService#getCustomerDashBoard}.
+     *
+     * @param customerId Customer whose dashboard is requested
+     * @return The dashboard
+     * @throws RuntimeException signalled if the customer or account is not found or their lookup times out
+     */
+    Mono<CustomerDashBoardResponse> getCustomerDashBoard(UUID customerId);
+
+    /**
+     * Holds the funds and sends a transfer to the bank service, with the same validation, idempotency
+     * and settlement as {@link AccountService#bankTransfer}.
+     *
+     * @param request Transfer details
+     * @return The bank service's response
+     */
+    Mono<BankTransferResponse> bankTransfer(BankTransferRequest request);
+}
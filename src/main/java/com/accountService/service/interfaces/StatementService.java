@@ -0,0 +1,42 @@
+package com.accountService.service.interfaces;
+
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.UUID;
+
+public interface StatementService {
+
+    /**
+     * Checks a statement request before any of it is streamed.
+     *
+     * @param from First day of the statement, inclusive
+     * @param to Last day of the statement, inclusive
+     * @param format text/csv or application/x-ndjson
+     * @throws IllegalArgumentException if the range or format is invalid
+     */
+    void validate(LocalDate from, LocalDate to, MediaType format);
+
+    /**
+     * Writes a customer's statement for a date range, oldest transaction first, as CSV with a header
+     * row or as NDJSON. Rows are read from the ledger a page at a time and streamed as they are read, so
+     * memory use does not depend on the size of the statement.
+     * <p>
+     * An interrupted download is resumed by passing the transaction id of the last row received as
+     * {@code after}; the export then continues with the row that follows it, and CSV omits the header.
+     *
+     * @param customerId Customer whose statement is exported
+     * @param from First day of the statement, inclusive
+     * @param to Last day of the statement, inclusive
+     * @param after Transaction id of the last row already received, or null to start from the beginning
+     * @param format text/csv or application/x-ndjson
+     * @param out Stream the statement is written to
+     * @throws IllegalArgumentException if the range or format is invalid, or {@code after} is not one of the customer's transactions
+     * @throws IOException if the statement cannot be written, for example because the client went away, or the
+     * export ran past {@code statement.export.max-duration} and has to be resumed
+     */
+    void export(UUID customerId, LocalDate from, LocalDate to, UUID after, MediaType format, OutputStream out)
+            throws IOException;
+}
@@ -0,0 +1,60 @@
+package com.accountService.service.interfaces;
+
+import com.accountService.dto.request.BankTransferRequest;
+import com.accountService.dto.response.BankTransferResponse;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface TransferIdempotencyService {
+
+    /**
+     * Claims the request's (customer, session) pair for a new transfer, recording the request's
+     * fingerprint so a retry can be told apart from a different transfer under the same session id.
+     *
+     * @param request Transfer to claim; its session id is the client-chosen id reused on every retry
+     * @return Empty if the caller now owns the claim and must process the transfer,
+     *         or the stored response if the transfer has already completed
+     * @throws TransferInProgressException if another submission holds the claim and has not completed,
+     *         or the outcome of the original submission is unknown
+     * @throws IdempotencyKeyReusedException if the session id was claimed for a different transfer
+     */
+    Optional<BankTransferResponse> claim(BankTransferRequest request);
+
+    /**
+     * Links a claim to the funds hold of its transfer. Must happen before the transfer is sent, so a
+     * claim left behind by a node that died mid-transfer can be reconciled through its hold.
+     *
+     * @param customerId Customer submitting the transfer
+     * @param sessionId Session id the claim was made with
+     * @param holdId Identifier of the transfer's funds hold
+     * @throws IllegalStateException if the claim is no longer in flight
+     */
+    void attachHold(UUID customerId, String sessionId, UUID holdId);
+
+    /**
+     * Stores the outcome of a claimed transfer so duplicates receive it.
+     *
+     * @param customerId Customer submitting the transfer
+     * @param sessionId Session id the claim was made with
+     * @param response Response returned by the bank service
+     */
+    void complete(UUID customerId, String sessionId, BankTransferResponse response);
+
+    /**
+     * Keeps a claim whose transfer may have reached the bank without an answer, so a retry is refused
+     * instead of sending the transfer again. The record is kept until its funds hold is reconciled.
+     *
+     * @param customerId Customer submitting the transfer
+     * @param sessionId Session id the claim was made with
+     */
+    void markUnknown(UUID customerId, String sessionId);
+
+    /**
+     * Gives up a claim whose transfer provably did not happen, so the client may retry it.
+     *
+     * @param customerId Customer submitting the transfer
+     * @param sessionId Session id the claim was made with
+     */
+    void abandon(UUID customerId, String sessionId);
+}
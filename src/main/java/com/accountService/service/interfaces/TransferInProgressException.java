@@ -0,0 +1,16 @@
+package com.accountService.service.interfaces;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a transfer is resubmitted while the original submission is still being processed.
+ * The client should retry later with the same session id to receive the original outcome.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class TransferInProgressException extends RuntimeException {
+
+    public TransferInProgressException(String sessionId) {
+        super("Transfer for session " + sessionId + " is already in progress");
+    }
+}
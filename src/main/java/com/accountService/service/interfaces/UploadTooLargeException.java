@@ -0,0 +1,15 @@
+package com.accountService.service.interfaces;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when an upload is larger than the service accepts. Nothing from the upload is processed.
+ */
+@ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+public class UploadTooLargeException extends RuntimeException {
+
+    public UploadTooLargeException(long maxBytes) {
+        super("Upload is larger than " + maxBytes + " bytes");
+    }
+}
@@ -0,0 +1,98 @@
+package com.accountService.cache;
+
+import com.accountService.H2DataJpaTest;
+import com.accountService.model.Account;
+import com.accountService.model.Customer;
+import com.accountService.model.repository.AccountRepository;
+import com.accountService.model.repository.CustomerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the cache against the database with a short negative TTL, so "not found" entries expire
+ * within the test while found ones do not.
+ */
+@H2DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AccountLookupCacheTest {
+
+	private static final String ACCOUNT_NUMBER = "0123456789";
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	private SimpleMeterRegistry meterRegistry;
+	private AccountLookupCache cache;
+
+	@BeforeEach
+	void setUp() {
+		accountRepository.deleteAll();
+		customerRepository.deleteAll();
+		meterRegistry = new SimpleMeterRegistry();
+		cache = new AccountLookupCache(accountRepository,
+				new MockEnvironment().withProperty("cache.lookup.negative-ttl", "200"), meterRegistry);
+	}
+
+	@Test
+	void repeatedLookupsAreServedFromTheCache() {
+		Account account = accountRepository.save(account());
+
+		assertThat(cache.find(ACCOUNT_NUMBER)).get().extracting(AccountIdentity::getCustomerId)
+				.isEqualTo(account.getCustomer().getId());
+		assertThat(cache.find(ACCOUNT_NUMBER)).isPresent();
+
+		assertThat(gets("hit")).isEqualTo(1);
+		assertThat(gets("miss")).isEqualTo(1);
+	}
+
+	@Test
+	void notFoundResultsExpireAfterTheNegativeTtl() throws Exception {
+		assertThat(cache.find(ACCOUNT_NUMBER)).isEmpty();
+		accountRepository.save(account());
+		assertThat(cache.find(ACCOUNT_NUMBER)).isEmpty();
+
+		Thread.sleep(400);
+
+		assertThat(cache.find(ACCOUNT_NUMBER)).isPresent();
+	}
+
+	@Test
+	void invalidatedAccountsAreLookedUpAgain() {
+		assertThat(cache.find(ACCOUNT_NUMBER)).isEmpty();
+		accountRepository.save(account());
+
+		cache.invalidate(ACCOUNT_NUMBER);
+
+		assertThat(cache.find(ACCOUNT_NUMBER)).isPresent();
+	}
+
+	private double gets(String result) {
+		return meterRegistry.get("cache.gets").tags("cache", "account.lookup", "result", result)
+				.functionCounter().count();
+	}
+
+	private static Account account() {
+		return Account.builder()
+				.accountNumber(ACCOUNT_NUMBER)
+				.customer(Customer.builder()
+						.firstName("Ada")
+						.lastName("Obi")
+						.email("ada@example.com")
+						.phoneNumber("08000000000")
+						.build())
+				.balance(new BigDecimal("5000.00"))
+				.build();
+	}
+}
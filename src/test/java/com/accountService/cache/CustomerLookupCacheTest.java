@@ -0,0 +1,76 @@
+package com.accountService.cache;
+
+import com.accountService.H2DataJpaTest;
+import com.accountService.model.Customer;
+import com.accountService.model.repository.AccountRepository;
+import com.accountService.model.repository.CustomerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@H2DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CustomerLookupCacheTest {
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	private SimpleMeterRegistry meterRegistry;
+	private CustomerLookupCache cache;
+
+	@BeforeEach
+	void setUp() {
+		accountRepository.deleteAll();
+		customerRepository.deleteAll();
+		meterRegistry = new SimpleMeterRegistry();
+		cache = new CustomerLookupCache(customerRepository, new MockEnvironment(), meterRegistry);
+	}
+
+	@Test
+	void repeatedLookupsAreServedFromTheCache() {
+		UUID customerId = customerRepository.save(customer("ada@example.com")).getId();
+
+		assertThat(cache.find(customerId)).get().extracting(CustomerIdentity::getFirstName).isEqualTo("Ada");
+		customerRepository.deleteAll();
+
+		assertThat(cache.find(customerId)).isPresent();
+		assertThat(gets("hit")).isEqualTo(1);
+		assertThat(gets("miss")).isEqualTo(1);
+	}
+
+	@Test
+	void invalidatedCustomersAreLookedUpAgain() {
+		UUID customerId = customerRepository.save(customer("ada@example.com")).getId();
+		assertThat(cache.find(customerId)).isPresent();
+		customerRepository.deleteAll();
+
+		cache.invalidate(customerId);
+
+		assertThat(cache.find(customerId)).isEmpty();
+	}
+
+	private double gets(String result) {
+		return meterRegistry.get("cache.gets").tags("cache", "customer.lookup", "result", result)
+				.functionCounter().count();
+	}
+
+	private static Customer customer(String email) {
+		return Customer.builder()
+				.firstName("Ada")
+				.lastName("Obi")
+				.email(email)
+				.phoneNumber("08000000000")
+				.build();
+	}
+}
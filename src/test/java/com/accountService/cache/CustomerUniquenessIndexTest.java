@@ -0,0 +1,102 @@
+package com.accountService.cache;
+
+import com.accountService.H2DataJpaTest;
+import com.accountService.model.Customer;
+import com.accountService.model.repository.CustomerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@H2DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CustomerUniquenessIndexTest {
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private SimpleMeterRegistry meterRegistry;
+	private CustomerUniquenessIndex index;
+
+	@BeforeEach
+	void setUp() {
+		customerRepository.deleteAll();
+		List<Customer> customers = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			customers.add(customer(i));
+		}
+		customerRepository.saveAll(customers);
+		meterRegistry = new SimpleMeterRegistry();
+		index = new CustomerUniquenessIndex(customerRepository, transactionManager,
+				new MockEnvironment().withProperty("onboarding.uniqueness.expected-customers", "10000"), meterRegistry);
+	}
+
+	@Test
+	void answersNewValuesWithoutQueryingOnceBuilt() {
+		assertThat(index.mightExist(CustomerKey.EMAIL, "new@example.com")).isTrue();
+
+		index.rebuild();
+
+		assertThat(index.mightExist(CustomerKey.EMAIL, "customer42@example.com")).isTrue();
+		assertThat(index.mightExist(CustomerKey.NIN, "NIN-43")).isTrue();
+		int possibleHits = 0;
+		for (int i = 0; i < 10000; i++) {
+			if (index.mightExist(CustomerKey.PHONE_NUMBER, "0900" + i)) {
+				possibleHits++;
+			}
+		}
+		assertThat(possibleHits).isLessThan(200);
+		assertThat(meterRegistry.get("onboarding.uniqueness.filter.bytes").tag("key", "email").gauge().value())
+				.isGreaterThan(0);
+		assertThat(meterRegistry.get("onboarding.uniqueness.filter.fpp").tag("key", "email").gauge().value())
+				.isLessThan(0.01);
+	}
+
+	@Test
+	void confirmsPossibleHitsAgainstTheDatabase() {
+		index.rebuild();
+
+		Customer clash = customer(5000);
+		clash.setPhoneNumber(customer(7).getPhoneNumber());
+		assertThat(index.findTaken(clash)).contains(CustomerKey.PHONE_NUMBER);
+		assertThat(index.findTaken(customer(5001))).isEmpty();
+		assertThat(meterRegistry.get("onboarding.uniqueness.checks")
+				.tags("key", "phone_number", "outcome", "duplicate").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void addedCustomersAreSeenUntilTheNextRebuild() {
+		index.rebuild();
+		Customer added = customerRepository.save(customer(9000));
+		index.add(added);
+
+		assertThat(index.mightExist(CustomerKey.BVN, added.getBvn())).isTrue();
+		assertThat(index.findTaken(customer(9000))).contains(CustomerKey.EMAIL);
+
+		index.rebuild();
+		assertThat(index.mightExist(CustomerKey.BVN, added.getBvn())).isTrue();
+	}
+
+	private static Customer customer(int i) {
+		return Customer.builder()
+				.firstName("Ada")
+				.lastName("Obi")
+				.email("customer" + i + "@example.com")
+				.bvn(i % 2 == 0 ? "BVN-" + i : null)
+				.nin(i % 2 == 0 ? null : "NIN-" + i)
+				.phoneNumber("0800" + i)
+				.build();
+	}
+}
@@ -0,0 +1,185 @@
+package com.accountService.client;
+
+import com.accountService.dto.request.MakePaymentRequest;
+import com.accountService.dto.response.MakePaymentResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.MediaType;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the pooled, guarded clients against a local stub that can be told to fail or stall.
+ */
+class DownstreamClientsTest {
+
+	private HttpServer stub;
+	private ExecutorService stubExecutor;
+	private final AtomicInteger hits = new AtomicInteger();
+	private final AtomicReference<String> paymentContentType = new AtomicReference<>();
+	private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory()).findAndRegisterModules();
+	private volatile int status = 200;
+	private volatile CountDownLatch stall = new CountDownLatch(0);
+	private DownstreamClients downstreamClients;
+	private SimpleMeterRegistry meterRegistry;
+	private String url;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		stubExecutor = Executors.newCachedThreadPool();
+		stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		stub.setExecutor(stubExecutor);
+		stub.createContext("/", exchange -> {
+			hits.incrementAndGet();
+			try {
+				stall.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			byte[] body = "{\"status\":\"SUCCESS\"}".getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(status, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		stub.createContext("/process", exchange -> {
+			paymentContentType.set(exchange.getRequestHeaders().getFirst("Content-Type"));
+			MakePaymentRequest request = cborMapper.readValue(exchange.getRequestBody(), MakePaymentRequest.class);
+			MakePaymentResponse response = new MakePaymentResponse();
+			response.setAmount(request.getAmount());
+			response.setStatus("SUCCESS");
+			byte[] body = cborMapper.writeValueAsBytes(response);
+			exchange.getResponseHeaders().add("Content-Type", "application/cbor");
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		stub.start();
+		url = "http://127.0.0.1:" + stub.getAddress().getPort() + "/bank-transfer";
+
+		MockEnvironment environment = new MockEnvironment()
+				.withProperty("api.bank.circuit-breaker.sliding-window-size", "10")
+				.withProperty("api.bank.circuit-breaker.minimum-calls", "5")
+				.withProperty("api.bank.circuit-breaker.wait-in-open", "60000")
+				.withProperty("api.bank.bulkhead.max-concurrent", "2")
+				.withProperty("api.payment.client.wire-format", "cbor");
+		meterRegistry = new SimpleMeterRegistry();
+		downstreamClients = new DownstreamClients(environment, new RestTemplateBuilder(), meterRegistry);
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		stall.countDown();
+		downstreamClients.destroy();
+		stub.stop(0);
+		stubExecutor.shutdownNow();
+	}
+
+	@Test
+	void opensCircuitOnServerErrorsAndThenFailsFast() {
+		RestTemplate bank = downstreamClients.restTemplate(Downstream.BANK);
+		status = 500;
+
+		for (int i = 0; i < 5; i++) {
+			assertThatThrownBy(() -> bank.postForObject(url, "{}", String.class))
+					.isInstanceOf(HttpServerErrorException.class);
+		}
+		assertThat(downstreamClients.circuitState(Downstream.BANK)).isEqualTo(CircuitBreaker.State.OPEN);
+
+		int hitsWhenOpened = hits.get();
+		assertThatThrownBy(() -> bank.postForObject(url, "{}", String.class))
+				.isInstanceOf(DownstreamUnavailableException.class)
+				.hasMessageContaining("circuit open");
+		assertThat(hits.get()).isEqualTo(hitsWhenOpened);
+		assertThat(meterRegistry.get("downstream.rejected").tag("reason", "circuit_open").counter().count())
+				.isEqualTo(1);
+		// Other downstreams keep their own, still closed, circuits
+		assertThat(downstreamClients.circuitState(Downstream.PAYMENT)).isEqualTo(CircuitBreaker.State.CLOSED);
+	}
+
+	@Test
+	void clientErrorsDoNotOpenTheCircuit() {
+		RestTemplate bank = downstreamClients.restTemplate(Downstream.BANK);
+		status = 400;
+
+		for (int i = 0; i < 10; i++) {
+			assertThatThrownBy(() -> bank.postForObject(url, "{}", String.class));
+		}
+		assertThat(downstreamClients.circuitState(Downstream.BANK)).isEqualTo(CircuitBreaker.State.CLOSED);
+	}
+
+	@Test
+	void bulkheadRejectsCallsBeyondItsConcurrencyLimit() throws Exception {
+		RestTemplate bank = downstreamClients.restTemplate(Downstream.BANK);
+		stall = new CountDownLatch(1);
+
+		CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> bank.postForObject(url, "{}", String.class));
+		CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> bank.postForObject(url, "{}", String.class));
+		while (hits.get() < 2) {
+			Thread.sleep(10);
+		}
+
+		assertThatThrownBy(() -> bank.postForObject(url, "{}", String.class))
+				.isInstanceOf(DownstreamUnavailableException.class)
+				.hasMessageContaining("too many concurrent calls");
+
+		stall.countDown();
+		assertThat(first.get(5, TimeUnit.SECONDS)).contains("SUCCESS");
+		assertThat(second.get(5, TimeUnit.SECONDS)).contains("SUCCESS");
+	}
+
+	@Test
+	void timesCallsByDownstreamAndOutcome() {
+		RestTemplate bank = downstreamClients.restTemplate(Downstream.BANK);
+
+		bank.postForObject(url, "{}", String.class);
+		status = 503;
+		assertThatThrownBy(() -> bank.postForObject(url, "{}", String.class))
+				.isInstanceOf(HttpServerErrorException.class);
+
+		assertThat(meterRegistry.get("downstream.requests")
+				.tags("downstream", "bank", "method", "POST", "outcome", "SUCCESS").timer().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("downstream.requests")
+				.tags("downstream", "bank", "method", "POST", "outcome", "SERVER_ERROR").timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	void exchangesBodiesInTheDownstreamsWireFormat() {
+		MakePaymentRequest request = new MakePaymentRequest();
+		request.setAmount(new BigDecimal("1500.25"));
+
+		MakePaymentResponse response = downstreamClients.restTemplate(Downstream.PAYMENT).postForObject(
+				url.replace("/bank-transfer", "/process"),
+				new HttpEntity<>(request, downstreamClients.headers(Downstream.PAYMENT)), MakePaymentResponse.class);
+
+		assertThat(paymentContentType.get()).isEqualTo("application/cbor");
+		assertThat(response.getAmount()).isEqualByComparingTo("1500.25");
+		assertThat(downstreamClients.headers(Downstream.BANK).getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+	}
+}
@@ -0,0 +1,128 @@
+package com.accountService.client;
+
+import com.accountService.dto.response.MakePaymentResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PaymentHistoryCoalescerTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final ExecutorService executor = Executors.newFixedThreadPool(8);
+	private final AtomicInteger calls = new AtomicInteger();
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void concurrentCallersForACustomerShareOneCall() throws Exception {
+		PaymentHistoryCoalescer coalescer = coalescer("0");
+		UUID customerId = UUID.randomUUID();
+		List<MakePaymentResponse> history = List.of(new MakePaymentResponse());
+		CountDownLatch release = new CountDownLatch(1);
+
+		List<Future<List<MakePaymentResponse>>> results = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			results.add(executor.submit(() -> coalescer.fetch(customerId, () -> {
+				calls.incrementAndGet();
+				await(release);
+				return history;
+			})));
+		}
+		while (fetches("in_flight") < 7) {
+			Thread.sleep(5);
+		}
+		release.countDown();
+
+		for (Future<List<MakePaymentResponse>> result : results) {
+			assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(history);
+		}
+		assertThat(calls).hasValue(1);
+		assertThat(meterRegistry.get("payment.history.coalesce.ratio").gauge().value()).isEqualTo(7.0 / 8);
+
+		coalescer.fetch(customerId, () -> {
+			calls.incrementAndGet();
+			return history;
+		});
+		assertThat(calls).hasValue(2);
+	}
+
+	@Test
+	void joinedCallersSeeTheFailureAndTheNextFetchRetries() throws Exception {
+		PaymentHistoryCoalescer coalescer = coalescer("60000");
+		UUID customerId = UUID.randomUUID();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		Future<List<MakePaymentResponse>> leader = executor.submit(() -> coalescer.fetch(customerId, () -> {
+			started.countDown();
+			await(release);
+			throw new DownstreamUnavailableException(Downstream.PAYMENT, "circuit open");
+		}));
+		await(started);
+		Future<List<MakePaymentResponse>> follower = executor.submit(() -> coalescer.fetch(customerId, this::countedHistory));
+		while (fetches("in_flight") < 1) {
+			Thread.sleep(5);
+		}
+		release.countDown();
+
+		assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(DownstreamUnavailableException.class);
+		assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(DownstreamUnavailableException.class);
+		assertThat(calls).hasValue(0);
+		assertThat(coalescer.fetch(customerId, this::countedHistory)).hasSize(1);
+		assertThat(calls).hasValue(1);
+	}
+
+	@Test
+	void reusesAResultWithinTheWindowUntilInvalidated() {
+		PaymentHistoryCoalescer coalescer = coalescer("60000");
+		UUID customerId = UUID.randomUUID();
+
+		coalescer.fetch(customerId, this::countedHistory);
+		coalescer.fetch(customerId, this::countedHistory);
+		assertThat(calls).hasValue(1);
+		assertThat(fetches("recent")).isEqualTo(1);
+
+		coalescer.invalidate(customerId);
+		coalescer.fetch(customerId, this::countedHistory);
+		assertThat(calls).hasValue(2);
+	}
+
+	private PaymentHistoryCoalescer coalescer(String window) {
+		return new PaymentHistoryCoalescer(
+				new MockEnvironment().withProperty("api.payment.history.coalesce.window", window), meterRegistry);
+	}
+
+	private List<MakePaymentResponse> countedHistory() {
+		calls.incrementAndGet();
+		return List.of(new MakePaymentResponse());
+	}
+
+	private double fetches(String source) {
+		return meterRegistry.get("payment.history.fetches").tag("source", source).counter().count();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
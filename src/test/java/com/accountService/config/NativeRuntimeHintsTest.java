@@ -0,0 +1,47 @@
+package com.accountService.config;
+
+import com.accountService.dto.response.BankTransferResponse;
+import com.accountService.model.Customer;
+import com.accountService.model.projection.CustomerIdentityView;
+import com.accountService.ratelimit.SharedTokenBucketStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.SpringProxy;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.core.DecoratingProxy;
+import org.springframework.data.projection.TargetAware;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NativeRuntimeHintsTest {
+
+	private final RuntimeHints hints = new RuntimeHints();
+
+	NativeRuntimeHintsTest() {
+		new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+	}
+
+	@Test
+	void registersBindingEntityAndProjectionHints() throws Exception {
+		assertThat(RuntimeHintsPredicates.reflection().onMethod(BankTransferResponse.class.getMethod("getStatus")))
+				.accepts(hints);
+		assertThat(RuntimeHintsPredicates.reflection().onType(Customer.class)
+				.withMemberCategories(MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS))
+				.accepts(hints);
+		assertThat(RuntimeHintsPredicates.proxies().forInterfaces(CustomerIdentityView.class, TargetAware.class,
+				SpringProxy.class, DecoratingProxy.class)).accepts(hints);
+		assertThat(RuntimeHintsPredicates.reflection().onMethod(SharedTokenBucketStore.class.getMethod("deleteIdleBuckets")))
+				.accepts(hints);
+	}
+
+	@Test
+	void registersJjwtImplementationsAndServiceFiles() {
+		assertThat(RuntimeHintsPredicates.reflection()
+				.onType(TypeReference.of("io.jsonwebtoken.impl.DefaultJwtParserBuilder"))
+				.withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+		assertThat(RuntimeHintsPredicates.resource().forResource("META-INF/services/io.jsonwebtoken.io.Deserializer"))
+				.accepts(hints);
+	}
+}
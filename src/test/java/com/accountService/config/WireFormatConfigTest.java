@@ -0,0 +1,74 @@
+package com.accountService.config;
+
+import com.accountService.dto.response.CustomerDashBoardResponse;
+import com.accountService.dto.response.MakePaymentResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WireFormatConfigTest {
+
+	private final WireFormatConfig config = new WireFormatConfig();
+
+	@Test
+	void keepsJsonAheadOfTheBinaryFormats() {
+		List<HttpMessageConverter<?>> converters = new HttpMessageConverters(
+				config.cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json()),
+				config.smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json())).getConverters();
+
+		int json = indexOf(converters, MappingJackson2HttpMessageConverter.class);
+		assertThat(json).isGreaterThanOrEqualTo(0);
+		assertThat(indexOf(converters, MappingJackson2CborHttpMessageConverter.class)).isGreaterThan(json);
+		assertThat(indexOf(converters, MappingJackson2SmileHttpMessageConverter.class)).isGreaterThan(json);
+	}
+
+	@Test
+	void cborRoundTripsTheDashboardInFewerBytesThanJson() throws Exception {
+		List<MakePaymentResponse> transactions = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			MakePaymentResponse transaction = new MakePaymentResponse();
+			transaction.setTransactionId(UUID.randomUUID());
+			transaction.setAmount(BigDecimal.valueOf(1000 + i, 2));
+			transaction.setStatus("SUCCESS");
+			transaction.setCreatedAt(LocalDateTime.of(2024, 3, 1, 9, 30).minusMinutes(i));
+			transactions.add(transaction);
+		}
+		CustomerDashBoardResponse dashboard = CustomerDashBoardResponse.builder()
+				.customerName("Ada Obi")
+				.accountNumber("0123456789")
+				.balance(new BigDecimal("250000.00"))
+				.transactions(transactions)
+				.build();
+		ObjectMapper cbor = WireFormatConfig.binaryMapper(Jackson2ObjectMapperBuilder.json(), new CBORFactory());
+
+		byte[] encoded = cbor.writeValueAsBytes(dashboard);
+		CustomerDashBoardResponse decoded = cbor.readValue(encoded, CustomerDashBoardResponse.class);
+
+		assertThat(decoded).isEqualTo(dashboard);
+		assertThat(encoded.length)
+				.isLessThan(Jackson2ObjectMapperBuilder.json().build().writeValueAsBytes(dashboard).length);
+	}
+
+	private static int indexOf(List<HttpMessageConverter<?>> converters, Class<?> type) {
+		for (int i = 0; i < converters.size(); i++) {
+			if (type.isInstance(converters.get(i))) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,115 @@
+package com.accountService.controller;
+
+import com.accountService.ratelimit.AdmissionControlFilter;
+import com.accountService.ratelimit.LocalTokenBucketStore;
+import com.accountService.ratelimit.TokenBucketStore;
+import com.accountService.security.JwtPrincipalCache;
+import com.accountService.security.JwtTokenFilter;
+import com.accountService.security.JwtUtil;
+import com.accountService.security.SecurityConfig;
+import com.accountService.service.interfaces.AccountBalanceService;
+import com.accountService.service.interfaces.AsyncTransferService;
+import com.accountService.service.interfaces.FundsReservationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that balance slots can be enabled through the back-office API, and only by an ADMIN,
+ * with the application's security filter chain in place; the same chain keeps the actuator
+ * endpoints other than health to ADMINs.
+ */
+@WebMvcTest(AdminController.class)
+@Import({SecurityConfig.class, JwtTokenFilter.class, JwtPrincipalCache.class, JwtUtil.class,
+		AdmissionControlFilter.class, AdminControllerTest.Collaborators.class})
+class AdminControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockitoBean
+	private AccountBalanceService accountBalanceService;
+
+	@MockitoBean
+	private FundsReservationService fundsReservationService;
+
+	@MockitoBean
+	private AsyncTransferService asyncTransferService;
+
+	@Test
+	void adminEnablesBalanceSlots() throws Exception {
+		mockMvc.perform(post("/api/v1/admin/accounts/0123456789/balance-slots").param("slots", "8")
+						.with(user("ops").roles("ADMIN")))
+				.andExpect(status().isNoContent());
+
+		verify(accountBalanceService).enableBalanceSlots("0123456789", 8);
+	}
+
+	@Test
+	void invalidSlotCountIsABadRequest() throws Exception {
+		doThrow(new IllegalArgumentException("A hot account needs at least 2 balance slots"))
+				.when(accountBalanceService).enableBalanceSlots("0123456789", 1);
+
+		mockMvc.perform(post("/api/v1/admin/accounts/0123456789/balance-slots").param("slots", "1")
+						.with(user("ops").roles("ADMIN")))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void onlyAdminsCanEnableBalanceSlots() throws Exception {
+		mockMvc.perform(post("/api/v1/admin/accounts/0123456789/balance-slots").param("slots", "8")
+						.with(user("customer").roles("USER")))
+				.andExpect(status().isForbidden());
+		mockMvc.perform(post("/api/v1/admin/accounts/0123456789/balance-slots").param("slots", "8"))
+				.andExpect(status().isForbidden());
+
+		verify(accountBalanceService, never()).enableBalanceSlots(anyString(), anyInt());
+	}
+
+	@Test
+	void actuatorEndpointsOtherThanHealthAreAdminOnly() throws Exception {
+		mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isForbidden());
+		mockMvc.perform(get("/actuator/env").with(user("customer").roles("USER")))
+				.andExpect(status().isForbidden());
+		// The web slice has no actuator endpoints, so getting past security ends in a 404
+		mockMvc.perform(get("/actuator/prometheus").with(user("ops").roles("ADMIN")))
+				.andExpect(status().isNotFound());
+		mockMvc.perform(get("/actuator/health"))
+				.andExpect(status().isNotFound());
+	}
+
+	/**
+	 * Beans the security filter chain needs from outside the web slice.
+	 */
+	@TestConfiguration
+	static class Collaborators {
+
+		@Bean
+		SimpleMeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+
+		@Bean
+		TokenBucketStore tokenBucketStore(Environment environment) {
+			return new LocalTokenBucketStore(environment);
+		}
+	}
+}
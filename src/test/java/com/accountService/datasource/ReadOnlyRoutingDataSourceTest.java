@@ -0,0 +1,157 @@
+package com.accountService.datasource;
+
+import com.accountService.H2DataJpaTest;
+import com.accountService.config.ReplicaDataSourceConfig;
+import com.accountService.model.Account;
+import com.accountService.model.Customer;
+import com.accountService.model.projection.AccountBalanceView;
+import com.accountService.model.repository.AccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the replica routing against two H2 databases, the replica being a snapshot of the primary
+ * taken before the latest write, so every read shows which database served it.
+ */
+@H2DataJpaTest
+@TestPropertySource(properties = {
+		"datasource.replica.enabled=true",
+		"spring.datasource.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+		"datasource.replica.lag-query=select lag_ms from replica_lag"
+})
+@Import({ReplicaDataSourceConfig.class, ReplicaRouting.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReadOnlyRoutingDataSourceTest {
+
+	private static final BigDecimal REPLICATED_BALANCE = new BigDecimal("100.00");
+	private static final BigDecimal PRIMARY_BALANCE = new BigDecimal("150.00");
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private ReplicaRouting replicaRouting;
+
+	@Autowired
+	private ReplicaLagMonitor replicaLagMonitor;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	@Qualifier("primaryDataSource")
+	private DataSource primaryDataSource;
+
+	@Autowired
+	@Qualifier("replicaDataSource")
+	private DataSource replicaDataSource;
+
+	private UUID customerId;
+
+	@BeforeEach
+	void setUp() {
+		String accountNumber = String.valueOf(ThreadLocalRandom.current().nextLong(1_000_000_000L, 10_000_000_000L));
+		customerId = accountRepository.save(Account.builder()
+				.accountNumber(accountNumber)
+				.balance(REPLICATED_BALANCE)
+				.customer(Customer.builder()
+						.firstName("Ada")
+						.lastName("Obi")
+						.email(accountNumber + "@example.com")
+						.phoneNumber("0" + accountNumber)
+						.build())
+				.build()).getCustomer().getId();
+
+		replicate();
+		setReplicaLag(0L);
+		replicaLagMonitor.refresh();
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+				accountRepository.credit(accountNumber, new BigDecimal("50.00")));
+	}
+
+	@Test
+	void readOnlyLookupsAreServedByTheReplicaAndWritesByThePrimary() {
+		assertThat(balance()).isEqualByComparingTo(REPLICATED_BALANCE);
+
+		// Inside a read-write transaction the same lookup shares the primary connection
+		BigDecimal inWriteTransaction = new TransactionTemplate(transactionManager).execute(status -> balance());
+		assertThat(inWriteTransaction).isEqualByComparingTo(PRIMARY_BALANCE);
+	}
+
+	@Test
+	void customerReadsTheirOwnRecentWriteFromThePrimary() {
+		assertThat(replicaRouting.read(customerId, this::balance)).isEqualByComparingTo(REPLICATED_BALANCE);
+
+		replicaRouting.recordWrite(customerId);
+
+		assertThat(replicaRouting.read(customerId, this::balance)).isEqualByComparingTo(PRIMARY_BALANCE);
+		assertThat(balance()).isEqualByComparingTo(REPLICATED_BALANCE);
+	}
+
+	@Test
+	void laggingOrUnreachableReplicaIsTakenOutOfRotation() {
+		setReplicaLag(5000L);
+		replicaLagMonitor.refresh();
+		assertThat(replicaLagMonitor.isReplicaUsable()).isFalse();
+		assertThat(balance()).isEqualByComparingTo(PRIMARY_BALANCE);
+
+		setReplicaLag(0L);
+		replicaLagMonitor.refresh();
+		assertThat(balance()).isEqualByComparingTo(REPLICATED_BALANCE);
+
+		// A replica that stopped receiving has nothing left to replay, so it reports no lag at all
+		setReplicaLag(null);
+		replicaLagMonitor.refresh();
+		assertThat(replicaLagMonitor.getLagMs()).isEqualTo(-1);
+		assertThat(balance()).isEqualByComparingTo(PRIMARY_BALANCE);
+
+		setReplicaLag(0L);
+		replicaLagMonitor.refresh();
+		assertThat(balance()).isEqualByComparingTo(REPLICATED_BALANCE);
+
+		new JdbcTemplate(replicaDataSource).execute("drop table replica_lag");
+		replicaLagMonitor.refresh();
+		assertThat(replicaLagMonitor.getLagMs()).isEqualTo(-1);
+		assertThat(balance()).isEqualByComparingTo(PRIMARY_BALANCE);
+	}
+
+	private BigDecimal balance() {
+		return accountRepository.findBalanceByCustomerId(customerId)
+				.map(AccountBalanceView::getBalance)
+				.orElseThrow();
+	}
+
+	/**
+	 * Replaces the replica's contents with a snapshot of the primary.
+	 */
+	private void replicate() {
+		JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+		replica.execute("drop all objects");
+		new JdbcTemplate(primaryDataSource).queryForList("script", String.class).forEach(replica::execute);
+	}
+
+	private void setReplicaLag(Long lagMs) {
+		JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+		replica.execute("create table if not exists replica_lag (lag_ms bigint)");
+		replica.update("delete from replica_lag");
+		replica.update("insert into replica_lag values (?)", lagMs);
+	}
+}
@@ -0,0 +1,93 @@
+package com.accountService.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlFilterTest {
+
+	private static final String PROXY = "10.0.0.1";
+
+	// Refills so slowly that only the initial burst is available during a test
+	private final AdmissionControlFilter filter = new AdmissionControlFilter(
+			new LocalTokenBucketStore(new MockEnvironment()),
+			new MockEnvironment()
+					.withProperty("ratelimit.make-payment.customer.capacity", "2")
+					.withProperty("ratelimit.make-payment.customer.refill-per-second", "0.001")
+					.withProperty("ratelimit.make-payment-batch.customer.capacity", "1")
+					.withProperty("ratelimit.make-payment-batch.customer.refill-per-second", "0.001")
+					.withProperty("ratelimit.max-body-bytes", "1024"),
+			new SimpleMeterRegistry());
+
+	@Test
+	void customersBehindOneAddressHaveTheirOwnBuckets() throws Exception {
+		String ada = payment(UUID.randomUUID());
+		String obi = payment(UUID.randomUUID());
+
+		assertThat(status("/api/v1/customer/make-payment", ada)).isEqualTo(200);
+		assertThat(status("/api/v1/customer/make-payment", ada)).isEqualTo(200);
+		assertThat(status("/api/v2/customer/make-payment", ada)).isEqualTo(429);
+		assertThat(status("/api/v1/customer/make-payment", obi)).isEqualTo(200);
+	}
+
+	@Test
+	void requestBodyReachesTheEndpointIntact() throws Exception {
+		String body = payment(UUID.randomUUID());
+		MockFilterChain chain = new MockFilterChain();
+
+		filter.doFilter(request("/api/v1/customer/make-payment", body), new MockHttpServletResponse(), chain);
+
+		assertThat(chain.getRequest().getInputStream().readAllBytes())
+				.isEqualTo(body.getBytes(StandardCharsets.UTF_8));
+		assertThat(chain.getRequest().getContentLength()).isEqualTo(body.length());
+	}
+
+	@Test
+	void requestsWithoutACustomerFallBackToTheClientAddress() throws Exception {
+		assertThat(status("/api/v1/customer/make-payment", "{\"customerId\":\"not-a-uuid\"}")).isEqualTo(200);
+		assertThat(status("/api/v1/customer/make-payment", "not json")).isEqualTo(200);
+		assertThat(status("/api/v1/customer/make-payment", "{}")).isEqualTo(429);
+	}
+
+	@Test
+	void oversizedBodiesAreRejected() throws Exception {
+		String body = "{\"narration\":\"" + "x".repeat(2000) + "\",\"customerId\":\"" + UUID.randomUUID() + "\"}";
+
+		assertThat(status("/api/v1/customer/make-payment", body)).isEqualTo(413);
+	}
+
+	@Test
+	void batchesDrawFromTheirOwnBuckets() throws Exception {
+		String batch = "[" + payment(UUID.randomUUID()) + "]";
+
+		assertThat(status("/api/v1/customer/make-payment/batch", batch)).isEqualTo(200);
+		assertThat(status("/api/v1/customer/make-payment/batch", batch)).isEqualTo(429);
+		assertThat(status("/api/v1/customer/make-payment", payment(UUID.randomUUID()))).isEqualTo(200);
+	}
+
+	private int status(String path, String body) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request(path, body), response, new MockFilterChain());
+		return response.getStatus();
+	}
+
+	private static MockHttpServletRequest request(String path, String body) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+		request.setRemoteAddr(PROXY);
+		request.setContentType("application/json");
+		request.setContent(body.getBytes(StandardCharsets.UTF_8));
+		return request;
+	}
+
+	private static String payment(UUID customerId) {
+		return "{\"customerId\":\"" + customerId + "\",\"amount\":1500.00,\"paymentMethod\":\"CARD\"}";
+	}
+}
@@ -0,0 +1,105 @@
+package com.accountService.ratelimit;
+
+import com.accountService.H2DataJpaTest;
+import com.accountService.model.repository.RateLimitBucketRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@H2DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TokenBucketStoreTest {
+
+	// Refills so slowly that only the initial burst is available during a test
+	private static final RateLimit LIMIT = RateLimit.builder().capacity(10).refillPerSecond(0.001).build();
+
+	@Autowired
+	private RateLimitBucketRepository repository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final MockEnvironment environment = new MockEnvironment()
+			.withProperty("ratelimit.cluster.instances", "2");
+
+	@BeforeEach
+	void setUp() {
+		repository.deleteAll();
+	}
+
+	@Test
+	void localBucketGrantsExactlyItsCapacityUnderContention() throws Exception {
+		LocalTokenBucketStore store = new LocalTokenBucketStore(environment);
+
+		assertThat(grantedConcurrently(() -> store.tryAcquire("make-payment:user:ada", LIMIT))).isEqualTo(10);
+		assertThat(store.tryAcquire("make-payment:user:ada", LIMIT)).isPositive();
+		assertThat(store.tryAcquire("make-payment:user:obi", LIMIT)).isZero();
+	}
+
+	@Test
+	void instancesShareOneBucketThroughTheDatabase() throws Exception {
+		SharedTokenBucketStore first = sharedStore();
+		SharedTokenBucketStore second = sharedStore();
+
+		int granted = grantedConcurrently(() -> first.tryAcquire("bank-transfer:user:ada", LIMIT))
+				+ grantedConcurrently(() -> second.tryAcquire("bank-transfer:user:ada", LIMIT));
+
+		assertThat(granted).isEqualTo(10);
+		assertThat(repository.count()).isEqualTo(1);
+	}
+
+	@Test
+	void fallsBackToItsShareOfTheLimitWhenTheDatabaseIsUnavailable() {
+		SharedTokenBucketStore store = sharedStore();
+		jdbcTemplate.execute("alter table rate_limit_bucket rename to rate_limit_bucket_offline");
+		try {
+			int granted = 0;
+			for (int i = 0; i < 10; i++) {
+				if (store.tryAcquire("bank-transfer:user:ada", LIMIT) == 0) {
+					granted++;
+				}
+			}
+			assertThat(granted).isEqualTo(5);
+		} finally {
+			jdbcTemplate.execute("alter table rate_limit_bucket_offline rename to rate_limit_bucket");
+		}
+	}
+
+	private SharedTokenBucketStore sharedStore() {
+		return new SharedTokenBucketStore(repository, new LocalTokenBucketStore(environment), environment,
+				new SimpleMeterRegistry());
+	}
+
+	private static int grantedConcurrently(Callable<Long> attempt) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Long>> results = new ArrayList<>();
+			for (int i = 0; i < 40; i++) {
+				results.add(executor.submit(attempt));
+			}
+			int granted = 0;
+			for (Future<Long> result : results) {
+				if (result.get() == 0) {
+					granted++;
+				}
+			}
+			return granted;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,182 @@
+package com.accountService.service.implementation;
+
+import com.accountService.H2DataJpaTest;
+import com.accountService.model.Account;
+import com.accountService.model.AccountBalanceSlot;
+import com.accountService.model.Customer;
+import com.accountService.model.repository.AccountBalanceSlotRepository;
+import com.accountService.model.repository.AccountRepository;
+import com.accountService.model.repository.CustomerRepository;
+import com.accountService.model.repository.FundsHoldRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@H2DataJpaTest
+@Import({FundsReservationServiceImpl.class, AccountBalanceServiceImpl.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AccountBalanceServiceImplTest {
+
+	private static final String ACCOUNT_NUMBER = "0123456789";
+	private static final int MAX_DEADLOCK_RETRIES = 20;
+
+	@Autowired
+	private AccountBalanceServiceImpl accountBalanceService;
+
+	@Autowired
+	private FundsReservationServiceImpl fundsReservationService;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private AccountBalanceSlotRepository slotRepository;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private FundsHoldRepository fundsHoldRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private UUID customerId;
+
+	@BeforeEach
+	void setUp() {
+		fundsHoldRepository.deleteAll();
+		slotRepository.deleteAll();
+		accountRepository.deleteAll();
+		customerRepository.deleteAll();
+
+		customerId = accountRepository.save(Account.builder()
+				.accountNumber(ACCOUNT_NUMBER)
+				.customer(Customer.builder()
+						.firstName("Ada")
+						.lastName("Obi")
+						.email("ada@example.com")
+						.phoneNumber("08000000000")
+						.build())
+				.balance(new BigDecimal("5000.00"))
+				.build()).getCustomer().getId();
+		accountBalanceService.enableBalanceSlots(ACCOUNT_NUMBER, 8);
+	}
+
+	@Test
+	void enablingSlotsSpreadsTheBalanceWithoutChangingIt() {
+		assertThat(slotRepository.findAll()).hasSize(8)
+				.allSatisfy(slot -> assertThat(slot.getBalance()).isEqualByComparingTo("625.00"));
+		assertThat(balance()).isEqualByComparingTo("5000.00");
+		assertThatThrownBy(() -> accountBalanceService.enableBalanceSlots(ACCOUNT_NUMBER, 4))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void concurrentReservationsOnSlotsNeverOverdrawOrLoseUpdates() throws Exception {
+		int threads = 16;
+		int attemptsPerThread = 50;
+		BigDecimal amount = new BigDecimal("10.00");
+
+		AtomicInteger insufficient = new AtomicInteger();
+		ConcurrentLinkedQueue<UUID> committed = new ConcurrentLinkedQueue<>();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Future<?>> tasks = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			tasks.add(executor.submit(() -> {
+				start.await();
+				for (int i = 0; i < attemptsPerThread; i++) {
+					try {
+						UUID holdId = reserveRetryingDeadlocks(amount);
+						if (i % 3 == 0) {
+							fundsReservationService.release(holdId);
+						} else {
+							fundsReservationService.commit(holdId);
+							committed.add(holdId);
+						}
+					} catch (RuntimeException e) {
+						assertThat(e).hasMessage("Insufficient funds for transfer");
+						insufficient.incrementAndGet();
+					}
+					if (i == attemptsPerThread / 2) {
+						accountBalanceService.rebalanceAll();
+					}
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		executor.shutdown();
+		assertThat(executor.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+		for (Future<?> task : tasks) {
+			task.get();
+		}
+
+		// 800 attempts of 10.00 against 5000.00 must exhaust the balance exactly, across all slots
+		assertThat(committed).hasSize(500);
+		assertThat(balance()).isEqualByComparingTo("0.00");
+		assertThat(slotRepository.findAll()).allSatisfy(slot -> assertThat(slot.getBalance()).isNotNegative());
+	}
+
+	@Test
+	void debitLargerThanAnySlotIsTakenAcrossSlots() {
+		assertThat(accountBalanceService.debitIfSufficient(ACCOUNT_NUMBER, new BigDecimal("4000.00"))).isTrue();
+		assertThat(balance()).isEqualByComparingTo("1000.00");
+		assertThat(accountBalanceService.debitIfSufficient(ACCOUNT_NUMBER, new BigDecimal("1000.01"))).isFalse();
+
+		// Credits made to the account row by an instance that has not seen the slots yet are swept in
+		transactionTemplate.executeWithoutResult(
+				status -> accountRepository.credit(ACCOUNT_NUMBER, new BigDecimal("600.00")));
+		accountBalanceService.rebalanceAll();
+
+		assertThat(accountRepository.findBalanceColumn(ACCOUNT_NUMBER)).hasValueSatisfying(
+				column -> assertThat(column).isEqualByComparingTo("0.00"));
+		assertThat(slotRepository.findAll()).extracting(AccountBalanceSlot::getBalance)
+				.allSatisfy(slot -> assertThat(slot).isEqualByComparingTo("200.00"));
+	}
+
+	/**
+	 * H2 keeps the row locks of conditional updates that matched nothing, which Postgres does not, so
+	 * the fallback that locks every slot can deadlock with them here. The victim's transaction is
+	 * rolled back whole, and is retried as a client would, up to a bound so that a reserve that always
+	 * deadlocks fails the test instead of hanging it.
+	 */
+	private UUID reserveRetryingDeadlocks(BigDecimal amount) {
+		CannotAcquireLockException lastFailure = null;
+		for (int attempt = 0; attempt < MAX_DEADLOCK_RETRIES; attempt++) {
+			try {
+				return fundsReservationService.reserve(ACCOUNT_NUMBER, amount);
+			} catch (CannotAcquireLockException e) {
+				// Deadlock victim, nothing was debited
+				lastFailure = e;
+			}
+		}
+		throw lastFailure;
+	}
+
+	private BigDecimal balance() {
+		return accountRepository.findBalanceByCustomerId(customerId).orElseThrow().getBalance();
+	}
+}
@@ -0,0 +1,67 @@
+package com.accountService.service.implementation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AccountNumberAllocatorImplTest {
+
+	@Test
+	void checkDigitMatchesCbnExample() {
+		assertThat(AccountNumberAllocatorImpl.checkDigit("011", "000001457")).isEqualTo(9);
+	}
+
+	@Test
+	void concurrentAllocationsAcrossNodesNeverCollide() throws Exception {
+		// Two nodes leasing blocks from the same shared sequence
+		AtomicLong sequence = new AtomicLong();
+		List<AccountNumberAllocatorImpl> nodes = List.of(
+				new AccountNumberAllocatorImpl(sequence::incrementAndGet, "058"),
+				new AccountNumberAllocatorImpl(sequence::incrementAndGet, "058"));
+		int threads = 8;
+		int perThread = 5_000;
+		Set<String> allocated = ConcurrentHashMap.newKeySet();
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Callable<Void>> tasks = IntStream.range(0, threads)
+				.<Callable<Void>>mapToObj(t -> () -> {
+					AccountNumberAllocatorImpl node = nodes.get(t % nodes.size());
+					for (int i = 0; i < perThread; i++) {
+						allocated.add(node.allocate());
+					}
+					return null;
+				})
+				.toList();
+		for (Future<Void> future : executor.invokeAll(tasks)) {
+			future.get();
+		}
+		executor.shutdown();
+
+		assertThat(allocated).hasSize(threads * perThread);
+		assertThat(allocated).allSatisfy(number -> {
+			assertThat(number).matches("\\d{10}");
+			int expected = AccountNumberAllocatorImpl.checkDigit("058", number.substring(0, 9));
+			assertThat(number.charAt(9) - '0').isEqualTo(expected);
+		});
+	}
+
+	@Test
+	void rejectsBlocksBeyondTheSerialSpace() {
+		AccountNumberAllocatorImpl allocator = new AccountNumberAllocatorImpl(() -> 1_000_000L, "058");
+
+		assertThatThrownBy(allocator::allocate)
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessage("Account number space exhausted");
+	}
+}
@@ -0,0 +1,308 @@
+package com.accountService.service.implementation;
+
+import com.accountService.H2DataJpaTest;
+import com.accountService.cache.AccountIdentity;
+import com.accountService.cache.AccountLookupCache;
+import com.accountService.cache.CustomerLookupCache;
+import com.accountService.cache.CustomerUniquenessIndex;
+import com.accountService.client.DownstreamClients;
+import com.accountService.client.PaymentHistoryCoalescer;
+import com.accountService.datasource.ReplicaRouting;
+import com.accountService.dto.request.BankTransferRequest;
+import com.accountService.dto.request.OnBoardCustomerRequest;
+import com.accountService.dto.response.CustomerDashBoardResponse;
+import com.accountService.model.Account;
+import com.accountService.model.Customer;
+import com.accountService.model.repository.AccountRepository;
+import com.accountService.model.repository.CustomerRepository;
+import com.accountService.security.TransferPinCipher;
+import com.accountService.service.interfaces.AccountNumberAllocator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the dashboard degrades instead of failing when its payment-history branch cannot
+ * complete, against a local payment-service stub and a dashboard executor of a single thread, and
+ * that onboarding and transfers evict what they change from the lookup cache.
+ */
+@H2DataJpaTest
+@TestPropertySource(properties = {
+		"dashboard.timeout.transactions=1000",
+		"api.payment.history.coalesce.window=0"
+})
+@Import({AccountServiceImpl.class, TransferIdempotencyServiceImpl.class, AsyncTransferServiceImpl.class,
+		FundsReservationServiceImpl.class, AccountBalanceServiceImpl.class, LedgerServiceImpl.class,
+		DownstreamClients.class, PaymentHistoryCoalescer.class, CustomerLookupCache.class, AccountLookupCache.class,
+		CustomerUniquenessIndex.class, ReplicaRouting.class, TransferPinCipher.class,
+		AccountServiceImplTest.Collaborators.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AccountServiceImplTest {
+
+	private static final String ACCOUNT_NUMBER = "0123456789";
+	private static volatile long historyDelayMs;
+	private static ExecutorService paymentExecutor;
+	private static HttpServer payment;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private AccountServiceImpl accountService;
+
+	@Autowired
+	private AccountLookupCache accountLookupCache;
+
+	@Autowired
+	private SimpleMeterRegistry meterRegistry;
+
+	@Autowired
+	@Qualifier("dashboardExecutor")
+	private ThreadPoolTaskExecutor dashboardExecutor;
+
+	private UUID customerId;
+
+	@BeforeAll
+	static void startPaymentService() throws Exception {
+		paymentExecutor = Executors.newCachedThreadPool();
+		payment = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		payment.setExecutor(paymentExecutor);
+		payment.createContext("/", exchange -> {
+			try {
+				Thread.sleep(historyDelayMs);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			byte[] body = ("[{\"transactionId\":\"" + UUID.randomUUID() + "\",\"amount\":10.00,\"status\":\"SUCCESS\"}]")
+					.getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			try (OutputStream out = exchange.getResponseBody()) {
+				exchange.sendResponseHeaders(200, body.length);
+				out.write(body);
+			} catch (IOException e) {
+				// The client gave up waiting
+			}
+		});
+		payment.createContext("/bank-transfer", exchange -> {
+			byte[] body = ("{\"transactionReference\":\"" + UUID.randomUUID() + "\",\"status\":\"SUCCESS\"}")
+					.getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			try (OutputStream out = exchange.getResponseBody()) {
+				exchange.sendResponseHeaders(200, body.length);
+				out.write(body);
+			}
+		});
+		payment.start();
+	}
+
+	@DynamicPropertySource
+	static void paymentUrl(DynamicPropertyRegistry registry) {
+		registry.add("api.payment.history.url",
+				() -> "http://127.0.0.1:" + payment.getAddress().getPort() + "/history");
+		registry.add("api.bank.transfer.url",
+				() -> "http://127.0.0.1:" + payment.getAddress().getPort() + "/bank-transfer");
+	}
+
+	@AfterAll
+	static void stopPaymentService() {
+		payment.stop(0);
+		paymentExecutor.shutdownNow();
+	}
+
+	@BeforeEach
+	void setUp() throws Exception {
+		assertThat(awaitIdle(dashboardExecutor)).isTrue();
+		accountRepository.deleteAll();
+		customerRepository.deleteAll();
+		historyDelayMs = 0;
+
+		customerId = accountRepository.save(Account.builder()
+				.accountNumber(ACCOUNT_NUMBER)
+				.customer(Customer.builder()
+						.firstName("Ada")
+						.lastName("Obi")
+						.email("ada@example.com")
+						.phoneNumber("08000000000")
+						.build())
+				.balance(new BigDecimal("5000.00"))
+				.build()).getCustomer().getId();
+	}
+
+	@Test
+	void dashboardIncludesHistoryWhenItArrivesInTime() {
+		CustomerDashBoardResponse dashboard = accountService.getCustomerDashBoard(customerId);
+
+		assertThat(dashboard.isTransactionsUnavailable()).isFalse();
+		assertThat(dashboard.getTransactions()).hasSize(1);
+		assertThat(dashboard.getAccountNumber()).isEqualTo(ACCOUNT_NUMBER);
+	}
+
+	@Test
+	void slowHistoryDegradesTheDashboardAndFreesItsThread() throws Exception {
+		historyDelayMs = 4000;
+
+		long started = System.nanoTime();
+		CustomerDashBoardResponse dashboard = accountService.getCustomerDashBoard(customerId);
+
+		assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(3000);
+		assertThat(dashboard.isTransactionsUnavailable()).isTrue();
+		assertThat(dashboard.getTransactions()).isEmpty();
+		assertThat(dashboard.getCustomerName()).isEqualTo("Ada Obi");
+		assertThat(dashboard.getBalance()).isEqualByComparingTo("5000.00");
+
+		// The history call is cut off at its budget, well before the stub answers, so the executor's
+		// only thread is free again long before the 4 s the stub takes
+		assertThat(awaitIdle(dashboardExecutor)).isTrue();
+		assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(3000);
+	}
+
+	@Test
+	void saturatedExecutorDegradesTheDashboardInsteadOfFailingIt() throws Exception {
+		CountDownLatch occupied = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		dashboardExecutor.execute(() -> {
+			occupied.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		assertThat(occupied.await(1, TimeUnit.SECONDS)).isTrue();
+		try {
+			CustomerDashBoardResponse dashboard = accountService.getCustomerDashBoard(customerId);
+
+			assertThat(dashboard.isTransactionsUnavailable()).isTrue();
+			assertThat(dashboard.getAccountNumber()).isEqualTo(ACCOUNT_NUMBER);
+		} finally {
+			release.countDown();
+		}
+	}
+
+	@Test
+	void onboardingDropsTheCachedMissForItsAccountNumber() {
+		assertThat(accountLookupCache.find("9999999999")).isEmpty();
+
+		OnBoardCustomerRequest request = new OnBoardCustomerRequest();
+		request.setFirstName("Obi");
+		request.setLastName("Eze");
+		request.setEmail("obi@example.com");
+		request.setPhoneNumber("08000000001");
+		request.setBvn("22222222222");
+		accountService.onBoardCustomer(request);
+
+		assertThat(accountLookupCache.find("9999999999")).get().extracting(AccountIdentity::getAccountNumber)
+				.isEqualTo("9999999999");
+	}
+
+	@Test
+	void transferDropsTheCachedSourceAccount() {
+		BankTransferRequest request = BankTransferRequest.builder()
+				.customerId(customerId)
+				.sourceAccountNumber(ACCOUNT_NUMBER)
+				.destinationAccountNumber("1111111111")
+				.destinationBankCode("058")
+				.amount(new BigDecimal("100.00"))
+				.transactionPin("1234")
+				.build();
+
+		assertThat(accountService.bankTransfer(request).getStatus()).isEqualTo("SUCCESS");
+
+		// The transfer's own validation loaded the source account; the next lookup has to load it again
+		double misses = accountLookupMisses();
+		assertThat(accountLookupCache.find(ACCOUNT_NUMBER)).isPresent();
+		assertThat(accountLookupMisses()).isEqualTo(misses + 1);
+	}
+
+	private double accountLookupMisses() {
+		return meterRegistry.get("cache.gets").tags("cache", "account.lookup", "result", "miss")
+				.functionCounter().count();
+	}
+
+	private static boolean awaitIdle(ThreadPoolTaskExecutor executor) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (executor.getActiveCount() > 0) {
+			if (System.nanoTime() > deadline) {
+				return false;
+			}
+			Thread.sleep(20);
+		}
+		return true;
+	}
+
+	/**
+	 * Beans the service needs from outside the JPA slice.
+	 */
+	@TestConfiguration
+	static class Collaborators {
+
+		@Bean
+		SimpleMeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+
+		@Bean
+		RestTemplateBuilder restTemplateBuilder() {
+			return new RestTemplateBuilder();
+		}
+
+		@Bean
+		ObjectMapper objectMapper() {
+			return new ObjectMapper().findAndRegisterModules();
+		}
+
+		@Bean
+		AccountNumberAllocator accountNumberAllocator() {
+			return () -> "9999999999";
+		}
+
+		@Bean
+		ThreadPoolTaskExecutor dashboardExecutor() {
+			ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+			executor.setCorePoolSize(1);
+			executor.setMaxPoolSize(1);
+			executor.setQueueCapacity(0);
+			executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+			return executor;
+		}
+
+		@Bean
+		Executor transferDispatchExecutor() {
+			return Runnable::run;
+		}
+	}
+}
@@ -0,0 +1,311 @@
+package com.accountService.service.implementation;
+
+import com.accountService.H2DataJpaTest;
+import com.accountService.client.DownstreamClients;
+import com.accountService.datasource.ReplicaRouting;
+import com.accountService.dto.request.BankTransferRequest;
+import com.accountService.dto.response.TransferStatusResponse;
+import com.accountService.model.Account;
+import com.accountService.model.Customer;
+import com.accountService.model.HoldStatus;
+import com.accountService.model.TransferOutboxMessage;
+import com.accountService.model.repository.AccountRepository;
+import com.accountService.model.repository.BankTransferRepository;
+import com.accountService.model.repository.CustomerRepository;
+import com.accountService.model.repository.FundsHoldRepository;
+import com.accountService.model.repository.LedgerEntryRepository;
+import com.accountService.model.repository.TransferOutboxRepository;
+import com.accountService.security.TransferPinCipher;
+import com.accountService.service.interfaces.IdempotencyKeyReusedException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Drives the transfer outbox against a local bank stub that fails a configurable number of times.
+ */
+@H2DataJpaTest
+@Import({FundsReservationServiceImpl.class, AccountBalanceServiceImpl.class, LedgerServiceImpl.class,
+		SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AsyncTransferServiceImplTest {
+
+	private static final String ACCOUNT_NUMBER = "0123456789";
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private FundsHoldRepository fundsHoldRepository;
+
+	@Autowired
+	private LedgerEntryRepository ledgerEntryRepository;
+
+	@Autowired
+	private BankTransferRepository bankTransferRepository;
+
+	@Autowired
+	private TransferOutboxRepository transferOutboxRepository;
+
+	@Autowired
+	private FundsReservationServiceImpl fundsReservationService;
+
+	@Autowired
+	private LedgerServiceImpl ledgerService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private HttpServer bank;
+	private ExecutorService bankExecutor;
+	private ExecutorService dispatchExecutor;
+	private final AtomicInteger bankHits = new AtomicInteger();
+	private final AtomicInteger failuresRemaining = new AtomicInteger();
+	private final AtomicInteger failureStatus = new AtomicInteger(503);
+	private final AtomicReference<String> lastBody = new AtomicReference<>();
+	private DownstreamClients downstreamClients;
+	private AsyncTransferServiceImpl asyncTransferService;
+	private UUID customerId;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		transferOutboxRepository.deleteAll();
+		bankTransferRepository.deleteAll();
+		ledgerEntryRepository.deleteAll();
+		fundsHoldRepository.deleteAll();
+		accountRepository.deleteAll();
+		customerRepository.deleteAll();
+
+		Account account = accountRepository.save(Account.builder()
+				.accountNumber(ACCOUNT_NUMBER)
+				.customer(Customer.builder()
+						.firstName("Ada")
+						.lastName("Obi")
+						.email("ada@example.com")
+						.phoneNumber("08000000000")
+						.build())
+				.balance(new BigDecimal("5000.00"))
+				.build());
+		customerId = account.getCustomer().getId();
+
+		bankExecutor = Executors.newCachedThreadPool();
+		bank = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		bank.setExecutor(bankExecutor);
+		bank.createContext("/", exchange -> {
+			int hit = bankHits.incrementAndGet();
+			lastBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+			boolean fail = failuresRemaining.getAndDecrement() > 0;
+			byte[] body = (fail ? "{}" : "{\"transactionReference\":\"REF-" + hit + "\",\"status\":\"SUCCESS\"}")
+					.getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(fail ? failureStatus.get() : 200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		bank.start();
+
+		MockEnvironment environment = new MockEnvironment()
+				.withProperty("api.bank.transfer.url",
+						"http://127.0.0.1:" + bank.getAddress().getPort() + "/bank-transfer")
+				.withProperty("transfer.async.max-attempts", "3")
+				.withProperty("transfer.async.backoff-initial", "0")
+				.withProperty("transfer.async.pin-key", "AAECAwQFBgcICQoLDA0ODxAREhMUFRYXGBkaGxwdHh8=");
+		downstreamClients = new DownstreamClients(environment, new RestTemplateBuilder(), new SimpleMeterRegistry());
+		dispatchExecutor = Executors.newFixedThreadPool(4);
+		asyncTransferService = new AsyncTransferServiceImpl(bankTransferRepository, transferOutboxRepository,
+				fundsReservationService, ledgerService, downstreamClients, new TransactionTemplate(transactionManager),
+				dispatchExecutor, new ObjectMapper().findAndRegisterModules(), new ReplicaRouting(environment),
+				new TransferPinCipher(environment), environment);
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		downstreamClients.destroy();
+		bank.stop(0);
+		bankExecutor.shutdownNow();
+		dispatchExecutor.shutdownNow();
+	}
+
+	@Test
+	void acceptedTransferIsDeliveredAfterTransientFailures() {
+		failuresRemaining.set(2);
+
+		TransferStatusResponse accepted = asyncTransferService.submit(transfer(null));
+
+		assertThat(accepted.getStatus()).isEqualTo("PENDING");
+		assertThat(balance()).isEqualByComparingTo("4900.00");
+		assertThat(bankHits).hasValue(0);
+
+		TransferStatusResponse outcome = drain(accepted.getReference());
+
+		assertThat(outcome.getStatus()).isEqualTo("SUCCESS");
+		assertThat(outcome.getTransactionReference()).isEqualTo("REF-3");
+		assertThat(bankHits).hasValue(3);
+		assertThat(balance()).isEqualByComparingTo("4900.00");
+		assertThat(transferOutboxRepository.count()).isZero();
+		assertThat(ledgerEntryRepository.count()).isEqualTo(1);
+		// Without a client session id the reference is sent, so the bank can discard redeliveries
+		assertThat(lastBody.get()).contains("\"sessionId\":\"" + accepted.getReference() + "\"");
+	}
+
+	@Test
+	void transferBecomesUnknownAndKeepsItsHoldWhenAttemptsRunOut() {
+		failuresRemaining.set(Integer.MAX_VALUE);
+
+		TransferStatusResponse accepted = asyncTransferService.submit(transfer(null));
+		TransferStatusResponse outcome = drain(accepted.getReference());
+
+		// Any of the attempts may have reached the bank
+		assertThat(outcome.getStatus()).isEqualTo("UNKNOWN");
+		assertThat(outcome.getMessage()).startsWith("Transfer outcome unknown after 3 attempts");
+		assertThat(bankHits).hasValue(3);
+		assertThat(balance()).isEqualByComparingTo("4900.00");
+		assertThat(fundsHoldRepository.findAll()).singleElement()
+				.satisfies(hold -> assertThat(hold.getStatus()).isEqualTo(HoldStatus.UNKNOWN));
+		assertThat(transferOutboxRepository.count()).isZero();
+
+		UUID holdId = fundsHoldRepository.findAll().get(0).getId();
+		assertThat(fundsReservationService.resolve(holdId, false)).isTrue();
+		asyncTransferService.holdResolved(holdId, false);
+		assertThat(asyncTransferService.getStatus(accepted.getReference()).getStatus()).isEqualTo("FAILED");
+		assertThat(balance()).isEqualByComparingTo("5000.00");
+	}
+
+	@Test
+	void rejectedTransferFailsAndReleasesItsHold() {
+		failuresRemaining.set(Integer.MAX_VALUE);
+		failureStatus.set(400);
+
+		TransferStatusResponse outcome = drain(asyncTransferService.submit(transfer(null)).getReference());
+
+		assertThat(outcome.getStatus()).isEqualTo("FAILED");
+		assertThat(outcome.getMessage()).startsWith("Transfer rejected by bank service");
+		assertThat(bankHits).hasValue(1);
+		assertThat(balance()).isEqualByComparingTo("5000.00");
+	}
+
+	@Test
+	void conflictIsRetriedRatherThanTreatedAsARefusal() {
+		failuresRemaining.set(1);
+		failureStatus.set(409);
+
+		TransferStatusResponse outcome = drain(asyncTransferService.submit(transfer(null)).getReference());
+
+		assertThat(outcome.getStatus()).isEqualTo("SUCCESS");
+		assertThat(bankHits).hasValue(2);
+		assertThat(balance()).isEqualByComparingTo("4900.00");
+	}
+
+	@Test
+	void pinIsOnlyStoredEncryptedAndIsSentToTheBank() {
+		asyncTransferService.submit(transfer(null));
+
+		TransferOutboxMessage message = transferOutboxRepository.findAll().get(0);
+		assertThat(message.getPayload()).contains("\"transactionPin\":null");
+		assertThat(message.getEncryptedPin()).isNotBlank().doesNotContain("1234");
+
+		asyncTransferService.dispatchDue();
+
+		assertThat(lastBody.get()).contains("\"transactionPin\":\"1234\"");
+	}
+
+	@Test
+	void transferWhosePinCannotBeDecryptedBecomesUnknownWithoutReachingTheBank() {
+		TransferStatusResponse accepted = asyncTransferService.submit(transfer(null));
+		TransferOutboxMessage message = transferOutboxRepository.findAll().get(0);
+		// As if the PIN key had been rotated since the transfer was accepted
+		message.setEncryptedPin(new TransferPinCipher(new MockEnvironment().withProperty("transfer.async.pin-key",
+				"HyAhIiMkJSYnKCkqKywtLi8wMTIzNDU2Nzg5Ojs8PT4=")).encrypt("1234"));
+		transferOutboxRepository.save(message);
+
+		TransferStatusResponse outcome = drain(accepted.getReference());
+
+		assertThat(outcome.getStatus()).isEqualTo("UNKNOWN");
+		assertThat(outcome.getMessage()).startsWith("Stored transfer request cannot be read");
+		assertThat(bankHits).hasValue(0);
+		assertThat(fundsHoldRepository.findAll()).singleElement()
+				.satisfies(hold -> assertThat(hold.getStatus()).isEqualTo(HoldStatus.UNKNOWN));
+		assertThat(transferOutboxRepository.count()).isZero();
+	}
+
+	@Test
+	void resubmittingTheSameSessionReturnsTheAcceptedTransfer() {
+		TransferStatusResponse first = asyncTransferService.submit(transfer("session-1"));
+		TransferStatusResponse second = asyncTransferService.submit(transfer("session-1"));
+
+		assertThat(second.getReference()).isEqualTo(first.getReference());
+		assertThat(balance()).isEqualByComparingTo("4900.00");
+		assertThat(transferOutboxRepository.count()).isEqualTo(1);
+	}
+
+	@Test
+	void reusingASessionForADifferentTransferIsRefused() {
+		asyncTransferService.submit(transfer("session-1"));
+
+		BankTransferRequest different = transfer("session-1");
+		different.setAmount(new BigDecimal("250.00"));
+		assertThatThrownBy(() -> asyncTransferService.submit(different))
+				.isInstanceOf(IdempotencyKeyReusedException.class);
+		BankTransferRequest sameAmount = transfer("session-1");
+		sameAmount.setAmount(new BigDecimal("100"));
+		assertThat(asyncTransferService.submit(sameAmount).getStatus()).isEqualTo("PENDING");
+
+		assertThat(balance()).isEqualByComparingTo("4900.00");
+		assertThat(transferOutboxRepository.count()).isEqualTo(1);
+	}
+
+	private TransferStatusResponse drain(UUID reference) {
+		for (int i = 0; i < 10; i++) {
+			asyncTransferService.dispatchDue();
+			TransferStatusResponse status = asyncTransferService.getStatus(reference);
+			if (!"PENDING".equals(status.getStatus())) {
+				return status;
+			}
+		}
+		return asyncTransferService.getStatus(reference);
+	}
+
+	private BigDecimal balance() {
+		return accountRepository.findByAccountNumber(ACCOUNT_NUMBER).orElseThrow().getBalance();
+	}
+
+	private BankTransferRequest transfer(String sessionId) {
+		return BankTransferRequest.builder()
+				.customerId(customerId)
+				.sourceAccountNumber(ACCOUNT_NUMBER)
+				.destinationAccountNumber("9876543210")
+				.destinationBankCode("058")
+				.amount(new BigDecimal("100.00"))
+				.transactionPin("1234")
+				.sessionId(sessionId)
+				.build();
+	}
+}
@@ -0,0 +1,241 @@
+package com.accountService.service.implementation;
+
+import com.accountService.H2DataJpaTest;
+import com.accountService.client.DownstreamClients;
+import com.accountService.client.PaymentHistoryCoalescer;
+import com.accountService.dto.response.MakePaymentResponse;
+import com.accountService.dto.request.MakePaymentRequest;
+import com.accountService.dto.response.BatchPaymentResult;
+import com.accountService.model.Customer;
+import com.accountService.model.repository.CustomerRepository;
+import com.accountService.model.repository.LedgerEntryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Sends batches to a local payment service stub that records how many calls it has in flight.
+ */
+@H2DataJpaTest
+@Import({LedgerServiceImpl.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BatchPaymentServiceImplTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private LedgerEntryRepository ledgerEntryRepository;
+
+	@Autowired
+	private LedgerServiceImpl ledgerService;
+
+	private HttpServer paymentService;
+	private ExecutorService paymentServiceExecutor;
+	private ExecutorService batchExecutor;
+	private DownstreamClients downstreamClients;
+	private PaymentHistoryCoalescer paymentHistoryCoalescer;
+	private final AtomicInteger hits = new AtomicInteger();
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+	private List<UUID> customerIds;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		ledgerEntryRepository.deleteAll();
+		customerRepository.deleteAll();
+		customerIds = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			customerIds.add(customerRepository.save(Customer.builder()
+					.firstName("Ada")
+					.lastName("Obi")
+					.email("ada" + i + "@example.com")
+					.phoneNumber("0800000000" + i)
+					.build()).getId());
+		}
+
+		paymentServiceExecutor = Executors.newCachedThreadPool();
+		paymentService = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		paymentService.setExecutor(paymentServiceExecutor);
+		paymentService.createContext("/process", exchange -> {
+			hits.incrementAndGet();
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			try {
+				exchange.getRequestBody().readAllBytes();
+				Thread.sleep(20);
+				respond(exchange, payment());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				inFlight.decrementAndGet();
+			}
+		});
+		paymentService.createContext("/process/batch", exchange -> {
+			hits.incrementAndGet();
+			int size = objectMapper.readTree(exchange.getRequestBody()).size();
+			List<String> payments = new ArrayList<>();
+			for (int i = 0; i < size; i++) {
+				payments.add(payment());
+			}
+			respond(exchange, "[" + String.join(",", payments) + "]");
+		});
+		paymentService.start();
+		batchExecutor = Executors.newFixedThreadPool(8);
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		if (downstreamClients != null) {
+			downstreamClients.destroy();
+		}
+		paymentService.stop(0);
+		paymentServiceExecutor.shutdownNow();
+		batchExecutor.shutdownNow();
+	}
+
+	@Test
+	void sendsPaymentsWithBoundedConcurrencyAndReportsEveryOne() throws Exception {
+		BatchPaymentServiceImpl service = service(new MockEnvironment()
+				.withProperty("payment.batch.max-in-flight", "4"));
+		List<MakePaymentRequest> payments = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			payments.add(payment(customerIds.get(i % customerIds.size())));
+		}
+		payments.add(payment(UUID.randomUUID()));
+		payments.add(payment(null));
+
+		List<BatchPaymentResult> results = process(service, payments);
+
+		assertThat(results).hasSize(42);
+		assertThat(results).extracting(BatchPaymentResult::getIndex).containsExactlyInAnyOrderElementsOf(
+				IntStream.range(0, 42).boxed().toList());
+		assertThat(results).filteredOn(result -> result.getError() == null).hasSize(40);
+		assertThat(results).filteredOn(result -> result.getIndex() == 40)
+				.singleElement().extracting(BatchPaymentResult::getError).isEqualTo("Customer not found");
+		assertThat(results).filteredOn(result -> result.getIndex() == 41)
+				.singleElement().extracting(BatchPaymentResult::getError).isEqualTo("Customer ID is required");
+		assertThat(hits.get()).isEqualTo(40);
+		assertThat(maxInFlight.get()).isBetween(2, 4);
+		assertThat(ledgerEntryRepository.count()).isEqualTo(40);
+	}
+
+	@Test
+	void groupsPaymentsIntoBatchApiCallsWhenConfigured() throws Exception {
+		BatchPaymentServiceImpl service = service(new MockEnvironment()
+				.withProperty("api.payment.batch.url",
+						"http://127.0.0.1:" + paymentService.getAddress().getPort() + "/process/batch")
+				.withProperty("payment.batch.downstream-batch-size", "10"));
+		List<MakePaymentRequest> payments = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			payments.add(payment(customerIds.get(i % customerIds.size())));
+		}
+
+		List<BatchPaymentResult> results = process(service, payments);
+
+		assertThat(results).hasSize(25).allSatisfy(result -> {
+			assertThat(result.getError()).isNull();
+			assertThat(result.getPayment().getStatus()).isEqualTo("SUCCESS");
+		});
+		assertThat(hits.get()).isEqualTo(3);
+		assertThat(ledgerEntryRepository.count()).isEqualTo(25);
+	}
+
+	@Test
+	void emptyAndOversizedBatchesAreRefusedBeforeAnyPaymentIsSent() {
+		BatchPaymentServiceImpl service = service(new MockEnvironment()
+				.withProperty("payment.batch.max-size", "2"));
+
+		assertThatThrownBy(() -> service.validate(List.of())).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> service.validate(null)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> service.validate(Collections.nCopies(3, payment(customerIds.get(0)))))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("at most 2");
+		service.validate(Collections.nCopies(2, payment(customerIds.get(0))));
+		assertThat(hits.get()).isZero();
+	}
+
+	@Test
+	void paymentsDropTheirCustomersKeptHistory() throws Exception {
+		BatchPaymentServiceImpl service = service(new MockEnvironment());
+		List<MakePaymentResponse> stale = new ArrayList<>();
+		paymentHistoryCoalescer.fetch(customerIds.get(0), () -> stale);
+		paymentHistoryCoalescer.fetch(customerIds.get(1), () -> stale);
+
+		process(service, List.of(payment(customerIds.get(0))));
+
+		assertThat(paymentHistoryCoalescer.fetch(customerIds.get(0), ArrayList::new)).isNotSameAs(stale);
+		assertThat(paymentHistoryCoalescer.fetch(customerIds.get(1), ArrayList::new)).isSameAs(stale);
+	}
+
+	private BatchPaymentServiceImpl service(MockEnvironment environment) {
+		environment.withProperty("api.payment.url",
+				"http://127.0.0.1:" + paymentService.getAddress().getPort() + "/process");
+		downstreamClients = new DownstreamClients(environment, new RestTemplateBuilder(), new SimpleMeterRegistry());
+		paymentHistoryCoalescer = new PaymentHistoryCoalescer(environment, new SimpleMeterRegistry());
+		return new BatchPaymentServiceImpl(customerRepository, ledgerService, downstreamClients,
+				paymentHistoryCoalescer, batchExecutor,
+				objectMapper, environment);
+	}
+
+	private List<BatchPaymentResult> process(BatchPaymentServiceImpl service, List<MakePaymentRequest> payments)
+			throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		service.process(payments, out);
+		List<BatchPaymentResult> results = new ArrayList<>();
+		for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+			results.add(objectMapper.readValue(line, BatchPaymentResult.class));
+		}
+		return results;
+	}
+
+	private static MakePaymentRequest payment(UUID customerId) {
+		MakePaymentRequest request = new MakePaymentRequest();
+		request.setCustomerId(customerId);
+		request.setAmount(new BigDecimal("1500.00"));
+		request.setPaymentMethod("CARD");
+		return request;
+	}
+
+	private static String payment() {
+		return "{\"transactionId\":\"" + UUID.randomUUID() + "\",\"amount\":1500.00,\"status\":\"SUCCESS\"}";
+	}
+
+	private static void respond(HttpExchange exchange, String json) throws IOException {
+		byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, bytes.length);
+		try (OutputStream body = exchange.getResponseBody()) {
+			body.write(bytes);
+		}
+	}
+}
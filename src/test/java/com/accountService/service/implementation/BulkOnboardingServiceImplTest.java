@@ -0,0 +1,158 @@
+package com.accountService.service.implementation;
+
+import com.accountService.H2DataJpaTest;
+import com.accountService.cache.AccountLookupCache;
+import com.accountService.cache.CustomerUniquenessIndex;
+import com.accountService.dto.response.BulkOnboardingJobResponse;
+import com.accountService.dto.response.BulkOnboardingRowFailure;
+import com.accountService.model.Customer;
+import com.accountService.model.repository.AccountRepository;
+import com.accountService.model.repository.CustomerRepository;
+import com.accountService.service.interfaces.UploadTooLargeException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Runs uploads through the service on the calling thread, with chunks of two rows so that
+ * duplicates are caught both within a chunk and across chunks.
+ */
+@H2DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BulkOnboardingServiceImplTest {
+
+	private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private BulkOnboardingServiceImpl service;
+
+	@BeforeEach
+	void setUp() {
+		accountRepository.deleteAll();
+		customerRepository.deleteAll();
+		MockEnvironment environment = new MockEnvironment()
+				.withProperty("onboarding.bulk.chunk-size", "2")
+				.withProperty("onboarding.bulk.max-upload-bytes", "4096");
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		AtomicLong blocks = new AtomicLong(1);
+		service = new BulkOnboardingServiceImpl(accountRepository, customerRepository,
+				new AccountNumberAllocatorImpl(blocks::getAndIncrement, "000"),
+				new AccountLookupCache(accountRepository, environment, meterRegistry),
+				new CustomerUniquenessIndex(customerRepository, transactionManager, environment, meterRegistry),
+				new TransactionTemplate(transactionManager), Runnable::run,
+				new ObjectMapper().findAndRegisterModules(), environment);
+	}
+
+	@Test
+	void onboardsNdjsonAndReportsMalformedLines() {
+		BulkOnboardingJobResponse job = submit(BulkOnboardingServiceImpl.NDJSON, String.join("",
+				ndjson("ada@example.com", "08000000001", "11111111111"),
+				"{\"firstName\":\"Obi\",\n",
+				"\n",
+				ndjson("obi@example.com", "08000000002", "22222222222"),
+				ndjson("uche@example.com", "08000000003", "33333333333")));
+
+		assertThat(job.getStatus()).isEqualTo("COMPLETED");
+		assertThat(job.getSucceeded()).isEqualTo(3);
+		assertThat(job.getFailures()).extracting(BulkOnboardingRowFailure::getRow, BulkOnboardingRowFailure::getReason)
+				.containsExactly(tuple(2L, "Malformed record"));
+		assertThat(customerRepository.count()).isEqualTo(3);
+		assertThat(accountRepository.count()).isEqualTo(3);
+	}
+
+	@Test
+	void nullLineIsMalformedRatherThanTheEndOfTheUpload() {
+		BulkOnboardingJobResponse job = submit(BulkOnboardingServiceImpl.NDJSON, String.join("",
+				ndjson("ada@example.com", "08000000001", "11111111111"),
+				"null\n",
+				ndjson("obi@example.com", "08000000002", "22222222222")));
+
+		assertThat(job.getStatus()).isEqualTo("COMPLETED");
+		assertThat(job.getSucceeded()).isEqualTo(2);
+		assertThat(job.getFailures()).extracting(BulkOnboardingRowFailure::getRow, BulkOnboardingRowFailure::getReason)
+				.containsExactly(tuple(2L, "Malformed record"));
+	}
+
+	@Test
+	void onboardsCsvAndSkipsRowsThatCannotBeParsed() {
+		BulkOnboardingJobResponse job = submit(CSV, String.join("\n",
+				"firstName,lastName,email,phoneNumber,bvn",
+				"Ada,Obi, ada@example.com ,08000000001,11111111111",
+				"Obi,Eze,obi@example.com,08000000002,22222222222,unexpected,columns",
+				"Uche,Ali,uche@example.com,08000000003,",
+				"Ngozi,Okafor,ngozi@example.com,08000000004,44444444444") + "\n");
+
+		assertThat(job.getStatus()).isEqualTo("COMPLETED");
+		assertThat(job.getSucceeded()).isEqualTo(2);
+		assertThat(job.getFailures()).extracting(BulkOnboardingRowFailure::getRow, BulkOnboardingRowFailure::getReason)
+				.containsExactly(
+						tuple(2L, "Malformed record"),
+						tuple(3L, "Either BVN or NIN must be provided"));
+		assertThat(customerRepository.findAll()).extracting(Customer::getEmail)
+				.containsExactlyInAnyOrder("ada@example.com", "ngozi@example.com");
+	}
+
+	@Test
+	void rejectsDuplicatesWithinTheUploadAndAgainstExistingCustomers() {
+		submit(BulkOnboardingServiceImpl.NDJSON, ndjson("ada@example.com", "08000000001", "11111111111"));
+
+		BulkOnboardingJobResponse job = submit(BulkOnboardingServiceImpl.NDJSON, String.join("",
+				ndjson("ada@example.com", "08000000009", "99999999999"),
+				ndjson("obi@example.com", "08000000002", "22222222222"),
+				ndjson("uche@example.com", "08000000003", "33333333333"),
+				ndjson("ngozi@example.com", "08000000003", "44444444444"),
+				ndjson("eze@example.com", "08000000005", "22222222222")));
+
+		assertThat(job.getSucceeded()).isEqualTo(2);
+		assertThat(job.getFailures()).extracting(BulkOnboardingRowFailure::getRow, BulkOnboardingRowFailure::getReason)
+				.containsExactly(
+						tuple(1L, "Customer with this email already exists"),
+						tuple(4L, "Duplicate phone number in upload"),
+						tuple(5L, "Customer with this BVN already exists"));
+		assertThat(customerRepository.count()).isEqualTo(3);
+	}
+
+	@Test
+	void refusesUploadsOverTheSizeLimit() {
+		String upload = ndjson("ada@example.com", "08000000001", "11111111111").repeat(100);
+
+		assertThatThrownBy(() -> submit(BulkOnboardingServiceImpl.NDJSON, upload))
+				.isInstanceOf(UploadTooLargeException.class);
+		assertThat(customerRepository.count()).isZero();
+	}
+
+	private BulkOnboardingJobResponse submit(MediaType format, String upload) {
+		BulkOnboardingJobResponse submitted = service.submit(
+				new ByteArrayInputStream(upload.getBytes(StandardCharsets.UTF_8)), format);
+		return service.getJob(submitted.getJobId());
+	}
+
+	private static String ndjson(String email, String phoneNumber, String bvn) {
+		return "{\"firstName\":\"Ada\",\"lastName\":\"Obi\",\"email\":\"" + email + "\",\"phoneNumber\":\""
+				+ phoneNumber + "\",\"bvn\":\"" + bvn + "\"}\n";
+	}
+}
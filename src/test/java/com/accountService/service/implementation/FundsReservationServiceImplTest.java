@@ -0,0 +1,175 @@
+package com.accountService.service.implementation;
+
+import com.accountService.H2DataJpaTest;
+import com.accountService.model.Account;
+import com.accountService.model.Customer;
+import com.accountService.model.FundsHold;
+import com.accountService.model.HoldStatus;
+import com.accountService.model.repository.AccountRepository;
+import com.accountService.model.repository.CustomerRepository;
+import com.accountService.model.repository.FundsHoldRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@H2DataJpaTest
+@Import({FundsReservationServiceImpl.class, AccountBalanceServiceImpl.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FundsReservationServiceImplTest {
+
+	private static final String ACCOUNT_NUMBER = "0123456789";
+
+	@Autowired
+	private FundsReservationServiceImpl fundsReservationService;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private FundsHoldRepository fundsHoldRepository;
+
+	@Autowired
+	private SimpleMeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setUp() {
+		fundsHoldRepository.deleteAll();
+		accountRepository.deleteAll();
+		customerRepository.deleteAll();
+
+		Customer customer = Customer.builder()
+				.firstName("Ada")
+				.lastName("Obi")
+				.email("ada@example.com")
+				.phoneNumber("08000000000")
+				.createdAt(LocalDateTime.now())
+				.build();
+		accountRepository.save(Account.builder()
+				.accountNumber(ACCOUNT_NUMBER)
+				.customer(customer)
+				.balance(new BigDecimal("5000.00"))
+				.build());
+	}
+
+	@Test
+	void concurrentReservationsNeverOverdrawOrLoseUpdates() throws Exception {
+		int threads = 16;
+		int attemptsPerThread = 50;
+		BigDecimal amount = new BigDecimal("10.00");
+
+		AtomicInteger insufficient = new AtomicInteger();
+		ConcurrentLinkedQueue<UUID> committed = new ConcurrentLinkedQueue<>();
+		ConcurrentLinkedQueue<UUID> released = new ConcurrentLinkedQueue<>();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+		for (int t = 0; t < threads; t++) {
+			executor.submit(() -> {
+				start.await();
+				for (int i = 0; i < attemptsPerThread; i++) {
+					UUID holdId;
+					try {
+						holdId = fundsReservationService.reserve(ACCOUNT_NUMBER, amount);
+					} catch (RuntimeException e) {
+						assertThat(e).hasMessage("Insufficient funds for transfer");
+						insufficient.incrementAndGet();
+						continue;
+					}
+					// Release every third hold, as a failed remote transfer would
+					if (i % 3 == 0) {
+						fundsReservationService.release(holdId);
+						released.add(holdId);
+					} else {
+						fundsReservationService.commit(holdId);
+						committed.add(holdId);
+					}
+				}
+				return null;
+			});
+		}
+		start.countDown();
+		executor.shutdown();
+		assertThat(executor.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+
+		BigDecimal balance = accountRepository.findByAccountNumber(ACCOUNT_NUMBER).orElseThrow().getBalance();
+		BigDecimal expected = new BigDecimal("5000.00").subtract(amount.multiply(BigDecimal.valueOf(committed.size())));
+
+		assertThat(committed.size() + released.size() + insufficient.get()).isEqualTo(threads * attemptsPerThread);
+		assertThat(balance).isEqualByComparingTo(expected);
+		assertThat(balance).isGreaterThanOrEqualTo(BigDecimal.ZERO);
+		// 800 attempts of 10.00 against 5000.00 must exhaust the balance exactly
+		assertThat(committed.size()).isEqualTo(500);
+		List<FundsHold> holds = fundsHoldRepository.findAll();
+		assertThat(holds).noneMatch(hold -> hold.getStatus() == HoldStatus.HELD);
+	}
+
+	@Test
+	void releasingTwiceCreditsOnce() {
+		UUID holdId = fundsReservationService.reserve(ACCOUNT_NUMBER, new BigDecimal("100.00"));
+
+		assertThat(fundsReservationService.release(holdId)).isTrue();
+		assertThat(fundsReservationService.release(holdId)).isFalse();
+		assertThat(fundsReservationService.commit(holdId)).isFalse();
+
+		BigDecimal balance = accountRepository.findByAccountNumber(ACCOUNT_NUMBER).orElseThrow().getBalance();
+		assertThat(balance).isEqualByComparingTo("5000.00");
+	}
+
+	@Test
+	void reaperMarksOrphanedHoldsUnknownAndNeverReleasesUnreconciledOnes() {
+		UUID orphaned = fundsReservationService.reserve(ACCOUNT_NUMBER, new BigDecimal("100.00"));
+		UUID overdue = fundsReservationService.reserve(ACCOUNT_NUMBER, new BigDecimal("200.00"));
+		fundsReservationService.markUnknown(overdue);
+		UUID recent = fundsReservationService.reserve(ACCOUNT_NUMBER, new BigDecimal("300.00"));
+		UUID awaitingReconciliation = fundsReservationService.reserve(ACCOUNT_NUMBER, new BigDecimal("400.00"));
+		fundsReservationService.markUnknown(awaitingReconciliation);
+		age(orphaned, Duration.ofHours(1));
+		age(overdue, Duration.ofDays(2));
+		age(awaitingReconciliation, Duration.ofHours(1));
+
+		assertThat(fundsReservationService.reapExpired()).isEqualTo(1);
+
+		assertThat(fundsHoldRepository.findById(orphaned).orElseThrow().getStatus()).isEqualTo(HoldStatus.UNKNOWN);
+		assertThat(fundsHoldRepository.findById(overdue).orElseThrow().getStatus()).isEqualTo(HoldStatus.UNKNOWN);
+		assertThat(fundsHoldRepository.findById(recent).orElseThrow().getStatus()).isEqualTo(HoldStatus.HELD);
+		assertThat(fundsHoldRepository.findById(awaitingReconciliation).orElseThrow().getStatus())
+				.isEqualTo(HoldStatus.UNKNOWN);
+		assertThat(meterRegistry.get("funds.hold.unreconciled").gauge().value()).isEqualTo(1.0);
+		BigDecimal balance = accountRepository.findByAccountNumber(ACCOUNT_NUMBER).orElseThrow().getBalance();
+		assertThat(balance).isEqualByComparingTo("4000.00");
+
+		// Funds come back only once the hold is reconciled
+		assertThat(fundsReservationService.resolve(overdue, false)).isTrue();
+		fundsReservationService.reapExpired();
+		assertThat(meterRegistry.get("funds.hold.unreconciled").gauge().value()).isZero();
+		balance = accountRepository.findByAccountNumber(ACCOUNT_NUMBER).orElseThrow().getBalance();
+		assertThat(balance).isEqualByComparingTo("4200.00");
+	}
+
+	private void age(UUID holdId, Duration age) {
+		FundsHold hold = fundsHoldRepository.findById(holdId).orElseThrow();
+		hold.setCreatedAt(LocalDateTime.now().minus(age));
+		fundsHoldRepository.save(hold);
+	}
+}
@@ -0,0 +1,130 @@
+package com.accountService.service.implementation;
+
+import com.accountService.H2DataJpaTest;
+import com.accountService.dto.request.BankTransferRequest;
+import com.accountService.dto.response.BankTransferResponse;
+import com.accountService.dto.response.MakePaymentResponse;
+import com.accountService.dto.response.PaymentHistoryPageResponse;
+import com.accountService.model.LedgerEntry;
+import com.accountService.model.LedgerEntryType;
+import com.accountService.model.repository.LedgerEntryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@H2DataJpaTest
+@Import({LedgerServiceImpl.class, SimpleMeterRegistry.class})
+class LedgerServiceImplTest {
+
+	@Autowired
+	private LedgerServiceImpl ledgerService;
+
+	@Autowired
+	private LedgerEntryRepository ledgerEntryRepository;
+
+	@Autowired
+	private SimpleMeterRegistry meterRegistry;
+
+	@Test
+	void pagesThroughHistoryNewestFirstWithoutGapsOrRepeats() {
+		UUID customerId = UUID.randomUUID();
+		LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+		List<LedgerEntry> entries = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			// Groups of five share a timestamp, so the transaction id has to break ties
+			entries.add(entry(customerId, base.plusMinutes(i / 5)));
+		}
+		ledgerEntryRepository.saveAll(entries);
+		ledgerEntryRepository.save(entry(UUID.randomUUID(), base.plusDays(1)));
+
+		List<MakePaymentResponse> seen = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			PaymentHistoryPageResponse page = ledgerService.getHistory(customerId, cursor, 7);
+			seen.addAll(page.getTransactions());
+			cursor = page.getNextCursor();
+			pages++;
+		} while (cursor != null);
+
+		assertThat(pages).isEqualTo(4);
+		assertThat(seen).hasSize(25);
+		Set<UUID> ids = new HashSet<>();
+		seen.forEach(transaction -> ids.add(transaction.getTransactionId()));
+		assertThat(ids).hasSize(25);
+		for (int i = 1; i < seen.size(); i++) {
+			assertThat(seen.get(i).getCreatedAt()).isBeforeOrEqualTo(seen.get(i - 1).getCreatedAt());
+		}
+	}
+
+	@Test
+	void rejectsMalformedCursor() {
+		assertThatThrownBy(() -> ledgerService.getHistory(UUID.randomUUID(), "not-a-cursor", 10))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void transferWithoutABankReferenceIsRecordedOncePerSession() {
+		BankTransferRequest request = new BankTransferRequest();
+		request.setCustomerId(UUID.randomUUID());
+		request.setSessionId("session-1");
+		request.setSourceAccountNumber("0123456789");
+		request.setAmount(new BigDecimal("250.00"));
+		BankTransferResponse response = new BankTransferResponse();
+		response.setStatus("SUCCESS");
+
+		ledgerService.recordTransfer(request, response);
+		ledgerService.recordTransfer(request, response);
+
+		assertThat(ledgerEntryRepository.findAll())
+			.filteredOn(entry -> entry.getCustomerId().equals(request.getCustomerId()))
+			.singleElement()
+			.extracting(LedgerEntry::getAmount)
+			.isEqualTo(new BigDecimal("250.00"));
+	}
+
+	@Test
+	void outcomesWithoutAnIdentifierAreCountedInsteadOfRecorded() {
+		UUID customerId = UUID.randomUUID();
+		MakePaymentResponse payment = new MakePaymentResponse();
+		payment.setAmount(new BigDecimal("10.00"));
+		payment.setStatus("SUCCESS");
+		BankTransferRequest transfer = new BankTransferRequest();
+		transfer.setCustomerId(customerId);
+		transfer.setAmount(new BigDecimal("250.00"));
+		BankTransferResponse transferResponse = new BankTransferResponse();
+		transferResponse.setStatus("SUCCESS");
+
+		ledgerService.recordPayment(customerId, payment);
+		ledgerService.recordTransfer(transfer, transferResponse);
+
+		assertThat(ledgerEntryRepository.findAll()).noneMatch(entry -> entry.getCustomerId().equals(customerId));
+		assertThat(meterRegistry.get("ledger.entries.unrecorded").tag("type", "PAYMENT").tag("reason", "missing_id")
+			.counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("ledger.entries.unrecorded").tag("type", "BANK_TRANSFER").tag("reason", "missing_id")
+			.counter().count()).isEqualTo(1);
+	}
+
+	private static LedgerEntry entry(UUID customerId, LocalDateTime createdAt) {
+		return LedgerEntry.builder()
+			.transactionId(UUID.randomUUID())
+			.customerId(customerId)
+			.type(LedgerEntryType.PAYMENT)
+			.amount(new BigDecimal("10.00"))
+			.status("SUCCESS")
+			.createdAt(createdAt)
+			.build();
+	}
+}
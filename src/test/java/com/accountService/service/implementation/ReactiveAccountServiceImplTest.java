@@ -0,0 +1,335 @@
+package com.accountService.service.implementation;
+
+import com.accountService.H2DataJpaTest;
+import com.accountService.cache.AccountLookupCache;
+import com.accountService.cache.CustomerLookupCache;
+import com.accountService.client.DownstreamClients;
+import com.accountService.client.PaymentHistoryCoalescer;
+import com.accountService.client.ReactiveDownstreamClients;
+import com.accountService.datasource.ReplicaRouting;
+import com.accountService.dto.request.BankTransferRequest;
+import com.accountService.dto.response.CustomerDashBoardResponse;
+import com.accountService.model.Account;
+import com.accountService.model.Customer;
+import com.accountService.model.HoldStatus;
+import com.accountService.model.IdempotencyStatus;
+import com.accountService.model.repository.AccountRepository;
+import com.accountService.model.repository.CustomerRepository;
+import com.accountService.model.repository.FundsHoldRepository;
+import com.accountService.model.repository.LedgerEntryRepository;
+import com.accountService.model.repository.TransferIdempotencyRecordRepository;
+import com.accountService.service.interfaces.FundsReservationService;
+import com.accountService.service.interfaces.TransferInProgressException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Drives the reactive service on a single event-loop thread against slow local downstream stubs.
+ */
+@H2DataJpaTest
+@Import({FundsReservationServiceImpl.class, AccountBalanceServiceImpl.class, LedgerServiceImpl.class,
+		SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReactiveAccountServiceImplTest {
+
+	private static final String ACCOUNT_NUMBER = "0123456789";
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private FundsHoldRepository fundsHoldRepository;
+
+	@Autowired
+	private LedgerEntryRepository ledgerEntryRepository;
+
+	@Autowired
+	private TransferIdempotencyRecordRepository recordRepository;
+
+	@Autowired
+	private FundsReservationServiceImpl fundsReservationService;
+
+	@Autowired
+	private LedgerServiceImpl ledgerService;
+
+	private HttpServer downstream;
+	private ExecutorService downstreamExecutor;
+	private final AtomicInteger historyDelayMs = new AtomicInteger();
+	private final AtomicInteger bankStatus = new AtomicInteger(200);
+	private final AtomicInteger bankDelayMs = new AtomicInteger();
+	private final AtomicInteger bankHits = new AtomicInteger();
+	private DownstreamClients downstreamClients;
+	private ReactiveDownstreamClients reactiveDownstreamClients;
+	private Scheduler jdbcScheduler;
+	private MockEnvironment environment;
+	private SimpleMeterRegistry meterRegistry;
+	private ReactiveAccountServiceImpl accountService;
+	private UUID customerId;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		recordRepository.deleteAll();
+		ledgerEntryRepository.deleteAll();
+		fundsHoldRepository.deleteAll();
+		accountRepository.deleteAll();
+		customerRepository.deleteAll();
+
+		customerId = accountRepository.save(Account.builder()
+				.accountNumber(ACCOUNT_NUMBER)
+				.customer(Customer.builder()
+						.firstName("Ada")
+						.lastName("Obi")
+						.email("ada@example.com")
+						.phoneNumber("08000000000")
+						.build())
+				.balance(new BigDecimal("5000.00"))
+				.build()).getCustomer().getId();
+
+		downstreamExecutor = Executors.newCachedThreadPool();
+		downstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		downstream.setExecutor(downstreamExecutor);
+		downstream.createContext("/history", exchange -> {
+			try {
+				Thread.sleep(historyDelayMs.get());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			respond(exchange, 200, "[{\"transactionId\":\"" + UUID.randomUUID() + "\",\"amount\":10.00,\"status\":\"SUCCESS\"}]");
+		});
+		downstream.createContext("/bank-transfer", exchange -> {
+			exchange.getRequestBody().readAllBytes();
+			bankHits.incrementAndGet();
+			try {
+				Thread.sleep(bankDelayMs.get());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			respond(exchange, bankStatus.get(), "{\"transactionReference\":\"REF-1\",\"status\":\"SUCCESS\",\"amount\":100.00}");
+		});
+		downstream.start();
+
+		String base = "http://127.0.0.1:" + downstream.getAddress().getPort();
+		environment = new MockEnvironment()
+				.withProperty("api.payment.history.url", base + "/history")
+				.withProperty("api.bank.transfer.url", base + "/bank-transfer")
+				.withProperty("api.reactive.event-loop-threads", "1")
+				.withProperty("dashboard.timeout.transactions", "1000");
+		meterRegistry = new SimpleMeterRegistry();
+		downstreamClients = new DownstreamClients(environment, new RestTemplateBuilder(), meterRegistry);
+		reactiveDownstreamClients = new ReactiveDownstreamClients(environment, WebClient.builder(),
+				downstreamClients, meterRegistry);
+		jdbcScheduler = Schedulers.newBoundedElastic(4, 1000, "jdbc-test");
+		accountService = service(fundsReservationService);
+	}
+
+	private ReactiveAccountServiceImpl service(FundsReservationService reservations) {
+		return new ReactiveAccountServiceImpl(reactiveDownstreamClients, accountRepository,
+				new CustomerLookupCache(customerRepository, environment, meterRegistry),
+				new AccountLookupCache(accountRepository, environment, meterRegistry),
+				ledgerService, new PaymentHistoryCoalescer(environment, meterRegistry), reservations,
+				new TransferIdempotencyServiceImpl(recordRepository, fundsReservationService,
+						new ObjectMapper().findAndRegisterModules(), environment),
+				new ReplicaRouting(environment), jdbcScheduler, environment);
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		reactiveDownstreamClients.destroy();
+		downstreamClients.destroy();
+		jdbcScheduler.dispose();
+		downstream.stop(0);
+		downstreamExecutor.shutdownNow();
+	}
+
+	@Test
+	void oneEventLoopThreadServesConcurrentDashboards() {
+		historyDelayMs.set(300);
+		int dashboards = 40;
+
+		long start = System.nanoTime();
+		List<CustomerDashBoardResponse> responses = Flux.range(0, dashboards)
+				.flatMap(i -> accountService.getCustomerDashBoard(customerId))
+				.collectList()
+				.block(Duration.ofSeconds(10));
+		long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+		assertThat(responses).hasSize(dashboards).allSatisfy(dashboard -> {
+			assertThat(dashboard.getAccountNumber()).isEqualTo(ACCOUNT_NUMBER);
+			assertThat(dashboard.isTransactionsUnavailable()).isFalse();
+			assertThat(dashboard.getTransactions()).hasSize(1);
+		});
+		// Waiting calls hold no thread, so the history calls overlap instead of queueing behind each other
+		assertThat(elapsedMs).isLessThan(dashboards * 300L / 4);
+	}
+
+	@Test
+	void lateHistoryDegradesTheDashboard() {
+		historyDelayMs.set(2000);
+
+		CustomerDashBoardResponse dashboard = accountService.getCustomerDashBoard(customerId)
+				.block(Duration.ofSeconds(5));
+
+		assertThat(dashboard.isTransactionsUnavailable()).isTrue();
+		assertThat(dashboard.getTransactions()).isEmpty();
+		assertThat(dashboard.getBalance()).isEqualByComparingTo("5000.00");
+	}
+
+	@Test
+	void bankTransferSettlesTheHoldByOutcome() {
+		assertThat(accountService.bankTransfer(transfer("session-1")).block(Duration.ofSeconds(5))
+				.getTransactionReference()).isEqualTo("REF-1");
+		assertThat(balance()).isEqualByComparingTo("4900.00");
+
+		// Refused by the bank: nothing happened, so the funds and the session are freed
+		bankStatus.set(400);
+		assertThatThrownBy(() -> accountService.bankTransfer(transfer("session-2")).block(Duration.ofSeconds(5)))
+				.hasMessageStartingWith("Failed to process bank transfer");
+		assertThat(balance()).isEqualByComparingTo("4900.00");
+		assertThat(recordRepository.findByCustomerIdAndSessionId(customerId, "session-2")).isEmpty();
+		assertThat(ledgerEntryRepository.count()).isEqualTo(1);
+	}
+
+	@Test
+	void serverErrorKeepsTheFundsHeldAndRefusesRetries() {
+		bankStatus.set(500);
+		assertThatThrownBy(() -> accountService.bankTransfer(transfer("session-3")).block(Duration.ofSeconds(5)))
+				.hasMessageStartingWith("Failed to process bank transfer");
+
+		// The bank may have moved the money
+		assertThat(balance()).isEqualByComparingTo("4900.00");
+		assertThat(fundsHoldRepository.findAll()).singleElement()
+				.satisfies(hold -> assertThat(hold.getStatus()).isEqualTo(HoldStatus.UNKNOWN));
+
+		bankStatus.set(200);
+		assertThatThrownBy(() -> accountService.bankTransfer(transfer("session-3")).block(Duration.ofSeconds(5)))
+				.isInstanceOf(TransferInProgressException.class);
+		assertThat(bankHits.get()).isEqualTo(1);
+		assertThat(balance()).isEqualByComparingTo("4900.00");
+	}
+
+	@Test
+	void cancelledTransferKeepsTheFundsHeldAndRefusesRetries() throws Exception {
+		bankDelayMs.set(2000);
+		Disposable subscription = accountService.bankTransfer(transfer("session-4")).subscribe();
+		awaitUntil(() -> bankHits.get() == 1);
+
+		subscription.dispose();
+
+		// The transfer was sent, so cancelling must not give the funds back
+		awaitUntil(() -> fundsHoldRepository.findAll().stream().allMatch(hold -> hold.getStatus() == HoldStatus.UNKNOWN));
+		assertThat(balance()).isEqualByComparingTo("4900.00");
+		assertThat(recordRepository.findByCustomerIdAndSessionId(customerId, "session-4").orElseThrow().getStatus())
+				.isEqualTo(IdempotencyStatus.UNKNOWN);
+
+		bankDelayMs.set(0);
+		assertThatThrownBy(() -> accountService.bankTransfer(transfer("session-4")).block(Duration.ofSeconds(5)))
+				.isInstanceOf(TransferInProgressException.class);
+		assertThat(bankHits.get()).isEqualTo(1);
+	}
+
+	@Test
+	void transferCancelledWhileItsFundsAreBeingHeldReleasesThem() throws Exception {
+		CountDownLatch reserving = new CountDownLatch(1);
+		CountDownLatch proceed = new CountDownLatch(1);
+		FundsReservationService slowReserve = mock(FundsReservationService.class, delegatesTo(fundsReservationService));
+		doAnswer(invocation -> {
+			reserving.countDown();
+			// Like a JDBC call, the reserve runs to completion even though cancelling interrupts its thread
+			while (true) {
+				try {
+					proceed.await();
+					break;
+				} catch (InterruptedException e) {
+					// keep waiting
+				}
+			}
+			return fundsReservationService.reserve(invocation.getArgument(0), invocation.getArgument(1));
+		}).when(slowReserve).reserve(any(), any());
+		accountService = service(slowReserve);
+
+		Disposable subscription = accountService.bankTransfer(transfer("session-5")).subscribe();
+		assertThat(reserving.await(5, TimeUnit.SECONDS)).isTrue();
+		subscription.dispose();
+		proceed.countDown();
+
+		// The transfer was never sent, so the funds and the session are given back
+		awaitUntil(() -> fundsHoldRepository.findAll().stream().anyMatch(hold -> hold.getStatus() == HoldStatus.RELEASED));
+		assertThat(balance()).isEqualByComparingTo("5000.00");
+		awaitUntil(() -> recordRepository.findByCustomerIdAndSessionId(customerId, "session-5").isEmpty());
+		assertThat(bankHits.get()).isZero();
+	}
+
+	private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("condition within 5 s").isLessThan(deadline);
+			Thread.sleep(20);
+		}
+	}
+
+	private BigDecimal balance() {
+		return accountRepository.findByAccountNumber(ACCOUNT_NUMBER).orElseThrow().getBalance();
+	}
+
+	private BankTransferRequest transfer(String sessionId) {
+		return BankTransferRequest.builder()
+				.customerId(customerId)
+				.sourceAccountNumber(ACCOUNT_NUMBER)
+				.destinationAccountNumber("9876543210")
+				.destinationBankCode("058")
+				.amount(new BigDecimal("100.00"))
+				.transactionPin("1234")
+				.sessionId(sessionId)
+				.build();
+	}
+
+	private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+		byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream body = exchange.getResponseBody()) {
+			body.write(bytes);
+		}
+	}
+}
@@ -0,0 +1,156 @@
+package com.accountService.service.implementation;
+
+import com.accountService.H2DataJpaTest;
+import com.accountService.dto.response.StatementLine;
+import com.accountService.model.LedgerEntry;
+import com.accountService.model.LedgerEntryType;
+import com.accountService.model.repository.LedgerEntryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@H2DataJpaTest
+class StatementServiceImplTest {
+
+	private static final LocalDate FROM = LocalDate.of(2024, 3, 1);
+	private static final LocalDate TO = LocalDate.of(2024, 3, 31);
+
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+	@Autowired
+	private LedgerEntryRepository ledgerEntryRepository;
+
+	private StatementServiceImpl statementService;
+	private UUID customerId;
+
+	@BeforeEach
+	void setUp() {
+		statementService = new StatementServiceImpl(ledgerEntryRepository, objectMapper, new MockEnvironment());
+		customerId = UUID.randomUUID();
+		LocalDateTime start = FROM.minusDays(2).atStartOfDay();
+		List<LedgerEntry> entries = new ArrayList<>();
+		for (int i = 0; i < 1500; i++) {
+			// Three entries per timestamp, every 40 minutes from two days before the range to past its end
+			entries.add(entry(customerId, start.plusMinutes(40L * (i / 3))));
+		}
+		entries.add(entry(UUID.randomUUID(), FROM.atTime(12, 0)));
+		ledgerEntryRepository.saveAll(entries);
+	}
+
+	@Test
+	void exportsTheRangeAsCsvOldestFirst() throws Exception {
+		String csv = export(null, StatementServiceImpl.CSV);
+
+		List<String> rows = List.of(csv.split("\n"));
+		assertThat(rows.get(0)).isEqualTo("transactionId,createdAt,type,accountNumber,amount,status,reference");
+		List<LocalDateTime> timestamps = rows.subList(1, rows.size()).stream()
+				.map(row -> LocalDateTime.parse(row.split(",")[1]))
+				.toList();
+		assertThat(timestamps).hasSize((int) expectedRows()).isSortedAccordingTo(Comparator.naturalOrder());
+		assertThat(timestamps.get(0)).isAfterOrEqualTo(FROM.atStartOfDay());
+		assertThat(timestamps.get(timestamps.size() - 1)).isBefore(TO.plusDays(1).atStartOfDay());
+	}
+
+	@Test
+	void resumesAfterTheLastRowReceived() throws Exception {
+		List<StatementLine> full = readNdjson(export(null, StatementServiceImpl.NDJSON));
+		assertThat(full).hasSize((int) expectedRows());
+
+		// Resume mid-way through a group of entries sharing one timestamp
+		UUID lastReceived = full.get(700).getTransactionId();
+		List<StatementLine> rest = readNdjson(export(lastReceived, StatementServiceImpl.NDJSON));
+
+		assertThat(rest).extracting(StatementLine::getTransactionId)
+				.containsExactlyElementsOf(full.subList(701, full.size()).stream()
+						.map(StatementLine::getTransactionId).toList());
+		assertThat(export(lastReceived, StatementServiceImpl.CSV)).doesNotStartWith("transactionId");
+	}
+
+	@Test
+	void rejectsPositionsOutsideTheCustomersLedger() {
+		UUID otherCustomersEntry = ledgerEntryRepository.save(entry(UUID.randomUUID(), FROM.atTime(9, 0)))
+				.getTransactionId();
+
+		assertThatThrownBy(() -> export(otherCustomersEntry, StatementServiceImpl.CSV))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void rejectsInvalidRangesAndFormatsBeforeStreaming() {
+		assertThatThrownBy(() -> statementService.validate(TO, FROM, StatementServiceImpl.CSV))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> statementService.validate(FROM, TO, MediaType.APPLICATION_PDF))
+				.isInstanceOf(IllegalArgumentException.class);
+		statementService.validate(FROM, TO, StatementServiceImpl.NDJSON);
+	}
+
+	@Test
+	void abandonsAnExportThatOutrunsItsBudgetSoItCanBeResumed() throws Exception {
+		statementService = new StatementServiceImpl(ledgerEntryRepository, objectMapper,
+				new MockEnvironment().withProperty("statement.export.max-duration", "0"));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		assertThatThrownBy(() -> statementService.export(customerId, FROM, TO, null, StatementServiceImpl.NDJSON, out))
+				.isInstanceOf(IOException.class)
+				.hasMessageContaining("resume after");
+		List<StatementLine> received = readNdjson(out.toString(StandardCharsets.UTF_8));
+		assertThat(received).hasSize(LedgerEntryRepository.STATEMENT_PAGE_SIZE);
+
+		statementService = new StatementServiceImpl(ledgerEntryRepository, objectMapper, new MockEnvironment());
+		List<StatementLine> rest = readNdjson(export(received.get(received.size() - 1).getTransactionId(),
+				StatementServiceImpl.NDJSON));
+		assertThat(received.size() + rest.size()).isEqualTo(expectedRows());
+	}
+
+	private String export(UUID after, MediaType format) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		statementService.export(customerId, FROM, TO, after, format, out);
+		return out.toString(StandardCharsets.UTF_8);
+	}
+
+	private List<StatementLine> readNdjson(String ndjson) throws Exception {
+		List<StatementLine> lines = new ArrayList<>();
+		for (String line : ndjson.split("\n")) {
+			lines.add(objectMapper.readValue(line, StatementLine.class));
+		}
+		return lines;
+	}
+
+	private long expectedRows() {
+		return ledgerEntryRepository.findAll().stream()
+				.filter(entry -> entry.getCustomerId().equals(customerId))
+				.filter(entry -> !entry.getCreatedAt().isBefore(FROM.atStartOfDay())
+						&& entry.getCreatedAt().isBefore(TO.plusDays(1).atStartOfDay()))
+				.count();
+	}
+
+	private static LedgerEntry entry(UUID customerId, LocalDateTime createdAt) {
+		return LedgerEntry.builder()
+			.transactionId(UUID.randomUUID())
+			.customerId(customerId)
+			.type(LedgerEntryType.PAYMENT)
+			.amount(new BigDecimal("10.00"))
+			.status("SUCCESS")
+			.createdAt(createdAt)
+			.build();
+	}
+}
@@ -0,0 +1,369 @@
+package com.accountService.service.implementation;
+
+import com.accountService.H2DataJpaTest;
+import com.accountService.cache.AccountLookupCache;
+import com.accountService.cache.CustomerLookupCache;
+import com.accountService.cache.CustomerUniquenessIndex;
+import com.accountService.client.DownstreamClients;
+import com.accountService.client.PaymentHistoryCoalescer;
+import com.accountService.datasource.ReplicaRouting;
+import com.accountService.dto.request.BankTransferRequest;
+import com.accountService.dto.response.BankTransferResponse;
+import com.accountService.model.Account;
+import com.accountService.model.Customer;
+import com.accountService.model.FundsHold;
+import com.accountService.model.HoldStatus;
+import com.accountService.model.IdempotencyStatus;
+import com.accountService.model.TransferIdempotencyRecord;
+import com.accountService.model.repository.AccountRepository;
+import com.accountService.model.repository.CustomerRepository;
+import com.accountService.model.repository.FundsHoldRepository;
+import com.accountService.model.repository.LedgerEntryRepository;
+import com.accountService.model.repository.TransferIdempotencyRecordRepository;
+import com.accountService.security.TransferPinCipher;
+import com.accountService.service.interfaces.AccountNumberAllocator;
+import com.accountService.service.interfaces.IdempotencyKeyReusedException;
+import com.accountService.service.interfaces.TransferInProgressException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Submits duplicate transfers through {@link AccountServiceImpl} against a local bank stub,
+ * to check that only one reaches the bank and the rest are answered from the idempotency store.
+ */
+@H2DataJpaTest
+@TestPropertySource(properties = "transfer.idempotency.in-flight-ttl=60000")
+@Import({AccountServiceImpl.class, TransferIdempotencyServiceImpl.class, AsyncTransferServiceImpl.class,
+		FundsReservationServiceImpl.class, AccountBalanceServiceImpl.class, LedgerServiceImpl.class,
+		DownstreamClients.class, PaymentHistoryCoalescer.class, CustomerLookupCache.class, AccountLookupCache.class,
+		CustomerUniquenessIndex.class, ReplicaRouting.class, TransferPinCipher.class,
+		TransferIdempotencyServiceImplTest.Collaborators.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransferIdempotencyServiceImplTest {
+
+	private static final String ACCOUNT_NUMBER = "0123456789";
+	private static final AtomicInteger bankHits = new AtomicInteger();
+	private static volatile int bankStatus = 200;
+	private static ExecutorService bankExecutor;
+	private static HttpServer bank;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private FundsHoldRepository fundsHoldRepository;
+
+	@Autowired
+	private LedgerEntryRepository ledgerEntryRepository;
+
+	@Autowired
+	private TransferIdempotencyRecordRepository recordRepository;
+
+	@Autowired
+	private TransferIdempotencyServiceImpl idempotencyService;
+
+	@Autowired
+	private AccountServiceImpl accountService;
+
+	@Autowired
+	private FundsReservationServiceImpl fundsReservationService;
+
+	private UUID customerId;
+
+	@BeforeAll
+	static void startBank() throws Exception {
+		bankExecutor = Executors.newCachedThreadPool();
+		bank = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		bank.setExecutor(bankExecutor);
+		bank.createContext("/", exchange -> {
+			int hit = bankHits.incrementAndGet();
+			try {
+				// Slow enough that every duplicate arrives while the first is still in flight
+				Thread.sleep(300);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			byte[] body = ("{\"transactionReference\":\"REF-" + hit + "\",\"status\":\"SUCCESS\",\"amount\":100.00}")
+					.getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(bankStatus, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		bank.start();
+	}
+
+	@DynamicPropertySource
+	static void bankUrl(DynamicPropertyRegistry registry) {
+		registry.add("api.bank.transfer.url",
+				() -> "http://127.0.0.1:" + bank.getAddress().getPort() + "/bank-transfer");
+	}
+
+	@AfterAll
+	static void stopBank() {
+		bank.stop(0);
+		bankExecutor.shutdownNow();
+	}
+
+	@BeforeEach
+	void setUp() {
+		recordRepository.deleteAll();
+		ledgerEntryRepository.deleteAll();
+		fundsHoldRepository.deleteAll();
+		accountRepository.deleteAll();
+		customerRepository.deleteAll();
+		bankHits.set(0);
+		bankStatus = 200;
+
+		Account account = accountRepository.save(Account.builder()
+				.accountNumber(ACCOUNT_NUMBER)
+				.customer(Customer.builder()
+						.firstName("Ada")
+						.lastName("Obi")
+						.email("ada@example.com")
+						.phoneNumber("08000000000")
+						.build())
+				.balance(new BigDecimal("5000.00"))
+				.build());
+		customerId = account.getCustomer().getId();
+	}
+
+	@Test
+	void concurrentDuplicatesReachTheBankOnce() throws Exception {
+		int submissions = 8;
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(submissions);
+		List<Future<BankTransferResponse>> results = new ArrayList<>();
+		for (int i = 0; i < submissions; i++) {
+			results.add(executor.submit(() -> {
+				start.await();
+				return accountService.bankTransfer(transfer("session-1"));
+			}));
+		}
+		start.countDown();
+		executor.shutdown();
+		assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+		int succeeded = 0;
+		int conflicts = 0;
+		for (Future<BankTransferResponse> result : results) {
+			try {
+				assertThat(result.get().getTransactionReference()).isEqualTo("REF-1");
+				succeeded++;
+			} catch (ExecutionException e) {
+				assertThat(e.getCause()).isInstanceOf(TransferInProgressException.class);
+				conflicts++;
+			}
+		}
+		assertThat(succeeded).isGreaterThanOrEqualTo(1);
+		assertThat(succeeded + conflicts).isEqualTo(submissions);
+		assertThat(bankHits).hasValue(1);
+
+		// A retry after completion gets the stored response without another bank call or debit
+		BankTransferResponse retry = accountService.bankTransfer(transfer("session-1"));
+		assertThat(retry.getTransactionReference()).isEqualTo("REF-1");
+		assertThat(bankHits).hasValue(1);
+		assertThat(accountRepository.findByAccountNumber(ACCOUNT_NUMBER).orElseThrow().getBalance())
+				.isEqualByComparingTo("4900.00");
+	}
+
+	@Test
+	void refusedTransferCanBeRetriedWithTheSameSession() {
+		bankStatus = 400;
+		assertThatThrownBy(() -> accountService.bankTransfer(transfer("session-2")))
+				.isInstanceOf(RuntimeException.class)
+				.isNotInstanceOf(TransferInProgressException.class);
+		assertThat(balance()).isEqualByComparingTo("5000.00");
+
+		bankStatus = 200;
+		BankTransferResponse response = accountService.bankTransfer(transfer("session-2"));
+
+		assertThat(response.getTransactionReference()).isEqualTo("REF-2");
+		assertThat(balance()).isEqualByComparingTo("4900.00");
+	}
+
+	@Test
+	void ambiguousFailureKeepsTheFundsHeldUntilReconciled() {
+		bankStatus = 500;
+		assertThatThrownBy(() -> accountService.bankTransfer(transfer("session-4")))
+				.isInstanceOf(RuntimeException.class);
+
+		bankStatus = 200;
+		assertThatThrownBy(() -> accountService.bankTransfer(transfer("session-4")))
+				.isInstanceOf(TransferInProgressException.class);
+		assertThat(bankHits.get()).isEqualTo(1);
+
+		FundsHold hold = fundsHoldRepository.findAll().get(0);
+		assertThat(hold.getStatus()).isEqualTo(HoldStatus.UNKNOWN);
+		assertThat(balance()).isEqualByComparingTo("4900.00");
+
+		assertThat(fundsReservationService.resolve(hold.getId(), false)).isTrue();
+		assertThat(balance()).isEqualByComparingTo("5000.00");
+	}
+
+	@Test
+	void sweeperFreesSessionsAbandonedBeforeHoldingFunds() {
+		recordRepository.save(TransferIdempotencyRecord.builder()
+				.customerId(customerId)
+				.sessionId("session-3")
+				.status(IdempotencyStatus.IN_FLIGHT)
+				.createdAt(LocalDateTime.now().minusMinutes(5))
+				.build());
+		assertThatThrownBy(() -> idempotencyService.claim(transfer("session-3")))
+				.isInstanceOf(TransferInProgressException.class);
+
+		idempotencyService.sweepExpired();
+
+		assertThat(idempotencyService.claim(transfer("session-3"))).isEmpty();
+	}
+
+	@Test
+	void sweeperKeepsSessionsAbandonedInFlightUntilTheirHoldIsResolved() {
+		// A node died after holding the funds, possibly after sending the transfer
+		UUID holdId = fundsReservationService.reserve(ACCOUNT_NUMBER, new BigDecimal("100.00"));
+		recordRepository.save(TransferIdempotencyRecord.builder()
+				.customerId(customerId)
+				.sessionId("session-6")
+				.fingerprint(TransferIdempotencyServiceImpl.fingerprint(transfer("session-6")))
+				.status(IdempotencyStatus.IN_FLIGHT)
+				.holdId(holdId)
+				.createdAt(LocalDateTime.now().minusDays(2))
+				.build());
+
+		idempotencyService.sweepExpired();
+
+		assertThat(recordRepository.findByCustomerIdAndSessionId(customerId, "session-6").orElseThrow().getStatus())
+				.isEqualTo(IdempotencyStatus.UNKNOWN);
+		assertThat(fundsHoldRepository.findById(holdId).orElseThrow().getStatus()).isEqualTo(HoldStatus.UNKNOWN);
+		assertThat(balance()).isEqualByComparingTo("4900.00");
+		assertThatThrownBy(() -> accountService.bankTransfer(transfer("session-6")))
+				.isInstanceOf(TransferInProgressException.class);
+
+		// Age alone never frees the session
+		idempotencyService.sweepExpired();
+		assertThatThrownBy(() -> idempotencyService.claim(transfer("session-6")))
+				.isInstanceOf(TransferInProgressException.class);
+
+		assertThat(fundsReservationService.resolve(holdId, false)).isTrue();
+		idempotencyService.sweepExpired();
+
+		assertThat(accountService.bankTransfer(transfer("session-6")).getStatus()).isEqualTo("SUCCESS");
+		assertThat(bankHits.get()).isEqualTo(1);
+	}
+
+	@Test
+	void claimIsLinkedToItsHoldBeforeTheTransferIsSent() {
+		accountService.bankTransfer(transfer("session-7"));
+
+		TransferIdempotencyRecord record = recordRepository.findByCustomerIdAndSessionId(customerId, "session-7")
+				.orElseThrow();
+		assertThat(record.getHoldId()).isEqualTo(fundsHoldRepository.findAll().get(0).getId());
+	}
+
+	@Test
+	void sessionCannotBeReusedForADifferentTransfer() {
+		accountService.bankTransfer(transfer("session-5"));
+
+		BankTransferRequest sameAmount = transfer(" session-5 ");
+		sameAmount.setAmount(new BigDecimal("100"));
+		assertThat(accountService.bankTransfer(sameAmount).getTransactionReference()).isEqualTo("REF-1");
+
+		BankTransferRequest otherDestination = transfer("session-5");
+		otherDestination.setDestinationAccountNumber("1111111111");
+		assertThatThrownBy(() -> accountService.bankTransfer(otherDestination))
+				.isInstanceOf(IdempotencyKeyReusedException.class);
+		assertThat(bankHits.get()).isEqualTo(1);
+	}
+
+	private BigDecimal balance() {
+		return accountRepository.findByAccountNumber(ACCOUNT_NUMBER).orElseThrow().getBalance();
+	}
+
+	private BankTransferRequest transfer(String sessionId) {
+		return BankTransferRequest.builder()
+				.customerId(customerId)
+				.sourceAccountNumber(ACCOUNT_NUMBER)
+				.destinationAccountNumber("9876543210")
+				.destinationBankCode("058")
+				.amount(new BigDecimal("100.00"))
+				.transactionPin("1234")
+				.sessionId(sessionId)
+				.build();
+	}
+
+	/**
+	 * Beans the service needs from outside the JPA slice.
+	 */
+	@TestConfiguration
+	static class Collaborators {
+
+		@Bean
+		SimpleMeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+
+		@Bean
+		RestTemplateBuilder restTemplateBuilder() {
+			return new RestTemplateBuilder();
+		}
+
+		@Bean
+		ObjectMapper objectMapper() {
+			return new ObjectMapper().findAndRegisterModules();
+		}
+
+		@Bean
+		AccountNumberAllocator accountNumberAllocator() {
+			return () -> "9999999999";
+		}
+
+		@Bean
+		Executor dashboardExecutor() {
+			return Runnable::run;
+		}
+
+		@Bean
+		Executor transferDispatchExecutor() {
+			return Runnable::run;
+		}
+	}
+}